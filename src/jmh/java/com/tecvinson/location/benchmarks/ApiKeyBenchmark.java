@@ -0,0 +1,34 @@
+package com.tecvinson.location.benchmarks;
+
+import com.tecvinson.location.services.ValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Hashing of the X-API-KEY header, done on every authenticated request
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiKeyBenchmark {
+
+    // Hashing never touches the API key cache
+    private final ValidationService validationService = new ValidationService(null);
+    private final String apiKey = UUID.randomUUID().toString();
+
+    @Benchmark
+    public String hashApiKey() {
+        return validationService.hashApiKey(apiKey);
+    }
+}
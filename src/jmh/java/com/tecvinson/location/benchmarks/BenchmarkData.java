@@ -0,0 +1,121 @@
+package com.tecvinson.location.benchmarks;
+
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic but realistically shaped object graphs: every location hangs off a full area -> city -> state ->
+ * country -> continent chain, names have typical lengths and half of the areas carry a boundary polygon.
+ */
+public record BenchmarkData(List<Continent> continents, List<Country> countries, List<State> states,
+                            List<City> cities, List<Area> areas, List<Location> locations) {
+
+    private static final String[] STREETS = {"Main Street", "Station Road", "Church Lane", "Victoria Avenue",
+            "Harbour View", "Market Square", "Mill Road", "Park Crescent"};
+
+    // Builds a hierarchy with the given number of locations and proportionally fewer places above them
+    public static BenchmarkData hierarchy(int locationCount) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        List<Continent> continents = new ArrayList<>();
+        List<Country> countries = new ArrayList<>();
+        List<State> states = new ArrayList<>();
+        List<City> cities = new ArrayList<>();
+        List<Area> areas = new ArrayList<>();
+        List<Location> locations = new ArrayList<>(locationCount);
+
+        int areaCount = Math.max(1, locationCount / 10);
+        for (int i = 0; i < areaCount; i++) {
+            if (i % 50 == 0) {
+                Continent continent = new Continent();
+                continent.setId(UUID.randomUUID());
+                continent.setName("Continent " + continents.size());
+                continent.setClientId(UUID.randomUUID());
+                continents.add(continent);
+            }
+            if (i % 25 == 0) {
+                Country country = new Country();
+                country.setId(UUID.randomUUID());
+                country.setName("Republic of Country " + countries.size());
+                country.setCountryCode("C" + countries.size());
+                country.setPhoneCode("+" + (countries.size() + 1));
+                country.setFlag("https://flags.example.com/" + countries.size() + ".svg");
+                country.setContinent(continents.get(continents.size() - 1));
+                countries.add(country);
+            }
+            if (i % 10 == 0) {
+                State state = new State();
+                state.setId(UUID.randomUUID());
+                state.setName("State of Region " + states.size());
+                state.setCountry(countries.get(countries.size() - 1));
+                states.add(state);
+            }
+            if (i % 5 == 0) {
+                City city = new City();
+                city.setId(UUID.randomUUID());
+                city.setName("Greater City " + cities.size());
+                city.setState(states.get(states.size() - 1));
+                cities.add(city);
+            }
+            Area area = new Area();
+            area.setId(UUID.randomUUID());
+            area.setName("District " + i);
+            area.setCity(cities.get(cities.size() - 1));
+            if (i % 2 == 0) {
+                double lat = random.nextDouble() * 120 - 60;
+                double lng = random.nextDouble() * 340 - 170;
+                area.setBoundary(new double[][][]{{{lng, lat}, {lng + 0.1, lat}, {lng + 0.1, lat + 0.1},
+                        {lng, lat + 0.1}, {lng, lat}}});
+            }
+            area.setDateCreated(now);
+            areas.add(area);
+        }
+
+        for (int i = 0; i < locationCount; i++) {
+            Location location = new Location();
+            location.setId(UUID.randomUUID());
+            location.setHouseAddress(Integer.toString(1 + random.nextInt(999)));
+            location.setStreetName(STREETS[random.nextInt(STREETS.length)]);
+            location.setFreeText(random.nextBoolean() ? "Second floor, ring the bell twice" : null);
+            location.setLatitude(random.nextDouble() * 180 - 90);
+            location.setLongitude(random.nextDouble() * 360 - 180);
+            location.setArea(areas.get(i % areas.size()));
+            location.setDateCreated(now.plusSeconds(i));
+            location.setDateModified(now.plusSeconds(i));
+            locations.add(location);
+        }
+
+        return new BenchmarkData(continents, countries, states, cities, areas, locations);
+    }
+
+    // The same hierarchy as gazetteer places
+    public List<GazetteerPlace> places() {
+        List<GazetteerPlace> places = new ArrayList<>();
+        continents.forEach(continent -> places.add(GazetteerPlace.of(continent)));
+        countries.forEach(country -> places.add(GazetteerPlace.of(country)));
+        states.forEach(state -> places.add(GazetteerPlace.of(state)));
+        cities.forEach(city -> places.add(GazetteerPlace.of(city)));
+        areas.forEach(area -> places.add(GazetteerPlace.of(area)));
+        return places;
+    }
+
+    // A gazetteer index holding the hierarchy, loaded without a database
+    public GazetteerIndex gazetteerIndex() {
+        GazetteerIndex index = new GazetteerIndex(null, null, null, null, null, null);
+        index.replace(places());
+        return index;
+    }
+}
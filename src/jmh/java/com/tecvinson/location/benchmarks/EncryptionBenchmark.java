@@ -0,0 +1,72 @@
+package com.tecvinson.location.benchmarks;
+
+import com.tecvinson.location.services.EncryptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Encryption of generated API keys and the decryption done for the tenants returned by the tenant endpoints
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptionBenchmark {
+
+    // Size of the largest tenant page
+    private static final int PAGE_SIZE = 100;
+
+    private final EncryptionService encryptionService = new EncryptionService("0123456789abcdef", 0, 64, 0);
+
+    private String apiKey;
+    private String encryptedApiKey;
+    private final List<String> encryptedPage = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        apiKey = UUID.randomUUID().toString();
+        encryptedApiKey = encryptionService.encrypt(apiKey);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            encryptedPage.add(encryptionService.encrypt(UUID.randomUUID().toString()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        encryptionService.shutdown();
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionService.encrypt(apiKey);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionService.decrypt(encryptedApiKey);
+    }
+
+    @Benchmark
+    public List<String> decryptPageOneByOne() {
+        return encryptedPage.stream().map(encryptionService::decrypt).toList();
+    }
+
+    @Benchmark
+    public List<String> decryptPageBatch() {
+        return encryptionService.decryptAll(encryptedPage);
+    }
+}
@@ -0,0 +1,96 @@
+package com.tecvinson.location.benchmarks;
+
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.search.AddressDocument;
+import com.tecvinson.location.search.AddressSearchIndex;
+import com.tecvinson.location.spatial.AreaPath;
+import com.tecvinson.location.spatial.GeoGridIndex;
+import com.tecvinson.location.spatial.GridPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * The filtering LocationService does in Java rather than in the database: the hierarchy scope applied to
+ * every candidate of a nearest-location search, and the in-memory address search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocationFilterBenchmark {
+
+    @Param({"100000"})
+    public int locationCount;
+
+    private GeoGridIndex grid;
+    private final Map<UUID, AreaPath> areaPaths = new HashMap<>();
+    private AddressSearchIndex addressSearchIndex;
+    private UUID countryId;
+    private double latitude;
+    private double longitude;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.hierarchy(locationCount);
+
+        for (Area area : data.areas()) {
+            areaPaths.put(area.getId(), new AreaPath(area.getId(), area.getName(),
+                    area.getCity().getId(), area.getCity().getName(),
+                    area.getCity().getState().getId(), area.getCity().getState().getName(),
+                    area.getCity().getState().getCountry().getId(), area.getCity().getState().getCountry().getName()));
+        }
+
+        // Never loads from the repository: documents are indexed directly
+        grid = new GeoGridIndex(0.05);
+        addressSearchIndex = new AddressSearchIndex(null, null);
+        for (Location location : data.locations()) {
+            grid.put(new GridPoint(location.getId(), location.getLatitude(), location.getLongitude(), location.getArea().getId()));
+            addressSearchIndex.index(new AddressDocument(location.getId(), location.getHouseAddress(),
+                    location.getStreetName(), location.getFreeText()));
+        }
+
+        Location probe = data.locations().get(locationCount / 2);
+        countryId = probe.getArea().getCity().getState().getCountry().getId();
+        latitude = probe.getLatitude();
+        longitude = probe.getLongitude();
+    }
+
+    @Benchmark
+    public List<GeoGridIndex.Neighbour> nearestUnscoped() {
+        return grid.nearest(latitude, longitude, 20, Double.MAX_VALUE, point -> areaPaths.containsKey(point.areaId()));
+    }
+
+    // Same scope predicate as LocationService.getNearbyLocations with a country filter
+    @Benchmark
+    public List<GeoGridIndex.Neighbour> nearestInCountry() {
+        Predicate<AreaPath> scope = path -> countryId.equals(path.countryId());
+        return grid.nearest(latitude, longitude, 20, Double.MAX_VALUE, point -> {
+            AreaPath path = point.areaId() == null ? null : areaPaths.get(point.areaId());
+            return path != null && scope.test(path);
+        });
+    }
+
+    @Benchmark
+    public List<AddressSearchIndex.Hit> addressSearch() {
+        return addressSearchIndex.search("station ro");
+    }
+}
@@ -0,0 +1,144 @@
+package com.tecvinson.location.benchmarks;
+
+import com.tecvinson.location.dtos.area.AreaResponse;
+import com.tecvinson.location.dtos.country.CountryResponse;
+import com.tecvinson.location.dtos.location.LocationResponse;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.mappers.AreaMapper;
+import com.tecvinson.location.mappers.CountryMapper;
+import com.tecvinson.location.mappers.LocationMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a full list page of entities to responses, once through the reflective ModelMapper path the services
+ * used to take (map, then set the parent names by hand) and once through the hand-written mappers. Areas are
+ * also mapped from the gazetteer snapshot the services now read from.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    // The largest page the list endpoints return
+    private static final int PAGE_SIZE = 100;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private LocationMapper locationMapper;
+    private final AreaMapper areaMapper = new AreaMapper();
+    private final CountryMapper countryMapper = new CountryMapper();
+
+    private List<Location> locations;
+    private List<Area> areas;
+    private List<Country> countries;
+    private Gazetteer gazetteer;
+    private int[] areaSlots;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.hierarchy(PAGE_SIZE);
+        locations = data.locations();
+        areas = data.areas();
+        countries = data.countries();
+        locationMapper = new LocationMapper(data.gazetteerIndex());
+
+        gazetteer = Gazetteer.build(data.places());
+        areaSlots = new int[areas.size()];
+        for (int i = 0; i < areaSlots.length; i++) {
+            areaSlots[i] = gazetteer.indexOf(areas.get(i).getId(), PlaceType.AREA);
+        }
+    }
+
+    @Benchmark
+    public List<LocationResponse> locationsModelMapper() {
+        List<LocationResponse> responses = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            LocationResponse response = modelMapper.map(location, LocationResponse.class);
+            response.setAreaName(location.getArea().getName());
+            response.setCityName(location.getArea().getCity().getName());
+            response.setStateName(location.getArea().getCity().getState().getName());
+            response.setCountryName(location.getArea().getCity().getState().getCountry().getName());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<LocationResponse> locationsMapper() {
+        List<LocationResponse> responses = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            responses.add(locationMapper.toResponse(location));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<AreaResponse> areasModelMapper() {
+        List<AreaResponse> responses = new ArrayList<>(areas.size());
+        for (Area area : areas) {
+            AreaResponse response = modelMapper.map(area, AreaResponse.class);
+            response.setCityName(area.getCity().getName());
+            response.setStateName(area.getCity().getState().getName());
+            response.setCountryName(area.getCity().getState().getCountry().getName());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<AreaResponse> areasMapper() {
+        List<AreaResponse> responses = new ArrayList<>(areas.size());
+        for (Area area : areas) {
+            responses.add(areaMapper.toResponse(area));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<AreaResponse> areasGazetteer() {
+        List<AreaResponse> responses = new ArrayList<>(areaSlots.length);
+        for (int slot : areaSlots) {
+            responses.add(areaMapper.toResponse(gazetteer, slot));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<CountryResponse> countriesModelMapper() {
+        List<CountryResponse> responses = new ArrayList<>(countries.size());
+        for (Country country : countries) {
+            CountryResponse response = modelMapper.map(country, CountryResponse.class);
+            response.setContinentName(country.getContinent().getName());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<CountryResponse> countriesMapper() {
+        List<CountryResponse> responses = new ArrayList<>(countries.size());
+        for (Country country : countries) {
+            responses.add(countryMapper.toResponse(country));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tecvinson.location.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.dtos.area.AreaResponse;
+import com.tecvinson.location.dtos.location.LocationResponse;
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.mappers.AreaMapper;
+import com.tecvinson.location.mappers.LocationMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes list responses to JSON with an ObjectMapper configured the way Spring MVC builds its own, so the
+ * numbers match what the message converters spend per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CursorPage<LocationResponse> locationPage;
+    private List<AreaResponse> areas;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.hierarchy(PAGE_SIZE * 10);
+        LocationMapper locationMapper = new LocationMapper(data.gazetteerIndex());
+        AreaMapper areaMapper = new AreaMapper();
+
+        List<LocationResponse> items = data.locations().subList(0, PAGE_SIZE).stream().map(locationMapper::toResponse).toList();
+        locationPage = new CursorPage<>(items, "MjAyNC0wMS0wMVQwMDowMHwwMDAw", items.size());
+        areas = data.areas().subList(0, PAGE_SIZE).stream().map(areaMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public byte[] locationPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(locationPage);
+    }
+
+    // Half of the areas carry a boundary polygon, which dominates the payload
+    @Benchmark
+    public byte[] areaList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(areas);
+    }
+}
@@ -0,0 +1,64 @@
+package com.tecvinson.location.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Makes the embedded database answer like a remote one: every statement execution waits loadtest.db.latency-ms
+ * before it reaches H2, holding its pooled connection and its request thread just as a round trip to a slow MySQL
+ * would. That is the situation in which the platform-thread pool saturates, so it is what the thread models are
+ * compared under. A latency of 0 leaves the data source untouched.
+ */
+@Component
+@Profile("loadtest")
+public class DatabaseLatency implements BeanPostProcessor {
+
+    private final long latencyMillis;
+
+    public DatabaseLatency(@Value("${loadtest.db.latency-ms:0}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (latencyMillis <= 0 || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return proxy(DataSource.class, dataSource);
+    }
+
+    // Wraps the connections a data source hands out, and the statements a connection creates
+    private <T> T proxy(Class<T> type, Object target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                Thread.sleep(latencyMillis);
+            }
+            Object result = invoke(method, target, args);
+            Class<?> returnType = method.getReturnType();
+            if (result != null && returnType.isInterface()
+                    && (Connection.class.isAssignableFrom(returnType) || Statement.class.isAssignableFrom(returnType))) {
+                return proxy(returnType, result);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
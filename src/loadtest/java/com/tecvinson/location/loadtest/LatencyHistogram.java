@@ -0,0 +1,101 @@
+package com.tecvinson.location.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Log-linear latency histogram in microseconds. Values below 64 µs are counted exactly; above that every
+ * power of two is split into 32 buckets, so a reported percentile is never more than ~3% above the true value.
+ * Not thread-safe: each driver thread records into its own histograms, which are merged at the end.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 32;
+    private static final int EXACT_BUCKETS = 2 * SUB_BUCKETS;
+    private static final int EXACT_MAGNITUDE = 6;
+
+    // Anything slower than ~2 minutes lands in the last bucket
+    private static final int MAX_MAGNITUDE = 26;
+    private static final int BUCKET_COUNT = EXACT_BUCKETS + (MAX_MAGNITUDE - EXACT_MAGNITUDE + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalMicros;
+    private long maxMicros;
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        totalMicros += value;
+        maxMicros = Math.max(maxMicros, value);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalMicros += other.totalMicros;
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public double getMeanMicros() {
+        return totalCount == 0 ? 0 : (double) totalMicros / totalCount;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100)
+    public long percentileMicros(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    // Non-empty buckets keyed by their upper bound, for the report
+    public Map<Long, Long> buckets() {
+        Map<Long, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                buckets.put(bucketUpperBound(i), counts[i]);
+            }
+        }
+        return buckets;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < EXACT_BUCKETS) {
+            return (int) micros;
+        }
+        int magnitude = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_MAGNITUDE);
+        int shift = magnitude - (EXACT_MAGNITUDE - 1);
+        int subBucket = (int) Math.min(micros >>> shift, 2 * SUB_BUCKETS - 1);
+        return EXACT_BUCKETS + (magnitude - EXACT_MAGNITUDE) * SUB_BUCKETS + subBucket - SUB_BUCKETS;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < EXACT_BUCKETS) {
+            return index;
+        }
+        int magnitude = (index - EXACT_BUCKETS) / SUB_BUCKETS + EXACT_MAGNITUDE;
+        int subBucket = (index - EXACT_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = magnitude - (EXACT_MAGNITUDE - 1);
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,339 @@
+package com.tecvinson.location.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.entities.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Drives a mixed read/write workload against the running application over HTTP once it is ready and seeded.
+ * Each worker thread picks an operation per request (writes with the configured probability, reads uniformly
+ * otherwise), records its latency after the warmup period, and the merged per-operation histograms are logged
+ * and written as JSON so runs of different builds can be compared.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDriver.class);
+
+    private record Operation(String name, Function<ThreadLocalRandom, HttpRequest> request) {
+    }
+
+    private record Result(Map<String, LatencyHistogram> histograms, Map<String, Long> errors) {
+    }
+
+    private final LoadTestSeeder seeder;
+    private final ObjectMapper objectMapper;
+    private final int threads;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int writePercent;
+    private final String reportFile;
+    private final boolean exitOnFinish;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+    private LoadTestSeeder.Dataset dataset;
+    // How the server side ran, so that reports of the two thread models can be told apart
+    private Map<String, Object> execution;
+
+    public LoadTestDriver(LoadTestSeeder seeder, ObjectMapper objectMapper,
+                          @Value("${loadtest.driver.threads:8}") int threads,
+                          @Value("${loadtest.driver.duration-seconds:60}") int durationSeconds,
+                          @Value("${loadtest.driver.warmup-seconds:15}") int warmupSeconds,
+                          @Value("${loadtest.driver.write-percent:10}") int writePercent,
+                          @Value("${loadtest.driver.report-file:target/loadtest-result.json}") String reportFile,
+                          @Value("${loadtest.driver.exit-on-finish:true}") boolean exitOnFinish) {
+        this.seeder = seeder;
+        this.objectMapper = objectMapper;
+        this.threads = threads;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.writePercent = writePercent;
+        this.reportFile = reportFile;
+        this.exitOnFinish = exitOnFinish;
+    }
+
+    // Readiness is published once every ApplicationReadyEvent listener has returned, so the in-memory indexes have
+    // loaded the seeded data; a ready listener of its own could run before them, as they are unordered
+    @EventListener
+    public void start(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        ConfigurableApplicationContext context = (ConfigurableApplicationContext) event.getSource();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port", "8080");
+        dataset = seeder.getDataset();
+        execution = execution(context.getEnvironment());
+
+        Thread runner = new Thread(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("Load test failed", e);
+            }
+            if (exitOnFinish) {
+                System.exit(SpringApplication.exit(context));
+            }
+        }, "load-test-driver");
+        runner.start();
+    }
+
+    private void run() throws Exception {
+        List<Operation> reads = readOperations();
+        List<Operation> writes = writeOperations();
+        logger.info("Load test against {}: {} threads, {} s warmup, {} s measured, {}% writes, server {}",
+                baseUrl, threads, warmupSeconds, durationSeconds, writePercent, execution);
+
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long measureTo = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> work(reads, writes, measureFrom, measureTo)));
+        }
+
+        Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        Map<String, Long> errors = new TreeMap<>();
+        for (Future<Result> future : futures) {
+            Result result = future.get();
+            result.histograms().forEach((name, histogram) ->
+                    histograms.computeIfAbsent(name, key -> new LatencyHistogram()).add(histogram));
+            result.errors().forEach((name, count) -> errors.merge(name, count, Long::sum));
+        }
+        executor.shutdown();
+
+        report(histograms, errors);
+    }
+
+    private Result work(List<Operation> reads, List<Operation> writes, long measureFrom, long measureTo) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        Map<String, Long> errors = new LinkedHashMap<>();
+
+        while (System.nanoTime() < measureTo) {
+            Operation operation = random.nextInt(100) < writePercent
+                    ? writes.get(random.nextInt(writes.size()))
+                    : reads.get(random.nextInt(reads.size()));
+            HttpRequest request = operation.request().apply(random);
+
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long end = System.nanoTime();
+
+            if (start < measureFrom) {
+                continue;
+            }
+            if (ok) {
+                histograms.computeIfAbsent(operation.name(), key -> new LatencyHistogram()).record((end - start) / 1000);
+            } else {
+                errors.merge(operation.name(), 1L, Long::sum);
+            }
+        }
+        return new Result(histograms, errors);
+    }
+
+    private List<Operation> readOperations() {
+        return List.of(
+                new Operation("GET /locations", random -> get("/locations?size=20")),
+                new Operation("GET /locations/{id}", random -> get("/locations/" + location(random).getId())),
+                new Operation("GET /locations/getbyarea/{id}", random -> get("/locations/getbyarea/" + pick(dataset.areaIds(), random))),
+                new Operation("GET /locations/search", random -> get("/locations/search?size=20&searchTerm="
+                        + encode(location(random).getStreetName()))),
+                new Operation("GET /locations/nearby", random -> {
+                    Location location = location(random);
+                    return get("/locations/nearby?limit=20&radiusKm=25&lat=" + location.getLatitude() + "&lng=" + location.getLongitude());
+                }),
+                new Operation("GET /areas", random -> get("/areas?size=20")),
+                new Operation("GET /areas/getbycity/{id}", random -> get("/areas/getbycity/" + pick(dataset.cityIds(), random))),
+                new Operation("GET /areas/search", random -> get("/areas/search?name=" + encode(pick(dataset.areaNames(), random)))),
+                new Operation("GET /cities", random -> get("/cities?size=20")),
+                new Operation("GET /cities/search", random -> get("/cities/search?name=" + encode(pick(dataset.cityNames(), random)))),
+                new Operation("GET /places/autocomplete", random -> {
+                    String name = pick(dataset.cityNames(), random);
+                    return get("/places/autocomplete?q=" + encode(name.substring(0, Math.min(name.length(), 3 + random.nextInt(6)))));
+                }),
+                new Operation("GET /places/fuzzy", random -> get("/places/fuzzy?q=" + encode(misspell(pick(dataset.areaNames(), random), random))))
+        );
+    }
+
+    private List<Operation> writeOperations() {
+        return List.of(
+                new Operation("POST /locations", random -> {
+                    Location near = location(random);
+                    return send("POST", "/locations", locationBody(near, random));
+                }),
+                new Operation("PUT /locations/{id}", random -> {
+                    Location location = location(random);
+                    return send("PUT", "/locations/" + location.getId(), locationBody(location, random));
+                })
+        );
+    }
+
+    // A location a few metres from an existing one, in the same area
+    private Map<String, Object> locationBody(Location near, ThreadLocalRandom random) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("houseAddress", Integer.toString(1 + random.nextInt(999)));
+        body.put("streetName", near.getStreetName());
+        body.put("freeText", "Written by the load test");
+        body.put("latitude", near.getLatitude() + random.nextDouble(-0.001, 0.001));
+        body.put("longitude", near.getLongitude() + random.nextDouble(-0.001, 0.001));
+        body.put("areaId", near.getArea().getId());
+        return body;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .header("X-API-KEY", dataset.apiKey())
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Location location(ThreadLocalRandom random) {
+        return pick(dataset.locations(), random);
+    }
+
+    private static <T> T pick(List<T> items, ThreadLocalRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Swaps two neighbouring characters, the typo fuzzy search is meant to tolerate
+    private static String misspell(String name, ThreadLocalRandom random) {
+        if (name.length() < 3) {
+            return name;
+        }
+        char[] chars = name.toCharArray();
+        int i = random.nextInt(chars.length - 1);
+        char swapped = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = swapped;
+        return new String(chars);
+    }
+
+    private void report(Map<String, LatencyHistogram> histograms, Map<String, Long> errors) throws IOException {
+        LatencyHistogram total = new LatencyHistogram();
+        histograms.values().forEach(total::add);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        histograms.forEach((name, histogram) -> operations.put(name, summary(histogram, errors.getOrDefault(name, 0L))));
+        errors.keySet().stream()
+                .filter(name -> !histograms.containsKey(name))
+                .forEach(name -> operations.put(name, summary(new LatencyHistogram(), errors.get(name))));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("threads", threads);
+        report.put("warmupSeconds", warmupSeconds);
+        report.put("durationSeconds", durationSeconds);
+        report.put("writePercent", writePercent);
+        report.put("execution", execution);
+        report.put("total", summary(total, errors.values().stream().mapToLong(Long::longValue).sum()));
+        report.put("operations", operations);
+
+        Path path = Path.of(reportFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+
+        StringBuilder table = new StringBuilder(String.format("%n%-32s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 us", "p90 us", "p99 us", "max us"));
+        operations.keySet().forEach(name -> appendRow(table, name, histograms.getOrDefault(name, new LatencyHistogram()),
+                errors.getOrDefault(name, 0L)));
+        appendRow(table, "total", total, errors.values().stream().mapToLong(Long::longValue).sum());
+        logger.info("Load test finished, histograms written to {}{}", path.toAbsolutePath(), table);
+    }
+
+    private static Map<String, Object> execution(Environment environment) {
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        Map<String, Object> execution = new LinkedHashMap<>();
+        execution.put("threads", virtual ? "virtual" : "platform");
+        execution.put("javaVersion", Runtime.version().feature());
+        execution.put("tomcatMaxThreads", virtual ? null : environment.getProperty("server.tomcat.threads.max", Integer.class, 200));
+        execution.put("connectionPoolSize", environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        execution.put("dbLatencyMillis", environment.getProperty("loadtest.db.latency-ms", Long.class, 0L));
+        return execution;
+    }
+
+    private Map<String, Object> summary(LatencyHistogram histogram, long errorCount) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getCount());
+        summary.put("errors", errorCount);
+        summary.put("throughputPerSecond", (double) histogram.getCount() / durationSeconds);
+        summary.put("meanMicros", histogram.getMeanMicros());
+        summary.put("p50Micros", histogram.percentileMicros(50));
+        summary.put("p90Micros", histogram.percentileMicros(90));
+        summary.put("p99Micros", histogram.percentileMicros(99));
+        summary.put("p999Micros", histogram.percentileMicros(99.9));
+        summary.put("maxMicros", histogram.getMaxMicros());
+        summary.put("buckets", histogram.buckets());
+        return summary;
+    }
+
+    private void appendRow(StringBuilder table, String name, LatencyHistogram histogram, long errorCount) {
+        table.append(String.format("%-32s %10d %8d %10.1f %10d %10d %10d %10d%n", name, histogram.getCount(), errorCount,
+                (double) histogram.getCount() / durationSeconds, histogram.percentileMicros(50),
+                histogram.percentileMicros(90), histogram.percentileMicros(99), histogram.getMaxMicros()));
+    }
+}
@@ -0,0 +1,230 @@
+package com.tecvinson.location.loadtest;
+
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.CommonFields;
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.ContinentRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.LocationRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import com.tecvinson.location.repositories.TenantRepository;
+import com.tecvinson.location.services.EncryptionService;
+import com.tecvinson.location.services.ValidationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills the embedded database with a synthetic hierarchy before the application reports ready, so the
+ * in-memory indexes and the closure table backfill pick it up exactly as they would a production database.
+ * Every location lies near the centre of its area, and every other area has a boundary around that centre.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestSeeder.class);
+
+    // Rows saved per transaction
+    private static final int BATCH_SIZE = 1000;
+
+    // Ids the driver picks request parameters from
+    private static final int SAMPLE_SIZE = 1000;
+
+    private static final String[] STREETS = {"Main Street", "Station Road", "Church Lane", "Victoria Avenue",
+            "Harbour View", "Market Square", "Mill Road", "Park Crescent"};
+
+    // The ids and coordinates the driver builds its requests from
+    public record Dataset(String apiKey, List<Location> locations, List<UUID> areaIds, List<UUID> cityIds,
+                          List<String> areaNames, List<String> cityNames) {
+    }
+
+    private final ContinentRepository continentRepository;
+    private final CountryRepository countryRepository;
+    private final StateRepository stateRepository;
+    private final CityRepository cityRepository;
+    private final AreaRepository areaRepository;
+    private final LocationRepository locationRepository;
+    private final TenantRepository tenantRepository;
+    private final ValidationService validationService;
+    private final EncryptionService encryptionService;
+    private final TransactionTemplate transactionTemplate;
+    private final int locationCount;
+    private final int locationsPerArea;
+    private final long seed;
+    private final String apiKey;
+
+    private volatile Dataset dataset;
+
+    public LoadTestSeeder(ContinentRepository continentRepository, CountryRepository countryRepository,
+                          StateRepository stateRepository, CityRepository cityRepository,
+                          AreaRepository areaRepository, LocationRepository locationRepository,
+                          TenantRepository tenantRepository, ValidationService validationService,
+                          EncryptionService encryptionService, PlatformTransactionManager transactionManager,
+                          @Value("${loadtest.seed.locations:50000}") int locationCount,
+                          @Value("${loadtest.seed.locations-per-area:10}") int locationsPerArea,
+                          @Value("${loadtest.seed.random-seed:42}") long seed,
+                          @Value("${loadtest.api-key}") String apiKey) {
+        this.continentRepository = continentRepository;
+        this.countryRepository = countryRepository;
+        this.stateRepository = stateRepository;
+        this.cityRepository = cityRepository;
+        this.areaRepository = areaRepository;
+        this.locationRepository = locationRepository;
+        this.tenantRepository = tenantRepository;
+        this.validationService = validationService;
+        this.encryptionService = encryptionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.locationCount = locationCount;
+        this.locationsPerArea = Math.max(1, locationsPerArea);
+        this.seed = seed;
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        Random random = new Random(seed);
+
+        Tenant tenant = new Tenant();
+        tenant.setName("Load Test");
+        tenant.setEmail("loadtest@example.com");
+        tenant.setApiKey(validationService.hashApiKey(apiKey));
+        tenant.setEncryptedApiKey(encryptionService.encrypt(apiKey));
+        tenant.setActive(true);
+        tenant.setCreatedBy("SYSTEM");
+        tenant.setModifiedBy("SYSTEM");
+        tenantRepository.save(tenant);
+
+        List<Continent> continents = new ArrayList<>();
+        List<Country> countries = new ArrayList<>();
+        List<State> states = new ArrayList<>();
+        List<City> cities = new ArrayList<>();
+        List<Area> areas = new ArrayList<>();
+        List<double[]> centres = new ArrayList<>();
+
+        int areaCount = Math.max(1, locationCount / locationsPerArea);
+        for (int i = 0; i < areaCount; i++) {
+            if (i % 500 == 0) {
+                Continent continent = new Continent();
+                continent.setName("Continent " + continents.size());
+                continent.setClientId(UUID.randomUUID());
+                stamp(continent);
+                continents.add(continent);
+            }
+            if (i % 100 == 0) {
+                Country country = new Country();
+                country.setName("Republic of Country " + countries.size());
+                country.setCountryCode("C" + countries.size());
+                country.setPhoneCode("+" + (countries.size() + 1));
+                country.setFlag("https://flags.example.com/" + countries.size() + ".svg");
+                country.setContinent(continents.get(continents.size() - 1));
+                stamp(country);
+                countries.add(country);
+            }
+            if (i % 25 == 0) {
+                State state = new State();
+                state.setName("State of Region " + states.size());
+                state.setCountry(countries.get(countries.size() - 1));
+                stamp(state);
+                states.add(state);
+            }
+            if (i % 5 == 0) {
+                City city = new City();
+                city.setName("Greater City " + cities.size());
+                city.setState(states.get(states.size() - 1));
+                stamp(city);
+                cities.add(city);
+            }
+
+            double lat = random.nextDouble() * 120 - 60;
+            double lng = random.nextDouble() * 340 - 170;
+            Area area = new Area();
+            area.setName("District " + i);
+            area.setCity(cities.get(cities.size() - 1));
+            if (i % 2 == 0) {
+                area.setBoundary(new double[][][]{{{lng - 0.05, lat - 0.05}, {lng + 0.05, lat - 0.05},
+                        {lng + 0.05, lat + 0.05}, {lng - 0.05, lat + 0.05}, {lng - 0.05, lat - 0.05}}});
+            }
+            stamp(area);
+            areas.add(area);
+            centres.add(new double[]{lat, lng});
+        }
+
+        List<Location> locations = new ArrayList<>(locationCount);
+        for (int i = 0; i < locationCount; i++) {
+            int areaIndex = i % areas.size();
+            double[] centre = centres.get(areaIndex);
+            Location location = new Location();
+            location.setHouseAddress(Integer.toString(1 + random.nextInt(999)));
+            location.setStreetName(STREETS[random.nextInt(STREETS.length)]);
+            location.setFreeText(random.nextBoolean() ? "Second floor, ring the bell twice" : null);
+            location.setLatitude(centre[0] + random.nextDouble() * 0.1 - 0.05);
+            location.setLongitude(centre[1] + random.nextDouble() * 0.1 - 0.05);
+            location.setArea(areas.get(areaIndex));
+            stamp(location);
+            locations.add(location);
+        }
+
+        // Parents first, so every batch references rows that are already stored
+        saveInBatches(continentRepository, continents);
+        saveInBatches(countryRepository, countries);
+        saveInBatches(stateRepository, states);
+        saveInBatches(cityRepository, cities);
+        saveInBatches(areaRepository, areas);
+        saveInBatches(locationRepository, locations);
+
+        dataset = new Dataset(apiKey, sample(locations, random),
+                sample(areas, random).stream().map(Area::getId).toList(),
+                sample(cities, random).stream().map(City::getId).toList(),
+                sample(areas, random).stream().map(Area::getName).toList(),
+                sample(cities, random).stream().map(City::getName).toList());
+
+        logger.info("Seeded {} continents, {} countries, {} states, {} cities, {} areas and {} locations in {} ms",
+                continents.size(), countries.size(), states.size(), cities.size(), areas.size(), locations.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public Dataset getDataset() {
+        return dataset;
+    }
+
+    private <T> void saveInBatches(JpaRepository<T, UUID> repository, List<T> entities) {
+        for (int from = 0; from < entities.size(); from += BATCH_SIZE) {
+            List<T> batch = entities.subList(from, Math.min(from + BATCH_SIZE, entities.size()));
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+        }
+    }
+
+    private static <T> List<T> sample(List<T> items, Random random) {
+        List<T> sample = new ArrayList<>(SAMPLE_SIZE);
+        for (int i = 0; i < Math.min(SAMPLE_SIZE, items.size()); i++) {
+            sample.add(items.get(random.nextInt(items.size())));
+        }
+        return sample;
+    }
+
+    private static void stamp(CommonFields entity) {
+        entity.setCreatedBy("SYSTEM");
+        entity.setModifiedBy("SYSTEM");
+    }
+}
@@ -0,0 +1,58 @@
+package com.tecvinson.location.auth;
+
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.services.ValidationService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolves the X-API-KEY header once per request into the request's TenantContext. Requests without the header
+ * pass through anonymously; whether an endpoint needs a tenant is decided where the context is read. The key of
+ * a deactivated tenant is treated like an unknown key. The tenant id is put in the logging MDC so every log line
+ * of the request is attributed to it.
+ */
+@Component
+public class ApiKeyFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-API-KEY";
+    public static final String TENANT_MDC_KEY = "tenantId";
+
+    private final ValidationService validationService;
+    private final TenantContext tenantContext;
+
+    public ApiKeyFilter(ValidationService validationService, TenantContext tenantContext) {
+        this.validationService = validationService;
+        this.tenantContext = tenantContext;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey == null || apiKey.isBlank()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Tenant tenant = validationService.findTenant(apiKey).filter(Tenant::isActive).orElse(null);
+        tenantContext.resolve(tenant, tenant != null && validationService.isAdmin(tenant));
+        if (tenant == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        MDC.put(TENANT_MDC_KEY, tenant.getId().toString());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TENANT_MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tecvinson.location.auth;
+
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.exceptions.UnauthorizedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * The tenant behind the current request's X-API-KEY header, resolved once by ApiKeyFilter. Controllers and
+ * services read it instead of validating the key themselves.
+ */
+@Component
+@RequestScope
+public class TenantContext {
+
+    private boolean apiKeyPresented;
+    private Tenant tenant;
+    private boolean admin;
+
+    void resolve(Tenant tenant, boolean admin) {
+        this.apiKeyPresented = true;
+        this.tenant = tenant;
+        this.admin = admin;
+    }
+
+    // Empty for anonymous requests and for requests with an unknown key
+    public Optional<Tenant> getTenant() {
+        return Optional.ofNullable(tenant);
+    }
+
+    // The tenant of the request, rejecting requests without a valid API key
+    public Tenant requireTenant() {
+        if (tenant == null) {
+            throw new UnauthorizedException(apiKeyPresented ? "Invalid API Key" : "API Key is required");
+        }
+        return tenant;
+    }
+
+    // Same as requireTenant, but only admin tenants are let through
+    public Tenant requireAdmin() {
+        Tenant current = requireTenant();
+        if (!admin) {
+            throw new UnauthorizedException("Unauthorized To Perform This Action");
+        }
+        return current;
+    }
+}
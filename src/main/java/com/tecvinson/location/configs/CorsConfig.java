@@ -13,6 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000") // Allow requests from React app
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allowed HTTP methods
                 .allowedHeaders("*") // Allow all headers
+                .exposedHeaders("ETag", "Last-Modified") // Let scripts revalidate with If-None-Match
                 .allowCredentials(true) // Allow cookies and credentials
                 .maxAge(3600); // Cache preflight requests for 1 hour
     }
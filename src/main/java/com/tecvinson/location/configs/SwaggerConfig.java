@@ -1,7 +1,11 @@
 package com.tecvinson.location.configs;
 
+import com.tecvinson.location.auth.ApiKeyFilter;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,6 +19,12 @@ public class SwaggerConfig {
                 .info(new Info()
                         .title("Location API")
                         .version("1.0.0")
-                        .description("API for managing location data"));
+                        .description("API for managing location data"))
+                // Write endpoints read the tenant resolved from this header by ApiKeyFilter
+                .components(new Components().addSecuritySchemes("apiKey", new SecurityScheme()
+                        .type(SecurityScheme.Type.APIKEY)
+                        .in(SecurityScheme.In.HEADER)
+                        .name(ApiKeyFilter.API_KEY_HEADER)))
+                .addSecurityItem(new SecurityRequirement().addList("apiKey"));
     }
 }
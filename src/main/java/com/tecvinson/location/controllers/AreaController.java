@@ -1,16 +1,20 @@
 package com.tecvinson.location.controllers;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.area.AreaResponse;
 import com.tecvinson.location.dtos.area.CreateAreaRequest;
 import com.tecvinson.location.dtos.area.UpdateAreaRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.etag.EntityTags;
 import com.tecvinson.location.services.AreaService;
-import com.tecvinson.location.services.ValidationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,57 +27,78 @@ public class AreaController {
     @Autowired
     AreaService areaService;
     @Autowired
-    ValidationService validationService;
+    TenantContext tenantContext;
+    @Autowired
+    EntityTags entityTags;
 
     @PostMapping("/")
     public ResponseEntity<AreaResponse> createArea(
-            @RequestHeader("X-API-KEY") String apiKey,
             @Valid @RequestBody CreateAreaRequest areaRequest) {
 
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(areaService.createArea(areaRequest));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<AreaResponse> updateArea(
-            @RequestHeader("X-API-KEY") String apiKey,
             @PathVariable UUID id, @Valid @RequestBody UpdateAreaRequest areaRequest) {
 
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.ok(areaService.updateArea(id, areaRequest));
     }
 
     @GetMapping
-    public ResponseEntity<List<AreaResponse>> getAreas() {
-        return ResponseEntity.ok(areaService.getAreas());
+    public ResponseEntity<CursorPage<AreaResponse>> getAreas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.AREA))) {
+            return null;
+        }
+        return ResponseEntity.ok(areaService.getAreas(cursor, size));
     }
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<AreaResponse> getArea(@PathVariable UUID id) {
+    public ResponseEntity<AreaResponse> getArea(@PathVariable UUID id, WebRequest request) {
+        EntityTags.Version version = entityTags.place(id, PlaceType.AREA);
+        if (version != null && request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(areaService.getArea(id));
     }
 
 
     @GetMapping("/search")
-    public ResponseEntity<List<AreaResponse>> getAreaByName(@RequestParam String name) {
+    public ResponseEntity<List<AreaResponse>> getAreaByName(@RequestParam String name, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.AREA))) {
+            return null;
+        }
         return ResponseEntity.ok(areaService.getByName(name));
     }
 
     @GetMapping("/getbycity/{cityId}")
-    public ResponseEntity<List<AreaResponse>> getByCity(@PathVariable UUID cityId) {
+    public ResponseEntity<List<AreaResponse>> getByCity(@PathVariable UUID cityId, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.AREA))) {
+            return null;
+        }
         return ResponseEntity.ok(areaService.getByCity(cityId));
     }
 
     @GetMapping("/getbystate/{stateId}")
-    public ResponseEntity<List<AreaResponse>> getByState(@PathVariable UUID stateId) {
+    public ResponseEntity<List<AreaResponse>> getByState(@PathVariable UUID stateId, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.AREA))) {
+            return null;
+        }
         return ResponseEntity.ok(areaService.getByState(stateId));
     }
 
     @GetMapping("/getbycountry/{countryId}")
-    public ResponseEntity<List<AreaResponse>> getByCountry(@PathVariable UUID countryId) {
+    public ResponseEntity<List<AreaResponse>> getByCountry(@PathVariable UUID countryId, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.AREA))) {
+            return null;
+        }
         return ResponseEntity.ok(areaService.getByCountry(countryId));
     }
 
@@ -0,0 +1,28 @@
+package com.tecvinson.location.controllers;
+
+import com.tecvinson.location.auth.TenantContext;
+import com.tecvinson.location.dtos.cache.CacheRegionResponse;
+import com.tecvinson.location.services.CacheStatisticsService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@Tag(name = "Cache Statistics")
+public class CacheController {
+
+    @Autowired
+    CacheStatisticsService cacheStatisticsService;
+    @Autowired
+    TenantContext tenantContext;
+
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionResponse>> getStatistics() {
+        tenantContext.requireAdmin();
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStatistics());
+    }
+}
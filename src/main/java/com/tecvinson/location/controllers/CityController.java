@@ -1,15 +1,19 @@
 package com.tecvinson.location.controllers;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.city.CityResponse;
 import com.tecvinson.location.dtos.city.CityRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.etag.EntityTags;
 import com.tecvinson.location.services.CityService;
-import com.tecvinson.location.services.ValidationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,51 +26,69 @@ public class CityController {
     @Autowired
     CityService cityService;
     @Autowired
-    ValidationService validationService;
+    TenantContext tenantContext;
+    @Autowired
+    EntityTags entityTags;
 
     @PostMapping
     public ResponseEntity<CityResponse> createCity(
-            @RequestHeader("X-API-KEY") String apiKey,
             @Valid @RequestBody CityRequest cityRequest) {
 
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(cityService.createCity(cityRequest));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<CityResponse> updateCity(
-            @RequestHeader("X-API-KEY") String apiKey,
             @PathVariable UUID id, @Valid @RequestBody CityRequest cityRequest
             ) {
 
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.ok(cityService.updateCity(id, cityRequest));
     }
 
     @GetMapping
-    public ResponseEntity<List<CityResponse>> getCities() {
-        return ResponseEntity.ok(cityService.getCities());
+    public ResponseEntity<CursorPage<CityResponse>> getCities(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.CITY))) {
+            return null;
+        }
+        return ResponseEntity.ok(cityService.getCities(cursor, size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CityResponse> getCity(@PathVariable UUID id){
+    public ResponseEntity<CityResponse> getCity(@PathVariable UUID id, WebRequest request){
+        EntityTags.Version version = entityTags.place(id, PlaceType.CITY);
+        if (version != null && request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(cityService.getCity(id));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<CityResponse>> getCityByName( @RequestParam String name) {
+    public ResponseEntity<List<CityResponse>> getCityByName( @RequestParam String name, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.CITY))) {
+            return null;
+        }
         return ResponseEntity.ok(cityService.getByName(name));
     }
 
     @GetMapping("/getbystate/{stateId}")
-    public ResponseEntity<List<CityResponse>> getByState(@PathVariable UUID stateId) {
+    public ResponseEntity<List<CityResponse>> getByState(@PathVariable UUID stateId, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.CITY))) {
+            return null;
+        }
         return ResponseEntity.ok(cityService.getByState(stateId));
     }
 
     @GetMapping("/getbycountry/{countryId}")
-    public ResponseEntity<List<CityResponse>> getByCountry(@PathVariable UUID countryId) {
+    public ResponseEntity<List<CityResponse>> getByCountry(@PathVariable UUID countryId, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.CITY))) {
+            return null;
+        }
         return ResponseEntity.ok(cityService.getByCountry(countryId));
     }
 
@@ -1,18 +1,21 @@
 package com.tecvinson.location.controllers;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.continent.ContinentResponse;
 import com.tecvinson.location.dtos.continent.CreateContinentRequest;
 import com.tecvinson.location.dtos.continent.UpdateContinentRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.etag.EntityTags;
 import com.tecvinson.location.services.ContinentService;
-import com.tecvinson.location.services.ValidationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -24,38 +27,49 @@ public class ContinentController {
     ContinentService continentService;
 
     @Autowired
-    ValidationService validationService;
+    TenantContext tenantContext;
+    @Autowired
+    EntityTags entityTags;
 
     @PostMapping("/")
     public ResponseEntity<ContinentResponse> createContinent(
-            @RequestHeader("X-API-KEY") String apiKey, @RequestHeader("CLIENT-ID") UUID clientId,
+            @RequestHeader("CLIENT-ID") UUID clientId,
             @Valid @RequestBody CreateContinentRequest continentRequest
             ) {
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(continentService.createContinent(clientId,continentRequest));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ContinentResponse> updateContinent(
-            @RequestHeader("X-API-KEY") String apiKey, @PathVariable UUID id
+            @PathVariable UUID id
             , @Valid @RequestBody UpdateContinentRequest continentRequest
             ) {
 
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.ok(continentService.updateContinent(id,continentRequest));
     }
 
     @GetMapping
-    public ResponseEntity<List<ContinentResponse>> getContinents(){
-        return ResponseEntity.ok(continentService.getContinents());
+    public ResponseEntity<CursorPage<ContinentResponse>> getContinents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.CONTINENT))) {
+            return null;
+        }
+        return ResponseEntity.ok(continentService.getContinents(cursor, size));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ContinentResponse> getContinent(
-            @PathVariable UUID id
+            @PathVariable UUID id, WebRequest request
     ) {
+        EntityTags.Version version = entityTags.place(id, PlaceType.CONTINENT);
+        if (version != null && request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(continentService.getContinent(id));
     }
 }
@@ -1,15 +1,19 @@
 package com.tecvinson.location.controllers;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.country.CountryResponse;
 import com.tecvinson.location.dtos.country.CountryRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.etag.EntityTags;
 import com.tecvinson.location.services.CountryService;
-import com.tecvinson.location.services.ValidationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,47 +26,62 @@ public class CountryController {
     @Autowired
     CountryService countryService;
     @Autowired
-    ValidationService validationService;
+    TenantContext tenantContext;
+    @Autowired
+    EntityTags entityTags;
 
 
 
     @PostMapping
     public ResponseEntity<CountryResponse> createCountry(
-            @RequestHeader("X-API-KEY") String apiKey,
             @Valid @RequestBody CountryRequest countryRequest)
     {
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(countryService.createCountry(countryRequest));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<CountryResponse> updateCountry (
-            @RequestHeader("X-API-KEY") String apiKey,
             @PathVariable UUID id, @Valid @RequestBody  CountryRequest countryRequest)
     {
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
         return ResponseEntity.ok(countryService.updateCountry(id, countryRequest));
     }
 
     @GetMapping()
-    public ResponseEntity<List<CountryResponse>> getCountries() {
-        return ResponseEntity.ok(countryService.getCountries());
+    public ResponseEntity<CursorPage<CountryResponse>> getCountries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.COUNTRY))) {
+            return null;
+        }
+        return ResponseEntity.ok(countryService.getCountries(cursor, size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CountryResponse> getCountry( @PathVariable UUID id ) {
+    public ResponseEntity<CountryResponse> getCountry( @PathVariable UUID id, WebRequest request) {
+        EntityTags.Version version = entityTags.place(id, PlaceType.COUNTRY);
+        if (version != null && request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(countryService.getCountry(id));
     }
 
 
     @GetMapping("/search")
-    public ResponseEntity<List<CountryResponse>> getCountriesByName(@RequestParam String name) {
+    public ResponseEntity<List<CountryResponse>> getCountriesByName(@RequestParam String name, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.COUNTRY))) {
+            return null;
+        }
         return ResponseEntity.ok(countryService.getCountriesByName(name));
     }
 
     @GetMapping("/getbycontinent/{continentId}")
-    public ResponseEntity<List<CountryResponse>> getByContinent(@PathVariable UUID continentId) {
+    public ResponseEntity<List<CountryResponse>> getByContinent(@PathVariable UUID continentId, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.COUNTRY))) {
+            return null;
+        }
         return ResponseEntity.ok(countryService.getByContinent(continentId));
     }
 
@@ -0,0 +1,58 @@
+package com.tecvinson.location.controllers;
+
+import com.tecvinson.location.auth.TenantContext;
+import com.tecvinson.location.dtos.geocoding.ContainmentResponse;
+import com.tecvinson.location.dtos.geocoding.ReverseGeocodeResponse;
+import com.tecvinson.location.exceptions.BadRequestException;
+import com.tecvinson.location.services.ReverseGeocodingService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/geocode")
+@Tag(name = "Geocoding")
+public class GeocodingController {
+
+    @Autowired
+    ReverseGeocodingService reverseGeocodingService;
+    @Autowired
+    TenantContext tenantContext;
+
+
+    @GetMapping("/reverse")
+    public ResponseEntity<ReverseGeocodeResponse> reverseGeocode(@RequestParam double lat, @RequestParam double lng) {
+        return ResponseEntity.ok(reverseGeocodingService.reverseGeocode(lat, lng));
+    }
+
+    @GetMapping("/contains")
+    public ResponseEntity<ContainmentResponse> getContaining(@RequestParam double lat, @RequestParam double lng) {
+        return ResponseEntity.ok(reverseGeocodingService.getContaining(lat, lng));
+    }
+
+    @PostMapping(value = "/reverse/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> reverseGeocodeBatch(
+            @RequestParam("file") MultipartFile file) {
+
+        tenantContext.requireTenant();
+        if (file.isEmpty()) {
+            throw new BadRequestException("Uploaded file is empty");
+        }
+
+        StreamingResponseBody body = out -> {
+            try (InputStream in = file.getInputStream()) {
+                reverseGeocodingService.reverseGeocodeBatch(in, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+}
@@ -1,16 +1,30 @@
 package com.tecvinson.location.controllers;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.location.CreateLocationRequest;
+import com.tecvinson.location.dtos.location.ExportFormat;
+import com.tecvinson.location.dtos.location.ImportFormat;
+import com.tecvinson.location.dtos.location.ImportJobResponse;
+import com.tecvinson.location.dtos.location.ImportRowError;
 import com.tecvinson.location.dtos.location.LocationResponse;
+import com.tecvinson.location.dtos.location.NearbyLocationResponse;
 import com.tecvinson.location.dtos.location.UpdateLocationRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.etag.EntityTags;
+import com.tecvinson.location.services.LocationExportService;
+import com.tecvinson.location.services.LocationImportService;
 import com.tecvinson.location.services.LocationService;
-import com.tecvinson.location.services.ValidationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,64 +37,163 @@ public class LocationController {
     @Autowired
     LocationService locationService;
     @Autowired
-    ValidationService validationService;
+    TenantContext tenantContext;
+    @Autowired
+    EntityTags entityTags;
+    @Autowired
+    LocationExportService locationExportService;
+    @Autowired
+    LocationImportService locationImportService;
 
 
     @PostMapping
     public ResponseEntity<LocationResponse> createLocation(
-            @RequestHeader("X-API-KEY") String apiKey,
             @Valid @RequestBody CreateLocationRequest locationRequest) {
 
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(locationService.createLocation(locationRequest));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<LocationResponse> updateLocation(
-            @RequestHeader("X-API-KEY") String apiKey,
             @PathVariable UUID id, @Valid @RequestBody UpdateLocationRequest locationRequest
             ) {
 
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.ok(locationService.updateLocation(id, locationRequest));
     }
 
     @GetMapping
-    public ResponseEntity<List<LocationResponse>> getLocations() {
-        return ResponseEntity.ok(locationService.getLocations());
+    public ResponseEntity<CursorPage<LocationResponse>> getLocations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        if (request.checkNotModified(entityTags.locations())) {
+            return null;
+        }
+        return ResponseEntity.ok(locationService.getLocations(cursor, size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<LocationResponse> getLocation(@PathVariable UUID id) {
+    public ResponseEntity<LocationResponse> getLocation(@PathVariable UUID id, WebRequest request) {
+        EntityTags.Version version = entityTags.location(id);
+        if (version != null && request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(locationService.getLocation(id));
     }
 
 
     @GetMapping("/getbycountry/{countryId}")
-    public ResponseEntity<List<LocationResponse>> getLocationsByCountry(@PathVariable UUID countryId) {
+    public ResponseEntity<List<LocationResponse>> getLocationsByCountry(@PathVariable UUID countryId, WebRequest request) {
+        if (request.checkNotModified(entityTags.locations())) {
+            return null;
+        }
         return ResponseEntity.ok(locationService.getLocationByCountry(countryId));
     }
 
     @GetMapping("/getbystate/{stateId}")
-    public ResponseEntity<List<LocationResponse>> getLocationsByState(@PathVariable UUID stateId) {
+    public ResponseEntity<List<LocationResponse>> getLocationsByState(@PathVariable UUID stateId, WebRequest request) {
+        if (request.checkNotModified(entityTags.locations())) {
+            return null;
+        }
         return ResponseEntity.ok(locationService.getLocationByState(stateId));
     }
 
     @GetMapping("/getbycity/{cityId}")
-    public ResponseEntity<List<LocationResponse>> getLocationsByCity(@PathVariable UUID cityId) {
+    public ResponseEntity<List<LocationResponse>> getLocationsByCity(@PathVariable UUID cityId, WebRequest request) {
+        if (request.checkNotModified(entityTags.locations())) {
+            return null;
+        }
         return ResponseEntity.ok(locationService.getLocationByCity(cityId));
     }
 
     @GetMapping("/getbyarea/{areaId}")
-    public ResponseEntity<List<LocationResponse>> getLocationsByArea(@PathVariable UUID areaId) {
+    public ResponseEntity<List<LocationResponse>> getLocationsByArea(@PathVariable UUID areaId, WebRequest request) {
+        if (request.checkNotModified(entityTags.locations())) {
+            return null;
+        }
         return ResponseEntity.ok(locationService.getLocationByArea(areaId));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<LocationResponse>> getBySearch(@RequestParam String searchTerm) {
-        return ResponseEntity.ok(locationService.getBySearch(searchTerm));
+    public ResponseEntity<CursorPage<LocationResponse>> getBySearch(
+            @RequestParam String searchTerm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(locationService.getBySearch(searchTerm, cursor, size));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyLocationResponse>> getNearbyLocations(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) UUID areaId,
+            @RequestParam(required = false) UUID cityId,
+            @RequestParam(required = false) UUID stateId,
+            @RequestParam(required = false) UUID countryId) {
+        return ResponseEntity.ok(locationService.getNearbyLocations(lat, lng, radiusKm, limit, areaId, cityId, stateId, countryId));
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<List<LocationResponse>> getLocationsWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(locationService.getLocationsWithin(minLat, minLng, maxLat, maxLng, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLocations(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) UUID countryId,
+            @RequestParam(required = false) UUID stateId,
+            @RequestParam(required = false) UUID cityId) {
+
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        locationExportService.validateScope(countryId, stateId, cityId);
+
+        StreamingResponseBody body = out -> locationExportService.export(exportFormat, countryId, stateId, cityId, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"locations." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobResponse> importLocations(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        ImportJobResponse job = locationImportService.startImport(file, ImportFormat.fromParameter(format));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/locations/import/" + job.getId())
+                .body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImport(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(locationImportService.getJob(jobId));
+    }
+
+    @GetMapping("/import/{jobId}/errors")
+    public ResponseEntity<StreamingResponseBody> getImportErrors(@PathVariable UUID jobId) {
+
+        // Resolved on the request thread, which the tenant check needs, before the body is streamed
+        List<ImportRowError> errors = locationImportService.getErrors(jobId);
+
+        StreamingResponseBody body = out -> locationImportService.writeErrors(errors, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
 }
@@ -0,0 +1,89 @@
+package com.tecvinson.location.controllers;
+
+import com.tecvinson.location.auth.TenantContext;
+import com.tecvinson.location.dtos.place.FuzzyPlaceResult;
+import com.tecvinson.location.dtos.place.GazetteerSeedResponse;
+import com.tecvinson.location.dtos.place.PlaceSuggestion;
+import com.tecvinson.location.etag.EntityTags;
+import com.tecvinson.location.services.GazetteerSeedService;
+import com.tecvinson.location.services.PlaceSearchService;
+import com.tecvinson.location.services.PlaceTreeService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/places")
+@Tag(name = "Place Search")
+public class PlaceController {
+
+    @Autowired
+    PlaceSearchService placeSearchService;
+    @Autowired
+    GazetteerSeedService gazetteerSeedService;
+    @Autowired
+    PlaceTreeService placeTreeService;
+    @Autowired
+    TenantContext tenantContext;
+    @Autowired
+    EntityTags entityTags;
+
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<PlaceSuggestion>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(placeSearchService.autocomplete(q, type, limit));
+    }
+
+    @GetMapping("/fuzzy")
+    public ResponseEntity<List<FuzzyPlaceResult>> fuzzy(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer maxDistance) {
+        return ResponseEntity.ok(placeSearchService.fuzzy(q, type, limit, maxDistance));
+    }
+
+    // The hierarchy as nested JSON, from every continent or from rootId down, optionally only depth levels deep
+    @GetMapping("/tree")
+    public ResponseEntity<StreamingResponseBody> tree(
+            @RequestParam(required = false) UUID rootId,
+            @RequestParam(required = false) Integer depth, WebRequest request) {
+        if (request.checkNotModified(entityTags.tree())) {
+            return null;
+        }
+        PlaceTreeService.Tree tree = placeTreeService.resolve(rootId, depth);
+
+        StreamingResponseBody body = out -> placeTreeService.write(tree, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Seeds the hierarchy from GeoNames dumps in the configured seed directory; runs in the background
+    @PostMapping("/seed")
+    public ResponseEntity<GazetteerSeedResponse> seed(
+            @RequestParam String places,
+            @RequestParam(defaultValue = "countryInfo.txt") String countryInfo,
+            @RequestHeader(value = "CLIENT-ID", required = false) UUID clientId) {
+        tenantContext.requireAdmin();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(gazetteerSeedService.startSeed(places, countryInfo, clientId));
+    }
+
+    @GetMapping("/seed")
+    public ResponseEntity<GazetteerSeedResponse> getSeed() {
+        tenantContext.requireAdmin();
+        return ResponseEntity.ok(gazetteerSeedService.getLastSeed());
+    }
+}
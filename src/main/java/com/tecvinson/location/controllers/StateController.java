@@ -1,16 +1,20 @@
 package com.tecvinson.location.controllers;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.state.CreateStateRequest;
 import com.tecvinson.location.dtos.state.StateResponse;
 import com.tecvinson.location.dtos.state.UpdateStateRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.etag.EntityTags;
 import com.tecvinson.location.services.StateService;
-import com.tecvinson.location.services.ValidationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,48 +27,63 @@ public class StateController {
     @Autowired
     StateService stateService;
     @Autowired
-    ValidationService validationService;
+    TenantContext tenantContext;
+    @Autowired
+    EntityTags entityTags;
 
 
     @PostMapping
     public ResponseEntity<StateResponse> createState (
-            @RequestHeader("X-API-KEY") String apiKey,
             @Valid @RequestBody CreateStateRequest createStateRequest
     ) {
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(stateService.createState(createStateRequest));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<StateResponse> updateState (
-            @RequestHeader("X-API-KEY") String apiKey,
             @PathVariable UUID id, @Valid @RequestBody UpdateStateRequest stateRequest
             ) {
-        validationService.validateApiKey(apiKey);
+        tenantContext.requireTenant();
 
         return ResponseEntity.ok(stateService.updateState(id, stateRequest));
     }
 
 
     @GetMapping
-    public ResponseEntity<List<StateResponse>> getStates() {
-        return ResponseEntity.ok(stateService.getStates());
+    public ResponseEntity<CursorPage<StateResponse>> getStates(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.STATE))) {
+            return null;
+        }
+        return ResponseEntity.ok(stateService.getStates(cursor, size));
     }
 
 
     @GetMapping("/{id}")
-    public  ResponseEntity<StateResponse> getState(@PathVariable UUID id) {
+    public  ResponseEntity<StateResponse> getState(@PathVariable UUID id, WebRequest request) {
+        EntityTags.Version version = entityTags.place(id, PlaceType.STATE);
+        if (version != null && request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         return  ResponseEntity.ok(stateService.getState(id));
     }
 
     @GetMapping("/getbycountry/{countryId}")
-    public ResponseEntity<List<StateResponse>> getByCountryId (@PathVariable UUID countryId) {
+    public ResponseEntity<List<StateResponse>> getByCountryId (@PathVariable UUID countryId, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.STATE))) {
+            return null;
+        }
         return ResponseEntity.ok(stateService.getByCountryId(countryId));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<StateResponse>> getStatesByName(@RequestParam String name) {
+    public ResponseEntity<List<StateResponse>> getStatesByName(@RequestParam String name, WebRequest request) {
+        if (request.checkNotModified(entityTags.places(PlaceType.STATE))) {
+            return null;
+        }
         return ResponseEntity.ok(stateService.getStatesByName(name));
     }
 
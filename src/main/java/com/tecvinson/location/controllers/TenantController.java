@@ -1,10 +1,11 @@
 package com.tecvinson.location.controllers;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.tenant.CreateTenantRequest;
 import com.tecvinson.location.dtos.tenant.TenantResponse;
 import com.tecvinson.location.dtos.tenant.UpdateTenantRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.services.TenantService;
-import com.tecvinson.location.services.ValidationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +13,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,28 +23,28 @@ public class TenantController {
     @Autowired
     TenantService tenantService;
     @Autowired
-    ValidationService validationService;
+    TenantContext tenantContext;
 
     @PostMapping
     public ResponseEntity<TenantResponse> createTenant(
-            @RequestHeader("X-API-KEY") String apiKey,
             @Valid @RequestBody CreateTenantRequest tenantRequest) {
-        validationService.validateAdminApiKey(apiKey);
+        tenantContext.requireAdmin();
         return ResponseEntity.status(HttpStatus.CREATED).body(tenantService.createTenant(tenantRequest));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<TenantResponse> updateTenant(
-            @RequestHeader("X-API-KEY") String apiKey,
             @PathVariable UUID id, @Valid @RequestBody UpdateTenantRequest tenantRequest) {
-        validationService.validateAdminApiKey(apiKey);
+        tenantContext.requireAdmin();
         return ResponseEntity.ok(tenantService.updateTenant(id, tenantRequest));
     }
 
     @GetMapping
-    public ResponseEntity<List<TenantResponse>>getTenants(
-    ) {
-        return ResponseEntity.ok(tenantService.getTenants());
+    public ResponseEntity<CursorPage<TenantResponse>> getTenants(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "true") boolean includeApiKey) {
+        return ResponseEntity.ok(tenantService.getTenants(cursor, size, includeApiKey));
     }
 
     @GetMapping("/{id}")
@@ -1,5 +1,7 @@
 package com.tecvinson.location.dtos.area;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -10,6 +12,10 @@ public class AreaResponse {
     private String stateName;
     private String countryName;
 
+    // Only set on single-place responses; lists leave it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private double[][][] boundary;
+
 
     public UUID getId() {
         return id;
@@ -51,4 +57,11 @@ public class AreaResponse {
         this.countryName = countryName;
     }
 
+    public double[][][] getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(double[][][] boundary) {
+        this.boundary = boundary;
+    }
 }
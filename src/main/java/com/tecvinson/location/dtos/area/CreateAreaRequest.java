@@ -15,6 +15,9 @@ public class CreateAreaRequest {
     @NotNull(message = "You must provide a City ID")
     private UUID cityId;
 
+    // Optional GeoJSON polygon rings, [[[lng, lat], ...], ...]; the first ring is the outline, later rings are holes
+    private double[][][] boundary;
+
 
 
     public @NotBlank(message = "Area name cannot be blank") @Size(max = 60, message = "Area name must not exceed 60 characters") String getName() {
@@ -33,4 +36,11 @@ public class CreateAreaRequest {
         this.cityId = cityId;
     }
 
+    public double[][][] getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(double[][][] boundary) {
+        this.boundary = boundary;
+    }
 }
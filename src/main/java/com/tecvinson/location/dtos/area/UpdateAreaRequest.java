@@ -16,6 +16,10 @@ public class UpdateAreaRequest {
     @NotNull(message = "You must provide a City ID")
     private UUID cityId;
 
+    // Optional GeoJSON polygon rings, [[[lng, lat], ...], ...]; the first ring is the outline, later rings are holes
+    // On update, leaving it out keeps the stored boundary and an empty list removes it
+    private double[][][] boundary;
+
 
 
 
@@ -35,4 +39,11 @@ public class UpdateAreaRequest {
         this.cityId = cityId;
     }
 
+    public double[][][] getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(double[][][] boundary) {
+        this.boundary = boundary;
+    }
 }
@@ -17,6 +17,10 @@ public class CityRequest {
     @NotNull(message = "You must provide a State ID")
     private UUID stateId;
 
+    // Optional GeoJSON polygon rings, [[[lng, lat], ...], ...]; the first ring is the outline, later rings are holes
+    // On update, leaving it out keeps the stored boundary and an empty list removes it
+    private double[][][] boundary;
+
 
 
     public @NotBlank(message = "City name cannot be blank") @Size(max = 60, message = "City name must not exceed 60 characters") String getName() {
@@ -35,4 +39,11 @@ public class CityRequest {
         this.stateId = stateId;
     }
 
+    public double[][][] getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(double[][][] boundary) {
+        this.boundary = boundary;
+    }
 }
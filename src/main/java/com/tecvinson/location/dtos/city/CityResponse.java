@@ -1,6 +1,8 @@
 package com.tecvinson.location.dtos.city;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -12,6 +14,10 @@ public class CityResponse {
     private String stateName;
     private String countryName;
 
+    // Only set on single-place responses; lists leave it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private double[][][] boundary;
+
 
     public UUID getId() {
         return id;
@@ -45,4 +51,11 @@ public class CityResponse {
         this.countryName = countryName;
     }
 
+    public double[][][] getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(double[][][] boundary) {
+        this.boundary = boundary;
+    }
 }
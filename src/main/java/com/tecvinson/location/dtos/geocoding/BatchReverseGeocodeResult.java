@@ -0,0 +1,52 @@
+package com.tecvinson.location.dtos.geocoding;
+
+// One output line of a batch reverse geocode; exactly one of result and error is set
+public class BatchReverseGeocodeResult {
+
+    private long line;
+    private String reference;
+    private ReverseGeocodeResponse result;
+    private String error;
+
+    public BatchReverseGeocodeResult() {
+    }
+
+    public BatchReverseGeocodeResult(long line, String reference, ReverseGeocodeResponse result, String error) {
+        this.line = line;
+        this.reference = reference;
+        this.result = result;
+        this.error = error;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public ReverseGeocodeResponse getResult() {
+        return result;
+    }
+
+    public void setResult(ReverseGeocodeResponse result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
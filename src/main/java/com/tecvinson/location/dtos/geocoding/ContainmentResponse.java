@@ -0,0 +1,54 @@
+package com.tecvinson.location.dtos.geocoding;
+
+import java.util.List;
+
+// Areas and cities whose boundary contains a point, most specific (smallest) first
+public class ContainmentResponse {
+
+    private double latitude;
+    private double longitude;
+    private List<PlaceMatch> areas;
+    private List<PlaceMatch> cities;
+
+    public ContainmentResponse() {
+    }
+
+    public ContainmentResponse(double latitude, double longitude, List<PlaceMatch> areas, List<PlaceMatch> cities) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.areas = areas;
+        this.cities = cities;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public List<PlaceMatch> getAreas() {
+        return areas;
+    }
+
+    public void setAreas(List<PlaceMatch> areas) {
+        this.areas = areas;
+    }
+
+    public List<PlaceMatch> getCities() {
+        return cities;
+    }
+
+    public void setCities(List<PlaceMatch> cities) {
+        this.cities = cities;
+    }
+}
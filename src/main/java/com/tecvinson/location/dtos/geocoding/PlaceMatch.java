@@ -0,0 +1,33 @@
+package com.tecvinson.location.dtos.geocoding;
+
+import java.util.UUID;
+
+public class PlaceMatch {
+
+    private UUID id;
+    private String name;
+
+    public PlaceMatch() {
+    }
+
+    public PlaceMatch(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,124 @@
+package com.tecvinson.location.dtos.geocoding;
+
+import java.util.UUID;
+
+public class ReverseGeocodeResponse {
+
+    private double latitude;
+    private double longitude;
+    private UUID areaId;
+    private String areaName;
+    private UUID cityId;
+    private String cityName;
+    private UUID stateId;
+    private String stateName;
+    private UUID countryId;
+    private String countryName;
+    // To the nearest location of the area, 0 when the point lies inside the area's boundary
+    private double distanceKm;
+
+    public ReverseGeocodeResponse() {
+    }
+
+    public ReverseGeocodeResponse(double latitude, double longitude, UUID areaId, String areaName, UUID cityId, String cityName, UUID stateId, String stateName, UUID countryId, String countryName, double distanceKm) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.areaId = areaId;
+        this.areaName = areaName;
+        this.cityId = cityId;
+        this.cityName = cityName;
+        this.stateId = stateId;
+        this.stateName = stateName;
+        this.countryId = countryId;
+        this.countryName = countryName;
+        this.distanceKm = distanceKm;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public UUID getAreaId() {
+        return areaId;
+    }
+
+    public void setAreaId(UUID areaId) {
+        this.areaId = areaId;
+    }
+
+    public String getAreaName() {
+        return areaName;
+    }
+
+    public void setAreaName(String areaName) {
+        this.areaName = areaName;
+    }
+
+    public UUID getCityId() {
+        return cityId;
+    }
+
+    public void setCityId(UUID cityId) {
+        this.cityId = cityId;
+    }
+
+    public String getCityName() {
+        return cityName;
+    }
+
+    public void setCityName(String cityName) {
+        this.cityName = cityName;
+    }
+
+    public UUID getStateId() {
+        return stateId;
+    }
+
+    public void setStateId(UUID stateId) {
+        this.stateId = stateId;
+    }
+
+    public String getStateName() {
+        return stateName;
+    }
+
+    public void setStateName(String stateName) {
+        this.stateName = stateName;
+    }
+
+    public UUID getCountryId() {
+        return countryId;
+    }
+
+    public void setCountryId(UUID countryId) {
+        this.countryId = countryId;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    public void setCountryName(String countryName) {
+        this.countryName = countryName;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
@@ -1,5 +1,7 @@
 package com.tecvinson.location.dtos.location;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -19,44 +21,44 @@ public class CreateLocationRequest {
     private String freeText;
 
     @NotNull(message = "Enter the latitude")
-    @Size(max = 11, message = "Latitude must not exceed 11 characters")
-    private long latitude;
+    @DecimalMin(value = "-90.0", message = "Latitude must be at least -90.0") @DecimalMax(value = "90.0", message = "Latitude must be at most 90.0")
+    private double latitude;
 
     @NotNull(message = "Enter the longitude")
-    @Size(max = 11, message = "Longitude must not exceed 11 characters")
-    private long longitude;
+    @DecimalMin(value = "-180.0", message = "Longitude must be at least -180.0") @DecimalMax(value = "180.0", message = "Longitude must be at most 180.0")
+    private double longitude;
 
-    @NotNull(message = "You must provide an Area ID")
+    // Optional; when omitted the area is resolved from the area boundaries containing the coordinates
     private UUID areaId;
 
 
 
 
-    public @NotNull(message = "You must provide an Area ID") UUID getAreaId() {
+    public UUID getAreaId() {
         return areaId;
     }
 
-    public void setAreaId(@NotNull(message = "You must provide an Area ID") UUID areaId) {
+    public void setAreaId(UUID areaId) {
         this.areaId = areaId;
     }
 
     @NotNull(message = "Enter the longitude")
-    @Size(max = 11, message = "Longitude must not exceed 11 characters")
-    public long getLongitude() {
+    @DecimalMin(value = "-180.0", message = "Longitude must be at least -180.0") @DecimalMax(value = "180.0", message = "Longitude must be at most 180.0")
+    public double getLongitude() {
         return longitude;
     }
 
-    public void setLongitude(@NotNull(message = "Enter the longitude") @Size(max = 11, message = "Longitude must not exceed 11 characters") long longitude) {
+    public void setLongitude(@NotNull(message = "Enter the longitude") @DecimalMin(value = "-180.0", message = "Longitude must be at least -180.0") @DecimalMax(value = "180.0", message = "Longitude must be at most 180.0") double longitude) {
         this.longitude = longitude;
     }
 
     @NotNull(message = "Enter the latitude")
-    @Size(max = 11, message = "Latitude must not exceed 11 characters")
-    public long getLatitude() {
+    @DecimalMin(value = "-90.0", message = "Latitude must be at least -90.0") @DecimalMax(value = "90.0", message = "Latitude must be at most 90.0")
+    public double getLatitude() {
         return latitude;
     }
 
-    public void setLatitude(@NotNull(message = "Enter the latitude") @Size(max = 11, message = "Latitude must not exceed 11 characters") long latitude) {
+    public void setLatitude(@NotNull(message = "Enter the latitude") @DecimalMin(value = "-90.0", message = "Latitude must be at least -90.0") @DecimalMax(value = "90.0", message = "Latitude must be at most 90.0") double latitude) {
         this.latitude = latitude;
     }
 
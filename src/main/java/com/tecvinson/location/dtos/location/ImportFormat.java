@@ -0,0 +1,27 @@
+package com.tecvinson.location.dtos.location;
+
+import com.tecvinson.location.exceptions.BadRequestException;
+
+public enum ImportFormat {
+    NDJSON("ndjson"),
+    CSV("csv");
+
+    private final String fileExtension;
+
+    ImportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ImportFormat fromParameter(String format) {
+        for (ImportFormat importFormat : values()) {
+            if (importFormat.name().equalsIgnoreCase(format)) {
+                return importFormat;
+            }
+        }
+        throw new BadRequestException("Unsupported import format: " + format);
+    }
+}
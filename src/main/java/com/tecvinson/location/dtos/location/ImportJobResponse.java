@@ -0,0 +1,113 @@
+package com.tecvinson.location.dtos.location;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Progress of a bulk location import; the counters keep moving while the status is RUNNING
+public class ImportJobResponse {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private UUID id;
+    private ImportFormat format;
+    private Status status;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Why the whole import stopped, when the status is FAILED
+    private String message;
+
+    public ImportJobResponse() {
+    }
+
+    public ImportJobResponse(UUID id, ImportFormat format, Status status, long rowsRead, long imported, long rejected,
+                             LocalDateTime startedAt, LocalDateTime finishedAt, String message) {
+        this.id = id;
+        this.format = format;
+        this.status = status;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.message = message;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(ImportFormat format) {
+        this.format = format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
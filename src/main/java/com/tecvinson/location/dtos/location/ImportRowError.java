@@ -0,0 +1,32 @@
+package com.tecvinson.location.dtos.location;
+
+// A row of a bulk import that was not stored, by its line number in the uploaded file
+public class ImportRowError {
+
+    private long line;
+    private String error;
+
+    public ImportRowError() {
+    }
+
+    public ImportRowError(long line, String error) {
+        this.line = line;
+        this.error = error;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -16,6 +16,24 @@ public class LocationResponse {
     private String stateName;
     private String countryName;
 
+    public LocationResponse() {
+    }
+
+    // Used by JPQL constructor expressions that project straight into the response
+    public LocationResponse(UUID id, String houseAddress, String streetName, String freeText,
+                            double latitude, double longitude, String areaName, String cityName,
+                            String stateName, String countryName) {
+        this.id = id;
+        this.houseAddress = houseAddress;
+        this.streetName = streetName;
+        this.freeText = freeText;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.areaName = areaName;
+        this.cityName = cityName;
+        this.stateName = stateName;
+        this.countryName = countryName;
+    }
 
     public UUID getId() {
         return id;
@@ -0,0 +1,31 @@
+package com.tecvinson.location.dtos.location;
+
+public class NearbyLocationResponse {
+
+    private LocationResponse location;
+    private double distanceKm;
+
+    public NearbyLocationResponse() {
+    }
+
+    public NearbyLocationResponse(LocationResponse location, double distanceKm) {
+        this.location = location;
+        this.distanceKm = distanceKm;
+    }
+
+    public LocationResponse getLocation() {
+        return location;
+    }
+
+    public void setLocation(LocationResponse location) {
+        this.location = location;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
@@ -0,0 +1,32 @@
+package com.tecvinson.location.dtos.place;
+
+// A place whose name, or one of its words, lies within a few edits of the query
+public class FuzzyPlaceResult {
+
+    private PlaceSuggestion place;
+    private int distance;
+
+    public FuzzyPlaceResult() {
+    }
+
+    public FuzzyPlaceResult(PlaceSuggestion place, int distance) {
+        this.place = place;
+        this.distance = distance;
+    }
+
+    public PlaceSuggestion getPlace() {
+        return place;
+    }
+
+    public void setPlace(PlaceSuggestion place) {
+        this.place = place;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    public void setDistance(int distance) {
+        this.distance = distance;
+    }
+}
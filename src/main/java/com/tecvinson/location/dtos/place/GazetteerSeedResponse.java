@@ -0,0 +1,139 @@
+package com.tecvinson.location.dtos.place;
+
+import java.time.LocalDateTime;
+
+// Outcome of a gazetteer seed run; the counters keep moving while the status is RUNNING
+public class GazetteerSeedResponse {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String file;
+    private Status status;
+    // Lines of the place dump kept after filtering by feature class and population
+    private long entriesRead;
+    // Places created, per level
+    private long continents;
+    private long countries;
+    private long states;
+    private long cities;
+    private long areas;
+    // Places that already existed under the same parent, or appeared twice in the dump
+    private long duplicates;
+    // Places whose parent could not be resolved, or that clash with a unique country column
+    private long skipped;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Why the seed stopped, when the status is FAILED
+    private String message;
+
+    public GazetteerSeedResponse() {
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getEntriesRead() {
+        return entriesRead;
+    }
+
+    public void setEntriesRead(long entriesRead) {
+        this.entriesRead = entriesRead;
+    }
+
+    public long getContinents() {
+        return continents;
+    }
+
+    public void setContinents(long continents) {
+        this.continents = continents;
+    }
+
+    public long getCountries() {
+        return countries;
+    }
+
+    public void setCountries(long countries) {
+        this.countries = countries;
+    }
+
+    public long getStates() {
+        return states;
+    }
+
+    public void setStates(long states) {
+        this.states = states;
+    }
+
+    public long getCities() {
+        return cities;
+    }
+
+    public void setCities(long cities) {
+        this.cities = cities;
+    }
+
+    public long getAreas() {
+        return areas;
+    }
+
+    public void setAreas(long areas) {
+        this.areas = areas;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tecvinson.location.dtos.place;
+
+import com.tecvinson.location.entities.PlaceType;
+
+import java.util.UUID;
+
+public class PlaceRef {
+
+    private PlaceType type;
+    private UUID id;
+    private String name;
+
+    public PlaceRef() {
+    }
+
+    public PlaceRef(PlaceType type, UUID id, String name) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+    }
+
+    public PlaceType getType() {
+        return type;
+    }
+
+    public void setType(PlaceType type) {
+        this.type = type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,67 @@
+package com.tecvinson.location.dtos.place;
+
+import com.tecvinson.location.entities.PlaceType;
+
+import java.util.List;
+import java.util.UUID;
+
+// A place matching a typed prefix, with its parents from the nearest upwards and the number of locations under it
+public class PlaceSuggestion {
+
+    private PlaceType type;
+    private UUID id;
+    private String name;
+    private List<PlaceRef> parents;
+    private long usage;
+
+    public PlaceSuggestion() {
+    }
+
+    public PlaceSuggestion(PlaceType type, UUID id, String name, List<PlaceRef> parents, long usage) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.parents = parents;
+        this.usage = usage;
+    }
+
+    public PlaceType getType() {
+        return type;
+    }
+
+    public void setType(PlaceType type) {
+        this.type = type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<PlaceRef> getParents() {
+        return parents;
+    }
+
+    public void setParents(List<PlaceRef> parents) {
+        this.parents = parents;
+    }
+
+    public long getUsage() {
+        return usage;
+    }
+
+    public void setUsage(long usage) {
+        this.usage = usage;
+    }
+}
@@ -1,19 +1,25 @@
 package com.tecvinson.location.entities;
 
+import com.tecvinson.location.spatial.PolygonConverter;
 import jakarta.persistence.*;
 
 
 
 @Entity
-@Table(name = "Areas")
+@Table(name = "Areas", indexes = @Index(name = "idx_areas_date_created_id", columnList = "dateCreated, id"))
 public class Area extends CommonFields{
 
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "city_id")
     private City city;
 
+    // Optional GeoJSON polygon rings, [[[lng, lat], ...], ...], used for point-in-polygon lookups
+    @Lob
+    @Convert(converter = PolygonConverter.class)
+    private double[][][] boundary;
+
 
     public String getName() {
         return name;
@@ -31,4 +37,11 @@ public class Area extends CommonFields{
         this.city = city;
     }
 
+    public double[][][] getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(double[][][] boundary) {
+        this.boundary = boundary;
+    }
 }
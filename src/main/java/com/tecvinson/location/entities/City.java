@@ -1,17 +1,27 @@
 package com.tecvinson.location.entities;
 
+import com.tecvinson.location.spatial.PolygonConverter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "Cities")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cities")
+@Table(name = "Cities", indexes = @Index(name = "idx_cities_date_created_id", columnList = "dateCreated, id"))
 public class City extends CommonFields{
 
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "state_id")
     private State state;
 
+    // Optional GeoJSON polygon rings, [[[lng, lat], ...], ...], used for point-in-polygon lookups
+    @Lob
+    @Convert(converter = PolygonConverter.class)
+    private double[][][] boundary;
+
     public String getName() {
         return name;
     }
@@ -28,4 +38,11 @@ public class City extends CommonFields{
         this.state = state;
     }
 
+    public double[][][] getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(double[][][] boundary) {
+        this.boundary = boundary;
+    }
 }
@@ -1,16 +1,18 @@
 package com.tecvinson.location.entities;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "Clients")
+@Table(name = "Clients", indexes = @Index(name = "idx_clients_date_created_id", columnList = "dateCreated, id"))
 public class Client extends CommonFields {
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tenant_id")
     private Tenant tenant;
 
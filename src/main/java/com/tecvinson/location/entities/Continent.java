@@ -1,11 +1,15 @@
 package com.tecvinson.location.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 @Entity
-@Table(name = "Continents")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "continents")
+@Table(name = "Continents", indexes = @Index(name = "idx_continents_date_created_id", columnList = "dateCreated, id"))
 public class Continent extends CommonFields {
 
     @Column(nullable = false,unique = true)
@@ -1,9 +1,13 @@
 package com.tecvinson.location.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "Countries")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "countries")
+@Table(name = "Countries", indexes = @Index(name = "idx_countries_date_created_id", columnList = "dateCreated, id"))
 public class Country extends CommonFields {
 
     @Column(nullable = false,unique = true)
@@ -17,7 +21,7 @@ public class Country extends CommonFields {
 
     private String flag;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "continent_id")
     private Continent continent;
 
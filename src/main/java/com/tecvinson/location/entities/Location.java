@@ -1,12 +1,21 @@
 package com.tecvinson.location.entities;
 
+import com.tecvinson.location.spatial.GeoHash;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "locations")
+@Table(name = "locations", indexes = {
+        @Index(name = "idx_locations_date_created_id", columnList = "dateCreated, id"),
+        @Index(name = "idx_locations_geohash", columnList = "geohash")
+})
 public class Location extends CommonFields {
     private String houseAddress;
     private String streetName;
@@ -14,7 +23,11 @@ public class Location extends CommonFields {
     private double latitude;
     private double longitude;
 
-    @ManyToOne
+    // Derived from the coordinates on every save; bounding-box queries scan ranges of this column
+    @Column(length = GeoHash.STORED_PRECISION)
+    private String geohash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "area_id")
     private Area area;
 
@@ -59,6 +72,20 @@ public class Location extends CommonFields {
         this.longitude = longitude;
     }
 
+    public String getGeohash() {
+        return geohash;
+    }
+
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void computeGeohash() {
+        this.geohash = GeoHash.encode(latitude, longitude);
+    }
+
     public Area getArea() {
         return area;
     }
@@ -0,0 +1,126 @@
+package com.tecvinson.location.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One row per (ancestor, descendant) pair of the continent -> country -> state -> city -> area hierarchy,
+ * including a depth 0 row linking every place to itself. The primary key leads with the ancestor, so all
+ * places under a node, however deep, are one index range.
+ */
+@Entity
+@IdClass(PlaceClosure.Key.class)
+@Table(name = "place_closure", indexes = @Index(name = "idx_place_closure_descendant", columnList = "descendantId, depth"))
+public class PlaceClosure implements Persistable<PlaceClosure.Key> {
+
+    @Id
+    private UUID ancestorId;
+
+    @Id
+    private UUID descendantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PlaceType ancestorType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PlaceType descendantType;
+
+    private int depth;
+
+    // Rows are only ever inserted or deleted, so saves can persist without a select first
+    @Transient
+    private boolean isNew = true;
+
+    protected PlaceClosure() {
+    }
+
+    public PlaceClosure(UUID ancestorId, PlaceType ancestorType, UUID descendantId, PlaceType descendantType, int depth) {
+        this.ancestorId = ancestorId;
+        this.ancestorType = ancestorType;
+        this.descendantId = descendantId;
+        this.descendantType = descendantType;
+        this.depth = depth;
+    }
+
+    public UUID getAncestorId() {
+        return ancestorId;
+    }
+
+    public UUID getDescendantId() {
+        return descendantId;
+    }
+
+    public PlaceType getAncestorType() {
+        return ancestorType;
+    }
+
+    public PlaceType getDescendantType() {
+        return descendantType;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(ancestorId, descendantId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    public static class Key implements Serializable {
+
+        private UUID ancestorId;
+        private UUID descendantId;
+
+        protected Key() {
+        }
+
+        public Key(UUID ancestorId, UUID descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
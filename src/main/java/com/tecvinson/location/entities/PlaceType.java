@@ -0,0 +1,10 @@
+package com.tecvinson.location.entities;
+
+// Levels of the place hierarchy, from the widest to the narrowest
+public enum PlaceType {
+    CONTINENT,
+    COUNTRY,
+    STATE,
+    CITY,
+    AREA
+}
@@ -1,14 +1,18 @@
 package com.tecvinson.location.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "States")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "states")
+@Table(name = "States", indexes = @Index(name = "idx_states_date_created_id", columnList = "dateCreated, id"))
 public class State extends CommonFields {
 
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "country_id")
     private Country country;
 
@@ -2,10 +2,11 @@ package com.tecvinson.location.entities;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "Tenants")
+@Table(name = "Tenants", indexes = @Index(name = "idx_tenants_date_created_id", columnList = "dateCreated, id"))
 public class Tenant extends CommonFields {
     @Column(unique = true)
     private String name;
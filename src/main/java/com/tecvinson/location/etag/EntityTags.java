@@ -0,0 +1,134 @@
+package com.tecvinson.location.etag;
+
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.LocationSavedEvent;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.repositories.LocationRepository;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Entity tags for the hierarchy and location read endpoints, computed without loading or mapping anything.
+ * <p>
+ * A single resource gets a strong tag from its own dateModified and that of every place above it, since the
+ * response carries their names. A list gets a weak tag from per-table change counters, bumped after every
+ * committed write to a table its responses draw on, and from the number of full gazetteer reloads. Those live in
+ * memory, so list tags also carry the start time of this instance: after a restart, or on another instance, a
+ * stale list tag never matches.
+ */
+@Component
+public class EntityTags {
+
+    // One counter per place type, then one for locations
+    private static final int LOCATIONS = PlaceType.values().length;
+
+    private final GazetteerIndex gazetteerIndex;
+    private final LocationRepository locationRepository;
+    private final AtomicLongArray counters = new AtomicLongArray(LOCATIONS + 1);
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    public EntityTags(GazetteerIndex gazetteerIndex, LocationRepository locationRepository) {
+        this.gazetteerIndex = gazetteerIndex;
+        this.locationRepository = locationRepository;
+    }
+
+    // An entity tag with the Last-Modified time that goes with it, in epoch milliseconds (-1 if unknown)
+    public record Version(String etag, long lastModified) {
+    }
+
+    /**
+     * The version of a continent, country, state, city or area.
+     * @return null if there is no such place, so the caller falls through to its usual not-found handling.
+     */
+    public Version place(UUID id, PlaceType type) {
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int slot = gazetteer.indexOf(id, type);
+        return slot == Gazetteer.NONE ? null : chainVersion(gazetteer, slot, id, null);
+    }
+
+    // The version of a location, read from its row and the gazetteer; null if there is no such location
+    public Version location(UUID id) {
+        LocationVersion location = locationRepository.findVersion(id).orElse(null);
+        if (location == null) {
+            return null;
+        }
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int area = gazetteer.indexOf(location.areaId(), PlaceType.AREA);
+        if (area == Gazetteer.NONE) {
+            // The area is not in the snapshot yet, so its names cannot be vouched for
+            return null;
+        }
+        return chainVersion(gazetteer, area, id, location.dateModified());
+    }
+
+    // The tag of any list of places of the type; their responses also carry the names of the places above them
+    public String places(PlaceType type) {
+        return listTag(type.ordinal());
+    }
+
+    // The tag of the place tree, which draws on places of every type
+    public String tree() {
+        return listTag(PlaceType.AREA.ordinal());
+    }
+
+    // The tag of any list of locations, whose responses carry area, city, state and country names
+    public String locations() {
+        return listTag(LOCATIONS);
+    }
+
+    // Runs after the indexes have taken the change in, so a new tag never goes out with an old body
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        counters.incrementAndGet(event.type().ordinal());
+    }
+
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationSaved(LocationSavedEvent event) {
+        counters.incrementAndGet(LOCATIONS);
+    }
+
+    // Folds the modification times of the slot and its ancestors, plus the resource's own if it is not a place
+    private Version chainVersion(Gazetteer gazetteer, int slot, UUID id, LocalDateTime ownModified) {
+        long hash = toNanos(ownModified);
+        LocalDateTime lastModified = ownModified;
+        for (int current = slot; current != Gazetteer.NONE; current = gazetteer.parent(current)) {
+            LocalDateTime modified = gazetteer.dateModified(current);
+            hash = 31 * hash + toNanos(modified);
+            if (lastModified == null || (modified != null && modified.isAfter(lastModified))) {
+                lastModified = modified;
+            }
+        }
+        long lastModifiedMillis = lastModified == null ? -1
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Version("\"" + id + "-" + Long.toHexString(hash) + "\"", lastModifiedMillis);
+    }
+
+    // Counters up to and including the given one: a list of one type depends on every table above it
+    private String listTag(int upTo) {
+        StringBuilder tag = new StringBuilder("W/\"").append(instance)
+                .append('-').append(Long.toString(gazetteerIndex.replacements(), 36));
+        for (int i = 0; i <= upTo; i++) {
+            tag.append('-').append(Long.toString(counters.get(i), 36));
+        }
+        return tag.append('"').toString();
+    }
+
+    // Two writes within the same millisecond must still give different tags
+    private static long toNanos(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+}
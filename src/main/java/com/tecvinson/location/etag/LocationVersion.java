@@ -0,0 +1,8 @@
+package com.tecvinson.location.etag;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// The columns a location's entity tag is derived from, read without loading the entity
+public record LocationVersion(UUID areaId, LocalDateTime dateModified) {
+}
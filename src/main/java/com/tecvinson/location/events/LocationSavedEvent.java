@@ -0,0 +1,16 @@
+package com.tecvinson.location.events;
+
+import com.tecvinson.location.entities.Location;
+
+import java.util.UUID;
+
+// Published when a location is created or updated, carrying what the in-memory indexes need
+public record LocationSavedEvent(UUID id, double latitude, double longitude, UUID areaId,
+                                 String houseAddress, String streetName, String freeText) {
+
+    public static LocationSavedEvent of(Location location) {
+        return new LocationSavedEvent(location.getId(), location.getLatitude(), location.getLongitude(),
+                location.getArea() == null ? null : location.getArea().getId(),
+                location.getHouseAddress(), location.getStreetName(), location.getFreeText());
+    }
+}
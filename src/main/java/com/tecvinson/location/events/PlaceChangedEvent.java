@@ -0,0 +1,9 @@
+package com.tecvinson.location.events;
+
+import com.tecvinson.location.entities.PlaceType;
+
+import java.util.UUID;
+
+// Published when a continent, country, state, city or area is created or updated
+public record PlaceChangedEvent(PlaceType type, UUID id) {
+}
@@ -0,0 +1,7 @@
+package com.tecvinson.location.events;
+
+import java.util.UUID;
+
+// Published when a tenant is updated; apiKeyHash is the stored SHA-256 of its API key
+public record TenantChangedEvent(UUID id, String apiKeyHash) {
+}
@@ -0,0 +1,341 @@
+package com.tecvinson.location.gazetteer;
+
+import com.tecvinson.location.entities.PlaceType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the continent -> country -> state -> city -> area hierarchy. Every place gets an int
+ * slot; the places of one type occupy a contiguous run of slots ordered by (dateCreated, id), so a keyset page
+ * is a binary search and a slice. Parent and child links are slot arrays, and equal names share one String.
+ * Changes produce a new snapshot; readers keep using the one they started with.
+ */
+public final class Gazetteer {
+
+    public static final int NONE = -1;
+
+    private static final int[] NO_SLOTS = new int[0];
+
+    private static final Comparator<GazetteerPlace> ORDER = Comparator
+            .comparing(GazetteerPlace::type)
+            .thenComparing(GazetteerPlace::dateCreated, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(GazetteerPlace::id);
+
+    private final GazetteerPlace[] places;
+    private final String[] lowerNames;
+    private final int[] parents;
+    private final int[][] children;
+    // typeStart[t] is the first slot of type ordinal t, typeStart[t + 1] one past its last
+    private final int[] typeStart;
+    private final Map<UUID, Integer> slots;
+    // Canonical instance of every name and lower-cased name, shared by the snapshots derived from one build. A
+    // rename leaves the old name behind until the next build; that costs a few strings, never a wrong answer.
+    private final Map<String, String> interned;
+
+    private Gazetteer(GazetteerPlace[] places, String[] lowerNames, int[] parents, int[][] children,
+                      int[] typeStart, Map<UUID, Integer> slots, Map<String, String> interned) {
+        this.places = places;
+        this.lowerNames = lowerNames;
+        this.parents = parents;
+        this.children = children;
+        this.typeStart = typeStart;
+        this.slots = slots;
+        this.interned = interned;
+    }
+
+    public static Gazetteer empty() {
+        return build(List.of());
+    }
+
+    public static Gazetteer build(Collection<GazetteerPlace> source) {
+        GazetteerPlace[] places = source.stream().sorted(ORDER).toArray(GazetteerPlace[]::new);
+        return index(places, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Slots, parent links and child lists of places already in ORDER, derived in linear passes without sorting.
+     * Names are interned on the way, replacing places in the array, which the new snapshot takes ownership of.
+     */
+    private static Gazetteer index(GazetteerPlace[] places, Map<String, String> interned) {
+        int count = places.length;
+        Map<UUID, Integer> slots = new HashMap<>(count * 4 / 3 + 1);
+        String[] lowerNames = new String[count];
+        int[] typeStart = new int[PlaceType.values().length + 1];
+        for (int slot = 0; slot < count; slot++) {
+            slots.put(places[slot].id(), slot);
+            places[slot] = interned(places[slot], interned);
+            String name = places[slot].name();
+            lowerNames[slot] = name == null ? "" : intern(name.toLowerCase(Locale.ROOT), interned);
+            typeStart[places[slot].type().ordinal() + 1] = slot + 1;
+        }
+        // Types without places start where the previous type ended
+        for (int t = 1; t < typeStart.length; t++) {
+            typeStart[t] = Math.max(typeStart[t], typeStart[t - 1]);
+        }
+
+        int[] parents = new int[count];
+        int[] childCounts = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            UUID parentId = places[slot].parentId();
+            Integer parent = parentId == null ? null : slots.get(parentId);
+            parents[slot] = parent == null ? NONE : parent;
+            if (parent != null) {
+                childCounts[parent]++;
+            }
+        }
+        int[][] children = new int[count][];
+        for (int slot = 0; slot < count; slot++) {
+            children[slot] = childCounts[slot] == 0 ? NO_SLOTS : new int[childCounts[slot]];
+            childCounts[slot] = 0;
+        }
+        // Slots are visited in order, so every child list comes out sorted
+        for (int slot = 0; slot < count; slot++) {
+            int parent = parents[slot];
+            if (parent != NONE) {
+                children[parent][childCounts[parent]++] = slot;
+            }
+        }
+
+        return new Gazetteer(places, lowerNames, parents, children, typeStart, slots, interned);
+    }
+
+    private static String intern(String value, Map<String, String> interned) {
+        String existing = interned.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    // The place with its name swapped for the canonical instance, or the place itself if it already uses it
+    private static GazetteerPlace interned(GazetteerPlace place, Map<String, String> interned) {
+        if (place.name() == null) {
+            return place;
+        }
+        String name = intern(place.name(), interned);
+        return name == place.name() ? place : place.withName(name);
+    }
+
+    /**
+     * A new snapshot with the place added, or replacing the place with the same id. An edit that keeps the place's
+     * position in the order only copies the arrays and fixes up the child lists it leaves and joins; otherwise the
+     * place is inserted at its binary-searched position and the links are rebuilt in linear passes, without sorting.
+     */
+    public Gazetteer with(GazetteerPlace place) {
+        int old = indexOf(place.id());
+        if (old != NONE && ORDER.compare(places[old], place) == 0) {
+            return replaceAt(old, place);
+        }
+
+        GazetteerPlace[] remaining = places;
+        if (old != NONE) {
+            remaining = new GazetteerPlace[places.length - 1];
+            System.arraycopy(places, 0, remaining, 0, old);
+            System.arraycopy(places, old + 1, remaining, old, places.length - old - 1);
+        }
+        int at = upperBound(remaining, 0, remaining.length, place);
+        GazetteerPlace[] updated = new GazetteerPlace[remaining.length + 1];
+        System.arraycopy(remaining, 0, updated, 0, at);
+        updated[at] = place;
+        System.arraycopy(remaining, at, updated, at + 1, remaining.length - at);
+        return index(updated, interned);
+    }
+
+    // The place at an unchanged slot; only its own parent link and the child lists it leaves and joins change
+    private Gazetteer replaceAt(int slot, GazetteerPlace place) {
+        boolean sameName = Objects.equals(place.name(), places[slot].name());
+        GazetteerPlace[] updatedPlaces = places.clone();
+        updatedPlaces[slot] = interned(place, interned);
+        String[] updatedLowerNames = lowerNames;
+        if (!sameName) {
+            updatedLowerNames = lowerNames.clone();
+            updatedLowerNames[slot] = place.name() == null ? "" : intern(place.name().toLowerCase(Locale.ROOT), interned);
+        }
+
+        int[] updatedParents = parents;
+        int[][] updatedChildren = children;
+        int parent = indexOf(place.parentId());
+        int previousParent = parents[slot];
+        if (parent != previousParent) {
+            updatedParents = parents.clone();
+            updatedParents[slot] = parent;
+            updatedChildren = children.clone();
+            if (previousParent != NONE) {
+                updatedChildren[previousParent] = without(children[previousParent], slot);
+            }
+            if (parent != NONE) {
+                updatedChildren[parent] = withSorted(children[parent], slot);
+            }
+        }
+        // typeStart and the slot map never change after construction, so both snapshots can share them
+        return new Gazetteer(updatedPlaces, updatedLowerNames, updatedParents, updatedChildren, typeStart, slots, interned);
+    }
+
+    private static int[] without(int[] slots, int slot) {
+        int at = Arrays.binarySearch(slots, slot);
+        if (at < 0) {
+            return slots;
+        }
+        if (slots.length == 1) {
+            return NO_SLOTS;
+        }
+        int[] result = new int[slots.length - 1];
+        System.arraycopy(slots, 0, result, 0, at);
+        System.arraycopy(slots, at + 1, result, at, slots.length - at - 1);
+        return result;
+    }
+
+    private static int[] withSorted(int[] slots, int slot) {
+        int at = -Arrays.binarySearch(slots, slot) - 1;
+        int[] result = new int[slots.length + 1];
+        System.arraycopy(slots, 0, result, 0, at);
+        result[at] = slot;
+        System.arraycopy(slots, at, result, at + 1, slots.length - at);
+        return result;
+    }
+
+    // The first index in [from, to) whose place sorts after the key
+    private static int upperBound(GazetteerPlace[] sorted, int from, int to, GazetteerPlace key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(sorted[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return places.length;
+    }
+
+    public List<GazetteerPlace> places() {
+        return List.of(places);
+    }
+
+    public int indexOf(UUID id) {
+        Integer slot = id == null ? null : slots.get(id);
+        return slot == null ? NONE : slot;
+    }
+
+    // The slot of the place only if it is of the given type
+    public int indexOf(UUID id, PlaceType type) {
+        int slot = indexOf(id);
+        return slot != NONE && places[slot].type() == type ? slot : NONE;
+    }
+
+    public GazetteerPlace place(int slot) {
+        return places[slot];
+    }
+
+    public UUID id(int slot) {
+        return places[slot].id();
+    }
+
+    public String name(int slot) {
+        return places[slot].name();
+    }
+
+    public LocalDateTime dateCreated(int slot) {
+        return places[slot].dateCreated();
+    }
+
+    public LocalDateTime dateModified(int slot) {
+        return places[slot].dateModified();
+    }
+
+    public int parent(int slot) {
+        return parents[slot];
+    }
+
+    public int[] children(int slot) {
+        return children[slot].clone();
+    }
+
+    // The place itself or the nearest place above it of the given type, NONE if there is none
+    public int ancestor(int slot, PlaceType type) {
+        for (int current = slot; current != NONE; current = parents[current]) {
+            if (places[current].type() == type) {
+                return current;
+            }
+        }
+        return NONE;
+    }
+
+    public String ancestorName(int slot, PlaceType type) {
+        int ancestor = ancestor(slot, type);
+        return ancestor == NONE ? null : places[ancestor].name();
+    }
+
+    // Every place of the given type anywhere below the slot, in (dateCreated, id) order
+    public int[] descendants(int slot, PlaceType type) {
+        int[] found = new int[16];
+        int count = 0;
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(slot);
+        while (!pending.isEmpty()) {
+            for (int child : children[pending.pop()]) {
+                PlaceType childType = places[child].type();
+                if (childType == type) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = child;
+                } else if (childType.compareTo(type) < 0) {
+                    pending.push(child);
+                }
+            }
+        }
+        int[] result = Arrays.copyOf(found, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Slots of up to limit places of the type that sort after the cursor on (dateCreated, id).
+     * @param afterDateCreated Creation time of the last place of the previous page, or null for the first page.
+     */
+    public int[] page(PlaceType type, LocalDateTime afterDateCreated, UUID afterId, int limit) {
+        int from = typeStart[type.ordinal()];
+        int to = typeStart[type.ordinal() + 1];
+        if (afterId != null) {
+            GazetteerPlace key = new GazetteerPlace(afterId, type, null, null, afterDateCreated, null, null, null, null, null);
+            from = upperBound(places, from, to, key);
+        }
+        int end = (int) Math.min(to, (long) from + limit);
+        int[] page = new int[Math.max(0, end - from)];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = from + i;
+        }
+        return page;
+    }
+
+    // Places of the type whose name contains the fragment, ignoring case
+    public int[] findByName(PlaceType type, String fragment) {
+        String needle = fragment == null ? "" : fragment.toLowerCase(Locale.ROOT);
+        int[] found = new int[16];
+        int count = 0;
+        for (int slot = typeStart[type.ordinal()]; slot < typeStart[type.ordinal() + 1]; slot++) {
+            if (lowerNames[slot].contains(needle)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+}
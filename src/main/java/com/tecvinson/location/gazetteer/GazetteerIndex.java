@@ -0,0 +1,159 @@
+package com.tecvinson.location.gazetteer;
+
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.ContinentRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds the current gazetteer snapshot. It is loaded in full at startup; after that every committed change to
+ * a place reloads just that place and swaps in a snapshot rebuilt around it, so readers never see a partial
+ * update and never wait for one. Changes that land while a full load is reading are recorded and applied on top
+ * of what it read, so a load never puts back an older version of a place patched in the meantime.
+ */
+@Component
+public class GazetteerIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(GazetteerIndex.class);
+
+    private final ContinentRepository continentRepository;
+    private final CountryRepository countryRepository;
+    private final StateRepository stateRepository;
+    private final CityRepository cityRepository;
+    private final AreaRepository areaRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Gazetteer snapshot = Gazetteer.empty();
+    private volatile long replacements;
+    // Places patched since each running load started reading, guarded by this
+    private final List<Map<UUID, GazetteerPlace>> loadsInProgress = new ArrayList<>();
+
+    public GazetteerIndex(ContinentRepository continentRepository, CountryRepository countryRepository,
+                          StateRepository stateRepository, CityRepository cityRepository,
+                          AreaRepository areaRepository, PlatformTransactionManager transactionManager) {
+        this.continentRepository = continentRepository;
+        this.countryRepository = countryRepository;
+        this.stateRepository = stateRepository;
+        this.cityRepository = cityRepository;
+        this.areaRepository = areaRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Change events arrive after commit, while the writing transaction is still bound to the thread
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Ahead of the other startup listeners, so the indexes they build from the snapshot see every place
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        Map<UUID, GazetteerPlace> patchedDuringLoad = new HashMap<>();
+        synchronized (this) {
+            loadsInProgress.add(patchedDuringLoad);
+        }
+        List<GazetteerPlace> places;
+        try {
+            places = readOnlyTransaction.execute(status -> {
+                List<GazetteerPlace> loaded = new ArrayList<>();
+                continentRepository.findAll().forEach(continent -> loaded.add(GazetteerPlace.of(continent)));
+                countryRepository.findAllWithParents().forEach(country -> loaded.add(GazetteerPlace.of(country)));
+                stateRepository.findAllWithParents().forEach(state -> loaded.add(GazetteerPlace.of(state)));
+                cityRepository.findAllWithParents().forEach(city -> loaded.add(GazetteerPlace.of(city)));
+                areaRepository.findAllWithParents().forEach(area -> loaded.add(GazetteerPlace.of(area)));
+                return loaded;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loadsInProgress.remove(patchedDuringLoad);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            loadsInProgress.remove(patchedDuringLoad);
+            // The patched versions were read after their commit, so they are at least as new as what the load saw
+            Map<UUID, GazetteerPlace> merged = new LinkedHashMap<>();
+            if (places != null) {
+                places.forEach(place -> merged.put(place.id(), place));
+            }
+            merged.putAll(patchedDuringLoad);
+            replace(merged.values());
+        }
+        logger.info("Loaded {} places into the gazetteer in {} ms", snapshot.size(), System.currentTimeMillis() - start);
+    }
+
+    // Ahead of the other listeners, so anything they derive from the change already sees it here
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        Optional<GazetteerPlace> place = readOnlyTransaction.execute(status -> switch (event.type()) {
+            case CONTINENT -> continentRepository.findById(event.id()).map(GazetteerPlace::of);
+            case COUNTRY -> countryRepository.findById(event.id()).map(GazetteerPlace::of);
+            case STATE -> stateRepository.findById(event.id()).map(GazetteerPlace::of);
+            case CITY -> cityRepository.findById(event.id()).map(GazetteerPlace::of);
+            case AREA -> areaRepository.findById(event.id()).map(GazetteerPlace::of);
+        });
+        if (place != null && place.isPresent()) {
+            patch(place.get());
+        }
+    }
+
+    // The snapshot to answer a request from; read it once per request so all lookups agree
+    public Gazetteer current() {
+        return snapshot;
+    }
+
+    // Replaces the whole snapshot with a full load
+    public synchronized void replace(Collection<GazetteerPlace> places) {
+        snapshot = Gazetteer.build(places);
+        replacements++;
+    }
+
+    /**
+     * Adds places created without change events, for bulk imports. The snapshot they are merged into is the one
+     * current under the lock, so places patched while the import was running keep their newer version.
+     */
+    public synchronized void merge(Collection<GazetteerPlace> added) {
+        Gazetteer current = snapshot;
+        List<GazetteerPlace> places = new ArrayList<>(current.places());
+        for (GazetteerPlace place : added) {
+            if (current.indexOf(place.id()) == Gazetteer.NONE) {
+                places.add(place);
+                loadsInProgress.forEach(patched -> patched.putIfAbsent(place.id(), place));
+            }
+        }
+        snapshot = Gazetteer.build(places);
+        replacements++;
+    }
+
+    // How many times the whole snapshot has been replaced; changes that bypass the change events show up here
+    public long replacements() {
+        return replacements;
+    }
+
+    private synchronized void patch(GazetteerPlace place) {
+        snapshot = snapshot.with(place);
+        loadsInProgress.forEach(patched -> patched.put(place.id(), place));
+    }
+}
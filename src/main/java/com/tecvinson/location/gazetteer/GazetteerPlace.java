@@ -0,0 +1,55 @@
+package com.tecvinson.location.gazetteer;
+
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.entities.State;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One place of the hierarchy as the gazetteer holds it: what the read endpoints return, plus the parent id, the
+ * creation time its position is derived from and the modification time its entity tag is derived from. The
+ * country fields are null for other types, and only cities and areas have a boundary.
+ */
+public record GazetteerPlace(UUID id, PlaceType type, String name, UUID parentId, LocalDateTime dateCreated,
+                             LocalDateTime dateModified, String countryCode, String phoneCode, String flag,
+                             double[][][] boundary) {
+
+    public static GazetteerPlace of(Continent continent) {
+        return new GazetteerPlace(continent.getId(), PlaceType.CONTINENT, continent.getName(), null,
+                continent.getDateCreated(), continent.getDateModified(), null, null, null, null);
+    }
+
+    public static GazetteerPlace of(Country country) {
+        return new GazetteerPlace(country.getId(), PlaceType.COUNTRY, country.getName(),
+                country.getContinent() == null ? null : country.getContinent().getId(),
+                country.getDateCreated(), country.getDateModified(),
+                country.getCountryCode(), country.getPhoneCode(), country.getFlag(), null);
+    }
+
+    public static GazetteerPlace of(State state) {
+        return new GazetteerPlace(state.getId(), PlaceType.STATE, state.getName(),
+                state.getCountry() == null ? null : state.getCountry().getId(),
+                state.getDateCreated(), state.getDateModified(), null, null, null, null);
+    }
+
+    public static GazetteerPlace of(City city) {
+        return new GazetteerPlace(city.getId(), PlaceType.CITY, city.getName(),
+                city.getState() == null ? null : city.getState().getId(),
+                city.getDateCreated(), city.getDateModified(), null, null, null, city.getBoundary());
+    }
+
+    public static GazetteerPlace of(Area area) {
+        return new GazetteerPlace(area.getId(), PlaceType.AREA, area.getName(),
+                area.getCity() == null ? null : area.getCity().getId(),
+                area.getDateCreated(), area.getDateModified(), null, null, null, area.getBoundary());
+    }
+
+    GazetteerPlace withName(String internedName) {
+        return new GazetteerPlace(id, type, internedName, parentId, dateCreated, dateModified, countryCode, phoneCode, flag, boundary);
+    }
+}
@@ -0,0 +1,183 @@
+package com.tecvinson.location.gazetteer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+
+/**
+ * Reader for GeoNames-style tab-separated dumps: the place dumps (allCountries.txt or one country's file, 19
+ * columns per line) and countryInfo.txt. A place dump can be larger than a single mapping allows, so it is split
+ * into segments ending on line breaks, each segment is mapped and parsed on its own in a ForkJoinPool, and the
+ * results are joined back in file order. Only the columns the hierarchy needs are decoded.
+ */
+public final class GeoNamesDump {
+
+    // Bytes per segment; well below the 2 GB a single mapping can hold
+    static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final int ID = 0, NAME = 1, LATITUDE = 4, LONGITUDE = 5, FEATURE_CLASS = 6, FEATURE_CODE = 7,
+            COUNTRY_CODE = 8, ADMIN1 = 10, ADMIN2 = 11, POPULATION = 14;
+    private static final int COLUMNS_READ = POPULATION + 1;
+
+    private GeoNamesDump() {
+    }
+
+    // One line of a place dump
+    public record Entry(long geonameId, String name, double latitude, double longitude, char featureClass,
+                        String featureCode, String countryCode, String admin1, String admin2, long population) {
+    }
+
+    // One line of countryInfo.txt; the continent is the two-letter GeoNames code
+    public record CountryInfo(String isoCode, String name, String continentCode, String phone) {
+    }
+
+    /**
+     * Parses a place dump.
+     * @param featureClasses The feature classes to keep, e.g. "AP"; other lines are skipped before any decoding.
+     * @param filter Applied to every decoded entry, in the worker that parsed it.
+     * @return The kept entries in file order. Malformed lines are skipped.
+     */
+    public static List<Entry> readPlaces(Path file, String featureClasses, Predicate<Entry> filter,
+                                         ForkJoinPool pool) throws IOException {
+        return readPlaces(file, featureClasses, filter, pool, SEGMENT_SIZE);
+    }
+
+    static List<Entry> readPlaces(Path file, String featureClasses, Predicate<Entry> filter, ForkJoinPool pool,
+                                  long segmentSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<long[]> segments = segments(channel, size, segmentSize);
+
+            List<ForkJoinTask<List<Entry>>> tasks = new ArrayList<>(segments.size());
+            for (long[] segment : segments) {
+                tasks.add(pool.submit(() -> {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, segment[0], segment[1] - segment[0]);
+                    return parseSegment(buffer, featureClasses, filter);
+                }));
+            }
+
+            List<Entry> entries = new ArrayList<>();
+            for (ForkJoinTask<List<Entry>> task : tasks) {
+                entries.addAll(task.join());
+            }
+            return entries;
+        }
+    }
+
+    // countryInfo.txt is a few hundred lines; comment lines start with '#'
+    public static List<CountryInfo> readCountryInfo(Path file) throws IOException {
+        List<CountryInfo> countries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t", -1);
+            if (columns.length > 12 && !columns[0].isBlank() && !columns[4].isBlank()) {
+                countries.add(new CountryInfo(columns[0].trim(), columns[4].trim(), columns[8].trim(), columns[12].trim()));
+            }
+        }
+        return countries;
+    }
+
+    // Splits [0, size) into [start, end) ranges of about segmentSize bytes, each ending just after a line break
+    static List<long[]> segments(FileChannel channel, long size, long segmentSize) throws IOException {
+        List<long[]> segments = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + segmentSize);
+            if (end < size) {
+                end = nextLineStart(channel, end, size);
+            }
+            segments.add(new long[]{start, end});
+            start = end;
+        }
+        return segments;
+    }
+
+    // The offset just past the first line break at or after position, or size if there is none
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        while (position < size) {
+            long window = Math.min(64 * 1024, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            for (int i = 0; i < window; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += window;
+        }
+        return size;
+    }
+
+    static List<Entry> parseSegment(MappedByteBuffer buffer, String featureClasses, Predicate<Entry> filter) {
+        List<Entry> entries = new ArrayList<>();
+        int[] starts = new int[COLUMNS_READ];
+        int[] ends = new int[COLUMNS_READ];
+        byte[] scratch = new byte[256];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            // Record where the columns we read start and end; the line runs to the next '\n'
+            int column = 0;
+            starts[0] = lineStart;
+            int position = lineStart;
+            byte b = 0;
+            while (position < limit && (b = buffer.get(position)) != '\n') {
+                if (b == '\t' && column < COLUMNS_READ) {
+                    ends[column] = position;
+                    if (++column < COLUMNS_READ) {
+                        starts[column] = position + 1;
+                    }
+                }
+                position++;
+            }
+            int lineEnd = position;
+            if (column < COLUMNS_READ) {
+                ends[column] = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            }
+            lineStart = lineEnd + 1;
+
+            if (column < POPULATION || ends[FEATURE_CLASS] - starts[FEATURE_CLASS] != 1
+                    || featureClasses.indexOf(buffer.get(starts[FEATURE_CLASS])) < 0) {
+                continue;
+            }
+            try {
+                if (scratch.length < lineEnd - starts[0]) {
+                    scratch = new byte[lineEnd - starts[0]];
+                }
+                Entry entry = new Entry(
+                        Long.parseLong(text(buffer, starts[ID], ends[ID], scratch)),
+                        text(buffer, starts[NAME], ends[NAME], scratch),
+                        Double.parseDouble(text(buffer, starts[LATITUDE], ends[LATITUDE], scratch)),
+                        Double.parseDouble(text(buffer, starts[LONGITUDE], ends[LONGITUDE], scratch)),
+                        (char) buffer.get(starts[FEATURE_CLASS]),
+                        text(buffer, starts[FEATURE_CODE], ends[FEATURE_CODE], scratch),
+                        text(buffer, starts[COUNTRY_CODE], ends[COUNTRY_CODE], scratch),
+                        text(buffer, starts[ADMIN1], ends[ADMIN1], scratch),
+                        text(buffer, starts[ADMIN2], ends[ADMIN2], scratch),
+                        ends[POPULATION] > starts[POPULATION]
+                                ? Long.parseLong(text(buffer, starts[POPULATION], ends[POPULATION], scratch)) : 0);
+                if (!entry.name().isEmpty() && filter.test(entry)) {
+                    entries.add(entry);
+                }
+            } catch (NumberFormatException e) {
+                // A header or otherwise malformed line
+            }
+        }
+        return entries;
+    }
+
+    private static String text(MappedByteBuffer buffer, int start, int end, byte[] scratch) {
+        buffer.get(start, scratch, 0, end - start);
+        return new String(scratch, 0, end - start, StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,61 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.area.AreaResponse;
+import com.tecvinson.location.dtos.area.CreateAreaRequest;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AreaMapper {
+
+    // The city is resolved and set by the caller
+    public Area toEntity(CreateAreaRequest request) {
+        Area area = new Area();
+        area.setName(request.getName());
+        // An empty boundary means none, as it does on update
+        area.setBoundary(request.getBoundary() == null || request.getBoundary().length == 0 ? null : request.getBoundary());
+        return area;
+    }
+
+    public AreaResponse toResponse(Area area) {
+        AreaResponse response = new AreaResponse();
+        response.setId(area.getId());
+        response.setName(area.getName());
+        response.setBoundary(area.getBoundary());
+
+        City city = area.getCity();
+        if (city != null) {
+            response.setCityName(city.getName());
+            State state = city.getState();
+            if (state != null) {
+                response.setStateName(state.getName());
+                if (state.getCountry() != null) {
+                    response.setCountryName(state.getCountry().getName());
+                }
+            }
+        }
+        return response;
+    }
+
+    // Without the boundary: lists and pages can hold thousands of places, each with a detailed polygon
+    public AreaResponse toResponse(Gazetteer gazetteer, int slot) {
+        AreaResponse response = new AreaResponse();
+        response.setId(gazetteer.id(slot));
+        response.setName(gazetteer.name(slot));
+        response.setCityName(gazetteer.ancestorName(slot, PlaceType.CITY));
+        response.setStateName(gazetteer.ancestorName(slot, PlaceType.STATE));
+        response.setCountryName(gazetteer.ancestorName(slot, PlaceType.COUNTRY));
+        return response;
+    }
+
+    // A single area, with its boundary
+    public AreaResponse toDetailResponse(Gazetteer gazetteer, int slot) {
+        AreaResponse response = toResponse(gazetteer, slot);
+        response.setBoundary(gazetteer.place(slot).boundary());
+        return response;
+    }
+}
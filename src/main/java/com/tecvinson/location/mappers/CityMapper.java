@@ -0,0 +1,55 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.city.CityRequest;
+import com.tecvinson.location.dtos.city.CityResponse;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CityMapper {
+
+    // The state is resolved and set by the caller
+    public City toEntity(CityRequest request) {
+        City city = new City();
+        city.setName(request.getName());
+        // An empty boundary means none, as it does on update
+        city.setBoundary(request.getBoundary() == null || request.getBoundary().length == 0 ? null : request.getBoundary());
+        return city;
+    }
+
+    public CityResponse toResponse(City city) {
+        CityResponse response = new CityResponse();
+        response.setId(city.getId());
+        response.setName(city.getName());
+        response.setBoundary(city.getBoundary());
+
+        State state = city.getState();
+        if (state != null) {
+            response.setStateName(state.getName());
+            if (state.getCountry() != null) {
+                response.setCountryName(state.getCountry().getName());
+            }
+        }
+        return response;
+    }
+
+    // Without the boundary: lists and pages can hold thousands of places, each with a detailed polygon
+    public CityResponse toResponse(Gazetteer gazetteer, int slot) {
+        CityResponse response = new CityResponse();
+        response.setId(gazetteer.id(slot));
+        response.setName(gazetteer.name(slot));
+        response.setStateName(gazetteer.ancestorName(slot, PlaceType.STATE));
+        response.setCountryName(gazetteer.ancestorName(slot, PlaceType.COUNTRY));
+        return response;
+    }
+
+    // A single city, with its boundary
+    public CityResponse toDetailResponse(Gazetteer gazetteer, int slot) {
+        CityResponse response = toResponse(gazetteer, slot);
+        response.setBoundary(gazetteer.place(slot).boundary());
+        return response;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.client.ClientRequest;
+import com.tecvinson.location.dtos.client.ClientResponse;
+import com.tecvinson.location.entities.Client;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ClientMapper {
+
+    // The tenant is resolved and set by the caller
+    public Client toEntity(ClientRequest request) {
+        Client client = new Client();
+        client.setName(request.getName());
+        return client;
+    }
+
+    public ClientResponse toResponse(Client client) {
+        ClientResponse response = new ClientResponse();
+        response.setId(client.getId());
+        response.setName(client.getName());
+        if (client.getTenant() != null) {
+            response.setTenantName(client.getTenant().getName());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.continent.ContinentResponse;
+import com.tecvinson.location.dtos.continent.CreateContinentRequest;
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ContinentMapper {
+
+    public Continent toEntity(CreateContinentRequest request) {
+        Continent continent = new Continent();
+        continent.setName(request.getName());
+        return continent;
+    }
+
+    public ContinentResponse toResponse(Continent continent) {
+        ContinentResponse response = new ContinentResponse();
+        response.setId(continent.getId());
+        response.setName(continent.getName());
+        return response;
+    }
+
+    public ContinentResponse toResponse(Gazetteer gazetteer, int slot) {
+        ContinentResponse response = new ContinentResponse();
+        response.setId(gazetteer.id(slot));
+        response.setName(gazetteer.name(slot));
+        return response;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.country.CountryRequest;
+import com.tecvinson.location.dtos.country.CountryResponse;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CountryMapper {
+
+    // The continent is resolved and set by the caller
+    public Country toEntity(CountryRequest request) {
+        Country country = new Country();
+        country.setName(request.getName());
+        country.setCountryCode(request.getCountryCode());
+        country.setPhoneCode(request.getPhoneCode());
+        country.setFlag(request.getFlag());
+        return country;
+    }
+
+    public CountryResponse toResponse(Country country) {
+        CountryResponse response = new CountryResponse();
+        response.setId(country.getId());
+        response.setName(country.getName());
+        response.setCountryCode(country.getCountryCode());
+        response.setPhoneCode(country.getPhoneCode());
+        response.setFlag(country.getFlag());
+        if (country.getContinent() != null) {
+            response.setContinentName(country.getContinent().getName());
+        }
+        return response;
+    }
+
+    public CountryResponse toResponse(Gazetteer gazetteer, int slot) {
+        GazetteerPlace country = gazetteer.place(slot);
+        CountryResponse response = new CountryResponse();
+        response.setId(country.id());
+        response.setName(country.name());
+        response.setCountryCode(country.countryCode());
+        response.setPhoneCode(country.phoneCode());
+        response.setFlag(country.flag());
+        response.setContinentName(gazetteer.ancestorName(slot, PlaceType.CONTINENT));
+        return response;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.location.CreateLocationRequest;
+import com.tecvinson.location.dtos.location.LocationResponse;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LocationMapper {
+
+    private final GazetteerIndex gazetteerIndex;
+
+    public LocationMapper(GazetteerIndex gazetteerIndex) {
+        this.gazetteerIndex = gazetteerIndex;
+    }
+
+    // The area is resolved and set by the caller
+    public Location toEntity(CreateLocationRequest request) {
+        Location location = new Location();
+        location.setHouseAddress(request.getHouseAddress());
+        location.setStreetName(request.getStreetName());
+        location.setFreeText(request.getFreeText());
+        location.setLatitude(request.getLatitude());
+        location.setLongitude(request.getLongitude());
+        return location;
+    }
+
+    public LocationResponse toResponse(Location location) {
+        LocationResponse response = new LocationResponse();
+        response.setId(location.getId());
+        response.setHouseAddress(location.getHouseAddress());
+        response.setStreetName(location.getStreetName());
+        response.setFreeText(location.getFreeText());
+        response.setLatitude(location.getLatitude());
+        response.setLongitude(location.getLongitude());
+
+        Area area = location.getArea();
+        if (area == null) {
+            return response;
+        }
+
+        // The area id is on the location row itself, so the names come from the gazetteer without touching the graph
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int slot = gazetteer.indexOf(area.getId(), PlaceType.AREA);
+        if (slot != Gazetteer.NONE) {
+            response.setAreaName(gazetteer.name(slot));
+            response.setCityName(gazetteer.ancestorName(slot, PlaceType.CITY));
+            response.setStateName(gazetteer.ancestorName(slot, PlaceType.STATE));
+            response.setCountryName(gazetteer.ancestorName(slot, PlaceType.COUNTRY));
+        } else {
+            // Not in the snapshot yet, e.g. while it is still loading at startup
+            // The parents are lazy; across a page of locations they load in batches (default_batch_fetch_size)
+            response.setAreaName(area.getName());
+            City city = area.getCity();
+            if (city != null) {
+                response.setCityName(city.getName());
+                State state = city.getState();
+                if (state != null) {
+                    response.setStateName(state.getName());
+                    if (state.getCountry() != null) {
+                        response.setCountryName(state.getCountry().getName());
+                    }
+                }
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.state.CreateStateRequest;
+import com.tecvinson.location.dtos.state.StateResponse;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StateMapper {
+
+    // The country is resolved and set by the caller
+    public State toEntity(CreateStateRequest request) {
+        State state = new State();
+        state.setName(request.getName());
+        return state;
+    }
+
+    public StateResponse toResponse(State state) {
+        StateResponse response = new StateResponse();
+        response.setId(state.getId());
+        response.setName(state.getName());
+        if (state.getCountry() != null) {
+            response.setCountryName(state.getCountry().getName());
+        }
+        return response;
+    }
+
+    public StateResponse toResponse(Gazetteer gazetteer, int slot) {
+        StateResponse response = new StateResponse();
+        response.setId(gazetteer.id(slot));
+        response.setName(gazetteer.name(slot));
+        response.setCountryName(gazetteer.ancestorName(slot, PlaceType.COUNTRY));
+        return response;
+    }
+}
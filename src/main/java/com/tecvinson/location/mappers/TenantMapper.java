@@ -0,0 +1,28 @@
+package com.tecvinson.location.mappers;
+
+import com.tecvinson.location.dtos.tenant.CreateTenantRequest;
+import com.tecvinson.location.dtos.tenant.TenantResponse;
+import com.tecvinson.location.entities.Tenant;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TenantMapper {
+
+    // API keys are generated, hashed and encrypted by the caller
+    public Tenant toEntity(CreateTenantRequest request) {
+        Tenant tenant = new Tenant();
+        tenant.setName(request.getName());
+        tenant.setEmail(request.getEmail());
+        return tenant;
+    }
+
+    // Leaves the API key empty: the stored value is a hash, callers set the plaintext key where it is returned
+    public TenantResponse toResponse(Tenant tenant) {
+        TenantResponse response = new TenantResponse();
+        response.setId(tenant.getId());
+        response.setName(tenant.getName());
+        response.setEmail(tenant.getEmail());
+        response.setActive(tenant.isActive());
+        return response;
+    }
+}
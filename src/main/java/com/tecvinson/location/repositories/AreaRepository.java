@@ -1,18 +1,41 @@
 package com.tecvinson.location.repositories;
 
 import com.tecvinson.location.entities.Area;
-import com.tecvinson.location.entities.City;
+import com.tecvinson.location.spatial.AreaPath;
+import com.tecvinson.location.search.PlaceName;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AreaRepository extends JpaRepository<Area, UUID> {
-    @Query("SELECT ar FROM Area ar WHERE LOWER(ar.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Area> getByNameIgnoringCase(String name);
-    List<Area> getByCity(City city);
+
+    String AREA_PATH_SELECT = "SELECT new com.tecvinson.location.spatial.AreaPath(" +
+            "ar.id, ar.name, c.id, c.name, s.id, s.name, co.id, co.name) " +
+            "FROM Area ar JOIN ar.city c JOIN c.state s JOIN s.country co ";
+
     boolean existsByNameAndCityId(String name, UUID cityId);
+
+    // Every area with the places above it, for the gazetteer
+    @Query("SELECT ar FROM Area ar LEFT JOIN FETCH ar.city c LEFT JOIN FETCH c.state s LEFT JOIN FETCH s.country co " +
+            "LEFT JOIN FETCH co.continent")
+    List<Area> findAllWithParents();
+
+    // Area -> city -> state -> country chains for the in-memory indexes
+    @Query(AREA_PATH_SELECT)
+    List<AreaPath> findAllAreaPaths();
+
+    @Query(AREA_PATH_SELECT + "WHERE ar.id = :areaId")
+    Optional<AreaPath> findAreaPath(UUID areaId);
+
+    @Query("SELECT ar FROM Area ar WHERE ar.boundary IS NOT NULL")
+    List<Area> findAllWithBoundary();
+
+    // Names and parent ids of every area, for the autocomplete index
+    @Query("SELECT new com.tecvinson.location.search.PlaceName(ar.id, ar.name, ar.city.id) FROM Area ar")
+    List<PlaceName> findAllPlaceNames();
 }
@@ -1,18 +1,37 @@
 package com.tecvinson.location.repositories;
 
 import com.tecvinson.location.entities.City;
-import com.tecvinson.location.entities.State;
+import com.tecvinson.location.search.PlaceName;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface CityRepository extends JpaRepository<City, UUID> {
-    @Query("SELECT c FROM City c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<City> getByNameIgnoringCase(String name);
-    List<City> getByState(State state);
+    // Results are kept in the query cache; any write to the table invalidates them
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByNameAndStateId(String name, UUID StateId);
+
+    // Every city with the places above it, for the gazetteer
+    @Query("SELECT c FROM City c LEFT JOIN FETCH c.state s LEFT JOIN FETCH s.country co LEFT JOIN FETCH co.continent")
+    List<City> findAllWithParents();
+
+    // A city with the state and country its response names, in one statement
+    @Query("SELECT c FROM City c JOIN FETCH c.state s JOIN FETCH s.country WHERE c.id = :id")
+    Optional<City> findWithParentsById(UUID id);
+
+    @Query("SELECT c FROM City c WHERE c.boundary IS NOT NULL")
+    List<City> findAllWithBoundary();
+
+    // Names and parent ids of every city, for the autocomplete index
+    @Query("SELECT new com.tecvinson.location.search.PlaceName(c.id, c.name, c.state.id) FROM City c")
+    List<PlaceName> findAllPlaceNames();
 }
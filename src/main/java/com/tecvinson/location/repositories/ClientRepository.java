@@ -1,12 +1,29 @@
 package com.tecvinson.location.repositories;
 
 import com.tecvinson.location.entities.Client;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ClientRepository extends JpaRepository <Client, UUID> {
     boolean existsByNameAndTenantId(String name, UUID tenantId);
+
+    // A client with the tenant its response names, in one statement
+    @Query("SELECT cl FROM Client cl LEFT JOIN FETCH cl.tenant WHERE cl.id = :id")
+    Optional<Client> findWithTenantById(UUID id);
+
+    // Keyset pagination on the (dateCreated, id) index; the tenant comes along so a page is a single select
+    @Query("SELECT cl FROM Client cl LEFT JOIN FETCH cl.tenant ORDER BY cl.dateCreated, cl.id")
+    List<Client> findFirstPage(Pageable pageable);
+
+    @Query("SELECT cl FROM Client cl LEFT JOIN FETCH cl.tenant WHERE cl.dateCreated > :dateCreated OR (cl.dateCreated = :dateCreated AND cl.id > :id) " +
+            "ORDER BY cl.dateCreated, cl.id")
+    List<Client> findPageAfter(LocalDateTime dateCreated, UUID id, Pageable pageable);
 }
@@ -1,7 +1,7 @@
 package com.tecvinson.location.repositories;
 
-import com.tecvinson.location.entities.Continent;
 import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.search.PlaceName;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,7 +11,12 @@ import java.util.UUID;
 
 @Repository
 public interface CountryRepository extends JpaRepository<Country, UUID> {
-    @Query("SELECT c FROM Country c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Country> getByNameIgnoringCase(String name);
-    List<Country> getByContinent(Continent continent);
+
+    // Every country with its continent, for the gazetteer
+    @Query("SELECT co FROM Country co LEFT JOIN FETCH co.continent")
+    List<Country> findAllWithParents();
+
+    // Names and parent ids of every country, for the autocomplete index
+    @Query("SELECT new com.tecvinson.location.search.PlaceName(c.id, c.name, c.continent.id) FROM Country c")
+    List<PlaceName> findAllPlaceNames();
 }
@@ -1,15 +1,90 @@
 package com.tecvinson.location.repositories;
 
+import com.tecvinson.location.dtos.location.LocationResponse;
 import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.etag.LocationVersion;
+import com.tecvinson.location.search.AddressDocument;
+import com.tecvinson.location.spatial.GridPoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface LocationRepository extends JpaRepository<Location, UUID> {
-    @Query("SELECT l FROM Location l WHERE LOWER(l.houseAddress) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(l.streetName) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Location> findByHouseAddressOrStreetName(String searchTerm);
+public interface LocationRepository extends JpaRepository<Location, UUID>, LocationRepositoryCustom {
+
+    // Projects rows straight into responses so exports never hold managed entities
+    String EXPORT_SELECT = "SELECT new com.tecvinson.location.dtos.location.LocationResponse(" +
+            "l.id, l.houseAddress, l.streetName, l.freeText, l.latitude, l.longitude, a.name, c.name, s.name, co.name) " +
+            "FROM Location l JOIN l.area a JOIN a.city c JOIN c.state s JOIN s.country co ";
+
+    // Rows fetched per round trip by streaming queries; MySQL honours it as a server-side cursor
+    // when the connection URL carries useCursorFetch=true
+    String STREAMING_FETCH_SIZE = "1000";
+
+    // Hierarchy filters are resolved in the database, fetching the parent chain in the same statement
+    // so mapping does not fan out into extra selects
+    @Query("SELECT l FROM Location l JOIN FETCH l.area a JOIN FETCH a.city c JOIN FETCH c.state s JOIN FETCH s.country co " +
+            "WHERE a.id = :areaId")
+    List<Location> findByAreaId(UUID areaId);
+
+    // Locations in any area under a city, state, country or continent, found through the place closure table
+    @Query("SELECT l FROM Location l JOIN FETCH l.area a JOIN FETCH a.city c JOIN FETCH c.state s JOIN FETCH s.country co " +
+            "WHERE a.id IN " + PlaceClosureRepository.DESCENDANT_IDS)
+    List<Location> findAllUnder(UUID ancestorId);
+
+    // Just what the entity tag of a location is derived from, so an unchanged location is never loaded
+    @Query("SELECT new com.tecvinson.location.etag.LocationVersion(l.area.id, l.dateModified) FROM Location l WHERE l.id = :id")
+    Optional<LocationVersion> findVersion(UUID id);
+
+    // Keyset pagination on the (dateCreated, id) index
+    @Query("SELECT l FROM Location l ORDER BY l.dateCreated, l.id")
+    List<Location> findFirstPage(Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.dateCreated > :dateCreated OR (l.dateCreated = :dateCreated AND l.id > :id) " +
+            "ORDER BY l.dateCreated, l.id")
+    List<Location> findPageAfter(LocalDateTime dateCreated, UUID id, Pageable pageable);
+
+    // Forward-only cursors for bulk export; callers must consume them inside a read-only transaction
+    @Query(EXPORT_SELECT)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<LocationResponse> streamAllForExport();
+
+    @Query(EXPORT_SELECT + "WHERE co.id = :countryId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<LocationResponse> streamByCountryForExport(UUID countryId);
+
+    @Query(EXPORT_SELECT + "WHERE s.id = :stateId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<LocationResponse> streamByStateForExport(UUID stateId);
+
+    @Query(EXPORT_SELECT + "WHERE c.id = :cityId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<LocationResponse> streamByCityForExport(UUID cityId);
+
+    @Query(EXPORT_SELECT + "WHERE l.id IN :ids")
+    List<LocationResponse> findResponsesByIdIn(Collection<UUID> ids);
+
+    // Coordinates of every location, used to build the in-memory spatial index
+    @Query("SELECT new com.tecvinson.location.spatial.GridPoint(l.id, l.latitude, l.longitude, l.area.id) FROM Location l")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<GridPoint> streamGridPoints();
+
+    // Searchable text of every location, used to build the in-memory address index
+    @Query("SELECT new com.tecvinson.location.search.AddressDocument(l.id, l.houseAddress, l.streetName, l.freeText) FROM Location l")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<AddressDocument> streamAddressDocuments();
+
+    // Rows saved before the geohash column existed
+    List<Location> findByGeohashIsNull(Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package com.tecvinson.location.repositories;
+
+import com.tecvinson.location.dtos.location.LocationResponse;
+
+import java.util.List;
+
+public interface LocationRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} locations inside the box, ordered by geohash. A box with minLng greater
+     * than maxLng crosses the antimeridian.
+     */
+    List<LocationResponse> findWithinBoundingBox(double minLat, double minLng, double maxLat, double maxLng, int limit);
+}
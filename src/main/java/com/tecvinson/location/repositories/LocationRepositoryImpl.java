@@ -0,0 +1,56 @@
+package com.tecvinson.location.repositories;
+
+import com.tecvinson.location.dtos.location.LocationResponse;
+import com.tecvinson.location.spatial.GeoHash;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds the bounding-box query at runtime because the number of geohash ranges depends on the box
+public class LocationRepositoryImpl implements LocationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LocationResponse> findWithinBoundingBox(double minLat, double minLng, double maxLat, double maxLng, int limit) {
+        boolean crossesAntimeridian = minLng > maxLng;
+
+        List<GeoHash.Range> ranges = new ArrayList<>();
+        if (crossesAntimeridian) {
+            ranges.addAll(GeoHash.cover(minLat, minLng, maxLat, 180));
+            ranges.addAll(GeoHash.cover(minLat, -180, maxLat, maxLng));
+        } else {
+            ranges.addAll(GeoHash.cover(minLat, minLng, maxLat, maxLng));
+        }
+
+        // The ranges select whole cells, the coordinate filter then trims the cells on the edge of the box
+        StringBuilder jpql = new StringBuilder(LocationRepository.EXPORT_SELECT).append("WHERE (");
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i > 0) {
+                jpql.append(" OR ");
+            }
+            jpql.append("l.geohash BETWEEN :from").append(i).append(" AND :to").append(i);
+        }
+        jpql.append(") AND l.latitude BETWEEN :minLat AND :maxLat AND ")
+                .append(crossesAntimeridian
+                        ? "(l.longitude >= :minLng OR l.longitude <= :maxLng)"
+                        : "l.longitude BETWEEN :minLng AND :maxLng")
+                .append(" ORDER BY l.geohash");
+
+        TypedQuery<LocationResponse> query = entityManager.createQuery(jpql.toString(), LocationResponse.class);
+        for (int i = 0; i < ranges.size(); i++) {
+            query.setParameter("from" + i, ranges.get(i).from());
+            query.setParameter("to" + i, ranges.get(i).to());
+        }
+        return query.setParameter("minLat", minLat)
+                .setParameter("maxLat", maxLat)
+                .setParameter("minLng", minLng)
+                .setParameter("maxLng", maxLng)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
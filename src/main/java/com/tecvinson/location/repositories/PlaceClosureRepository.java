@@ -0,0 +1,35 @@
+package com.tecvinson.location.repositories;
+
+import com.tecvinson.location.entities.PlaceClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PlaceClosureRepository extends JpaRepository<PlaceClosure, PlaceClosure.Key> {
+
+    // Subquery selecting the ids of every place under :ancestorId, the ancestor itself included
+    String DESCENDANT_IDS = "(SELECT pc.descendantId FROM PlaceClosure pc WHERE pc.ancestorId = :ancestorId)";
+
+    // The place and every ancestor of it
+    List<PlaceClosure> findByDescendantId(UUID descendantId);
+
+    // The place and every place under it
+    List<PlaceClosure> findByAncestorId(UUID ancestorId);
+
+    @Query("SELECT pc.ancestorId FROM PlaceClosure pc WHERE pc.descendantId = :descendantId AND pc.depth > 0")
+    List<UUID> findStrictAncestorIds(UUID descendantId);
+
+    @Modifying
+    @Query("DELETE FROM PlaceClosure pc WHERE pc.ancestorId IN :ancestorIds AND pc.descendantId IN :descendantIds")
+    int deleteLinks(Collection<UUID> ancestorIds, Collection<UUID> descendantIds);
+
+    // Every place that has its self row, used to find the places the backfill still has to add
+    @Query("SELECT pc.descendantId FROM PlaceClosure pc WHERE pc.depth = 0")
+    List<UUID> findAllPlaceIds();
+}
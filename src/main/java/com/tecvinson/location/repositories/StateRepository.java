@@ -1,18 +1,34 @@
 package com.tecvinson.location.repositories;
 
-import com.tecvinson.location.entities.Country;
 import com.tecvinson.location.entities.State;
+import com.tecvinson.location.search.PlaceName;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface StateRepository extends JpaRepository<State, UUID> {
-    @Query("SELECT s FROM State s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<State> getByNameIgnoringCase(String name);
-    List<State> getByCountry(Country country);
+    // Results are kept in the query cache; any write to the table invalidates them
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByNameAndCountryId(String name, UUID countryId);
+
+    // Every state with the places above it, for the gazetteer
+    @Query("SELECT s FROM State s LEFT JOIN FETCH s.country co LEFT JOIN FETCH co.continent")
+    List<State> findAllWithParents();
+
+    // A state with its country, the parent names a city response carries, in one statement
+    @Query("SELECT s FROM State s JOIN FETCH s.country WHERE s.id = :id")
+    Optional<State> findWithCountryById(UUID id);
+
+    // Names and parent ids of every state, for the autocomplete index
+    @Query("SELECT new com.tecvinson.location.search.PlaceName(s.id, s.name, s.country.id) FROM State s")
+    List<PlaceName> findAllPlaceNames();
 }
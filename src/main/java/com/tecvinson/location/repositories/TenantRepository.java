@@ -1,12 +1,24 @@
 package com.tecvinson.location.repositories;
 
 import com.tecvinson.location.entities.Tenant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TenantRepository extends JpaRepository <Tenant, UUID> {
     Optional<Tenant> findByApiKey(String apiKey);
     Optional<Tenant> findByEmail(String email);
+
+    // Keyset pagination on the (dateCreated, id) index
+    @Query("SELECT t FROM Tenant t ORDER BY t.dateCreated, t.id")
+    List<Tenant> findFirstPage(Pageable pageable);
+
+    @Query("SELECT t FROM Tenant t WHERE t.dateCreated > :dateCreated OR (t.dateCreated = :dateCreated AND t.id > :id) " +
+            "ORDER BY t.dateCreated, t.id")
+    List<Tenant> findPageAfter(LocalDateTime dateCreated, UUID id, Pageable pageable);
 }
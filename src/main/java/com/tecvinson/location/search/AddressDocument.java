@@ -0,0 +1,7 @@
+package com.tecvinson.location.search;
+
+import java.util.UUID;
+
+// The searchable text of one location
+public record AddressDocument(UUID id, String houseAddress, String streetName, String freeText) {
+}
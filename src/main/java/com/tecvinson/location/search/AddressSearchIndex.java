@@ -0,0 +1,190 @@
+package com.tecvinson.location.search;
+
+import com.tecvinson.location.events.LocationSavedEvent;
+import com.tecvinson.location.repositories.LocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over the house address, street name and free text of every location. Tokens are kept sorted,
+ * so a query term matches whole tokens and, from {@link #MIN_PREFIX_LENGTH} characters on, tokens it is a prefix
+ * of. A search only reads the postings of the matching tokens, so its cost follows the number of matches.
+ */
+@Component
+public class AddressSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AddressSearchIndex.class);
+
+    public record Hit(UUID id, double score) {
+    }
+
+    // Field bits stored per posting
+    private static final int HOUSE_ADDRESS = 1;
+    private static final int STREET_NAME = 2;
+    private static final int FREE_TEXT = 4;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // A prefix match counts for less than the whole token
+    private static final double PREFIX_FACTOR = 0.5;
+
+    private final LocationRepository locationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // token -> (location id -> fields containing the token)
+    private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    // location id -> its tokens, so an update can drop the old postings
+    private final Map<UUID, Set<String>> documentTokens = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public AddressSearchIndex(LocationRepository locationRepository, PlatformTransactionManager transactionManager) {
+        this.locationRepository = locationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<AddressDocument> documents = locationRepository.streamAddressDocuments()) {
+                documents.forEach(this::index);
+            }
+        });
+
+        logger.info("Address index loaded {} locations and {} tokens in {} ms",
+                documentTokens.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationSaved(LocationSavedEvent event) {
+        index(new AddressDocument(event.id(), event.houseAddress(), event.streetName(), event.freeText()));
+    }
+
+    public void index(AddressDocument document) {
+        Map<String, Integer> fields = new HashMap<>();
+        addField(fields, document.houseAddress(), HOUSE_ADDRESS);
+        addField(fields, document.streetName(), STREET_NAME);
+        addField(fields, document.freeText(), FREE_TEXT);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(document.id());
+            fields.forEach((token, mask) -> postings.computeIfAbsent(token, key -> new HashMap<>()).put(document.id(), mask));
+            documentTokens.put(document.id(), fields.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every location matching all terms of the query, best first. Each term scores the best of its
+     * matching tokens, weighted by field (house address, then street name, then free text) and by how rare
+     * the token is.
+     */
+    public List<Hit> search(String query) {
+        Set<String> terms = new LinkedHashSet<>(TextNormalizer.tokens(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(1, documentTokens.size());
+            for (String term : terms) {
+                Map<String, Map<UUID, Integer>> matches = term.length() >= MIN_PREFIX_LENGTH
+                        ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                        : exactMatch(term);
+
+                Map<UUID, Double> termScores = new HashMap<>();
+                for (Map.Entry<String, Map<UUID, Integer>> match : matches.entrySet()) {
+                    Map<UUID, Integer> documents = match.getValue();
+                    double idf = Math.log(1 + (double) documentCount / documents.size());
+                    double factor = match.getKey().equals(term) ? 1.0 : PREFIX_FACTOR;
+                    for (Map.Entry<UUID, Integer> posting : documents.entrySet()) {
+                        // Later terms only need to score documents every earlier term matched
+                        if (scores == null || scores.containsKey(posting.getKey())) {
+                            termScores.merge(posting.getKey(), fieldWeight(posting.getValue()) * factor * idf, Math::max);
+                        }
+                    }
+                }
+
+                if (scores != null) {
+                    Map<UUID, Double> previous = scores;
+                    termScores.replaceAll((id, score) -> score + previous.get(id));
+                }
+                scores = termScores;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id));
+        return hits;
+    }
+
+    private Map<String, Map<UUID, Integer>> exactMatch(String term) {
+        Map<UUID, Integer> documents = postings.get(term);
+        return documents == null ? Map.of() : Map.of(term, documents);
+    }
+
+    private void removeDocument(UUID id) {
+        Set<String> tokens = documentTokens.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<UUID, Integer> documents = postings.get(token);
+            if (documents != null) {
+                documents.remove(id);
+                if (documents.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Integer> fields, String text, int field) {
+        for (String token : TextNormalizer.tokens(text)) {
+            fields.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    private static double fieldWeight(int mask) {
+        return ((mask & HOUSE_ADDRESS) != 0 ? 3 : 0) + ((mask & STREET_NAME) != 0 ? 2 : 0) + ((mask & FREE_TEXT) != 0 ? 1 : 0);
+    }
+}
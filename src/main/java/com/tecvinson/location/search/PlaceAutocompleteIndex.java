@@ -0,0 +1,199 @@
+package com.tecvinson.location.search;
+
+import com.tecvinson.location.dtos.place.PlaceRef;
+import com.tecvinson.location.dtos.place.PlaceSuggestion;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.LocationSavedEvent;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+import com.tecvinson.location.spatial.LocationSpatialIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over the names of every continent, country, state, city and area. Names are indexed from each
+ * word, so "york" finds "New York". Places are ranked by the number of locations under them. The tries are
+ * built from the gazetteer snapshot and the location counts of the spatial index, without touching the database.
+ * They are rebuilt off the request path whenever a place or a location changes, and swapped in as one snapshot
+ * together with the trigram index used for typo-tolerant lookups.
+ */
+@Component
+public class PlaceAutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceAutocompleteIndex.class);
+
+    private static final Comparator<PlaceSuggestion> RANK = Comparator
+            .comparingLong(PlaceSuggestion::getUsage).reversed()
+            .thenComparing(PlaceSuggestion::getType)
+            .thenComparingInt(suggestion -> suggestion.getName().length())
+            .thenComparing(PlaceSuggestion::getName);
+
+    private record Snapshot(PlaceTrie<PlaceSuggestion> all, Map<PlaceType, PlaceTrie<PlaceSuggestion>> byType,
+                            PlaceFuzzyIndex fuzzy) {
+    }
+
+    private final GazetteerIndex gazetteerIndex;
+    private final LocationSpatialIndex locationSpatialIndex;
+    private final int topK;
+
+    private volatile Snapshot snapshot;
+
+    // Rebuilds run on one background thread; changes arriving during a rebuild are folded into the next one
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autocomplete-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    public PlaceAutocompleteIndex(GazetteerIndex gazetteerIndex, LocationSpatialIndex locationSpatialIndex,
+                                  @Value("${places.autocomplete.top-k:20}") int topK) {
+        this.gazetteerIndex = gazetteerIndex;
+        this.locationSpatialIndex = locationSpatialIndex;
+        this.topK = topK;
+        this.snapshot = emptySnapshot(topK);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    // Runs after the gazetteer and the spatial index have taken the change in, so the rebuild sees it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    // A new or moved location changes the usage the places are ranked by
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationSaved(LocationSavedEvent event) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // Best matches for the prefix, optionally of one type; never more than the per-node top-K
+    public List<PlaceSuggestion> complete(String prefix, PlaceType type, int limit) {
+        String key = normalizeKey(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        PlaceTrie<PlaceSuggestion> trie = type == null ? current.all() : current.byType().get(type);
+        return trie.complete(key, limit);
+    }
+
+    // Places within maxDistance edits of the query, optionally of one type, closest first
+    public List<PlaceFuzzyIndex.Match> fuzzy(String query, PlaceType type, int limit, int maxDistance) {
+        return snapshot.fuzzy().search(query, type, limit, maxDistance);
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    private synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+
+        List<PlaceSuggestion> suggestions = suggestions(gazetteerIndex.current(), locationSpatialIndex.countByArea());
+
+        List<PlaceTrie.Key<PlaceSuggestion>> allKeys = new ArrayList<>();
+        Map<PlaceType, List<PlaceTrie.Key<PlaceSuggestion>>> keysByType = new EnumMap<>(PlaceType.class);
+        for (PlaceType type : PlaceType.values()) {
+            keysByType.put(type, new ArrayList<>());
+        }
+        for (PlaceSuggestion suggestion : suggestions) {
+            for (String key : wordKeys(suggestion.getName())) {
+                PlaceTrie.Key<PlaceSuggestion> trieKey = new PlaceTrie.Key<>(key, suggestion);
+                allKeys.add(trieKey);
+                keysByType.get(suggestion.getType()).add(trieKey);
+            }
+        }
+
+        Map<PlaceType, PlaceTrie<PlaceSuggestion>> byType = new EnumMap<>(PlaceType.class);
+        keysByType.forEach((type, keys) -> byType.put(type, PlaceTrie.build(keys, RANK, topK)));
+        snapshot = new Snapshot(PlaceTrie.build(allKeys, RANK, topK), byType, new PlaceFuzzyIndex(suggestions));
+
+        logger.info("Autocomplete index built over {} places in {} ms", suggestions.size(), System.currentTimeMillis() - start);
+    }
+
+    private static List<PlaceSuggestion> suggestions(Gazetteer gazetteer, Map<UUID, Long> locationsByArea) {
+        // Locations per area, rolled up the hierarchy
+        long[] usage = new long[gazetteer.size()];
+        locationsByArea.forEach((areaId, locations) -> {
+            for (int slot = gazetteer.indexOf(areaId, PlaceType.AREA); slot != Gazetteer.NONE; slot = gazetteer.parent(slot)) {
+                usage[slot] += locations;
+            }
+        });
+
+        List<PlaceSuggestion> suggestions = new ArrayList<>(gazetteer.size());
+        for (int slot = 0; slot < gazetteer.size(); slot++) {
+            GazetteerPlace place = gazetteer.place(slot);
+            if (place.name() == null) {
+                continue;
+            }
+            List<PlaceRef> parents = new ArrayList<>(PlaceType.values().length - 1);
+            for (int parent = gazetteer.parent(slot); parent != Gazetteer.NONE; parent = gazetteer.parent(parent)) {
+                GazetteerPlace ancestor = gazetteer.place(parent);
+                parents.add(new PlaceRef(ancestor.type(), ancestor.id(), ancestor.name()));
+            }
+            suggestions.add(new PlaceSuggestion(place.type(), place.id(), place.name(), List.copyOf(parents), usage[slot]));
+        }
+        return suggestions;
+    }
+
+    // The name from each of its words onwards: "new york city", "york city", "city"
+    private static List<String> wordKeys(String name) {
+        List<String> tokens = TextNormalizer.tokens(name);
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private static String normalizeKey(String text) {
+        String key = String.join(" ", TextNormalizer.tokens(text));
+        // Keep a trailing space so "new " only completes names with a word after "new"
+        return !key.isEmpty() && text.endsWith(" ") ? key + " " : key;
+    }
+
+    private static Snapshot emptySnapshot(int topK) {
+        Map<PlaceType, PlaceTrie<PlaceSuggestion>> byType = new EnumMap<>(PlaceType.class);
+        for (PlaceType type : PlaceType.values()) {
+            byType.put(type, PlaceTrie.build(List.of(), RANK, topK));
+        }
+        return new Snapshot(PlaceTrie.build(List.of(), RANK, topK), byType, new PlaceFuzzyIndex(List.of()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.tecvinson.location.search;
+
+import com.tecvinson.location.dtos.place.PlaceSuggestion;
+import com.tecvinson.location.entities.PlaceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo-tolerant lookup over place names. Trigram postings narrow the dictionary to names sharing enough
+ * trigrams with the query to possibly lie within the allowed edit distance (the q-gram lemma), and only those
+ * candidates are checked with a bounded Levenshtein distance, against the whole name and each of its words.
+ */
+public final class PlaceFuzzyIndex {
+
+    public record Match(PlaceSuggestion place, int distance) {
+    }
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final PlaceSuggestion[] places;
+    private final String[] names;
+    private final String[][] words;
+    private final Map<Long, int[]> postings;
+
+    public PlaceFuzzyIndex(List<PlaceSuggestion> suggestions) {
+        this.places = suggestions.toArray(new PlaceSuggestion[0]);
+        this.names = new String[places.length];
+        this.words = new String[places.length][];
+
+        Map<Long, List<Integer>> building = new HashMap<>();
+        for (int i = 0; i < places.length; i++) {
+            List<String> tokens = TextNormalizer.tokens(places[i].getName());
+            names[i] = String.join(" ", tokens);
+            words[i] = tokens.size() > 1 ? tokens.toArray(new String[0]) : new String[0];
+            for (long trigram : trigrams(names[i])) {
+                building.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.postings = new HashMap<>(building.size() * 2);
+        building.forEach((trigram, ids) -> postings.put(trigram, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Returns up to {@code limit} places within {@code maxDistance} edits of the query, closest first and then
+     * by usage. The distance is capped so that the trigram filter stays exact for short queries.
+     */
+    public List<Match> search(String query, PlaceType type, int limit, int maxDistance) {
+        String term = String.join(" ", TextNormalizer.tokens(query));
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> queryTrigrams = trigrams(term);
+        // A string within k edits shares at least |trigrams| - 3k trigrams with the query, one less for a word
+        // after the first since it lacks its leading double-space trigram inside the full name. The distance is
+        // lowered until that bound is at least one, otherwise a match might share no trigram at all.
+        int distance = Math.max(0, Math.min(maxDistance, (term.length() - 1) / 3));
+        while (distance > 0 && queryTrigrams.size() - 3 * distance - 1 < 1) {
+            distance--;
+        }
+        int threshold = queryTrigrams.size() - 3 * distance - 1;
+
+        // Shared trigrams are counted over the query's postings only, never over the whole dictionary: the lists
+        // are concatenated and sorted, which puts every occurrence of a candidate id next to each other
+        int[][] lists = new int[queryTrigrams.size()][];
+        int total = 0;
+        int listCount = 0;
+        for (long trigram : queryTrigrams) {
+            int[] list = postings.getOrDefault(trigram, NO_POSTINGS);
+            lists[listCount++] = list;
+            total += list.length;
+        }
+        int[] hits = new int[total];
+        int offset = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, hits, offset, list.length);
+            offset += list.length;
+        }
+        Arrays.sort(hits);
+
+        List<Match> matches = new ArrayList<>();
+        int start = 0;
+        while (start < hits.length) {
+            int id = hits[start];
+            int end = start + 1;
+            while (end < hits.length && hits[end] == id) {
+                end++;
+            }
+            int shared = end - start;
+            start = end;
+            if (shared < threshold || (type != null && places[id].getType() != type)) {
+                continue;
+            }
+            int best = boundedDistance(term, names[id], distance);
+            for (String word : words[id]) {
+                best = Math.min(best, boundedDistance(term, word, distance));
+            }
+            if (best <= distance) {
+                matches.add(new Match(places[id], best));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::distance)
+                .thenComparing(Comparator.comparingLong((Match match) -> match.place().getUsage()).reversed())
+                .thenComparingInt(match -> match.place().getName().length()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public int size() {
+        return places.length;
+    }
+
+    // Trigrams of the text padded with two leading and one trailing space, so short words and word starts count
+    private static Set<Long> trigrams(String text) {
+        String padded = "  " + text + " ";
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    // Levenshtein distance, or max + 1 as soon as it is known to exceed max
+    static int boundedDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tecvinson.location.search;
+
+import java.util.UUID;
+
+// Name of a place and the id of the place directly above it
+public record PlaceName(UUID id, String name, UUID parentId) {
+}
@@ -0,0 +1,127 @@
+package com.tecvinson.location.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable prefix tree in which every node holds the best {@code topK} values of all keys below it, ranked
+ * when the tree is built. Completing a prefix is a walk down the prefix followed by a copy of that node's list,
+ * so the cost does not depend on how many keys share the prefix.
+ */
+public final class PlaceTrie<T> {
+
+    public record Key<T>(String key, T value) {
+    }
+
+    private static final class Node {
+        final char[] labels;
+        final Node[] children;
+        final Object[] top;
+
+        Node(char[] labels, Node[] children, Object[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+    }
+
+    private final Node root;
+    private final int topK;
+
+    private PlaceTrie(Node root, int topK) {
+        this.root = root;
+        this.topK = topK;
+    }
+
+    public static <T> PlaceTrie<T> build(List<Key<T>> keys, Comparator<? super T> rank, int topK) {
+        Builder<T> root = new Builder<>();
+        for (Key<T> key : keys) {
+            Builder<T> node = root;
+            for (int i = 0; i < key.key().length(); i++) {
+                node = node.child(key.key().charAt(i));
+            }
+            node.values.add(key.value());
+        }
+        return new PlaceTrie<>(root.freeze(rank, topK), topK);
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    // Best values of all keys starting with the prefix, at most min(limit, topK) of them
+    @SuppressWarnings("unchecked")
+    public List<T> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            int index = Arrays.binarySearch(node.labels, prefix.charAt(i));
+            node = index < 0 ? null : node.children[index];
+        }
+        if (node == null) {
+            return List.of();
+        }
+        int count = Math.min(limit, node.top.length);
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add((T) node.top[i]);
+        }
+        return result;
+    }
+
+    // Mutable node used while the tree is assembled; children are kept sorted by label
+    private static final class Builder<T> {
+        private static final char[] NO_LABELS = new char[0];
+
+        char[] labels = NO_LABELS;
+        List<Builder<T>> children = new ArrayList<>(0);
+        final List<T> values = new ArrayList<>(0);
+
+        Builder<T> child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children.get(index);
+            }
+            int insertAt = -index - 1;
+            char[] grown = new char[labels.length + 1];
+            System.arraycopy(labels, 0, grown, 0, insertAt);
+            grown[insertAt] = label;
+            System.arraycopy(labels, insertAt, grown, insertAt + 1, labels.length - insertAt);
+            labels = grown;
+            Builder<T> child = new Builder<>();
+            children.add(insertAt, child);
+            return child;
+        }
+
+        Node freeze(Comparator<? super T> rank, int topK) {
+            Node[] frozen = new Node[children.size()];
+            List<T> candidates = new ArrayList<>(values);
+            for (int i = 0; i < frozen.length; i++) {
+                frozen[i] = children.get(i).freeze(rank, topK);
+                for (Object value : frozen[i].top) {
+                    @SuppressWarnings("unchecked")
+                    T typed = (T) value;
+                    candidates.add(typed);
+                }
+            }
+            candidates.sort(rank);
+
+            // A value can reach a node through several of its keys (one per word of a name)
+            Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Object> top = new ArrayList<>(Math.min(topK, candidates.size()));
+            for (T candidate : candidates) {
+                if (top.size() == topK) {
+                    break;
+                }
+                if (seen.add(candidate)) {
+                    top.add(candidate);
+                }
+            }
+            return new Node(labels, frozen, top.toArray());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.tecvinson.location.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.events.TenantChangedEvent;
+import com.tecvinson.location.repositories.TenantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, expiring cache of hashed API key to tenant, so authenticated writes do not look the tenant up on
+ * every request. Only keys that resolve are cached, so unknown keys cannot fill it. Entries are dropped as soon
+ * as a change to the tenant commits; the TTL bounds how long a change made outside the service is missed.
+ */
+@Component
+public class ApiKeyCache {
+
+    private final TenantRepository tenantRepository;
+    private final Cache<String, Tenant> tenants;
+
+    public ApiKeyCache(TenantRepository tenantRepository,
+                       @Value("${api-key.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${api-key.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.tenantRepository = tenantRepository;
+        this.tenants = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // The tenant owning the hashed key, loaded at most once per key while the entry lives
+    public Optional<Tenant> find(String hashedApiKey) {
+        return Optional.ofNullable(tenants.get(hashedApiKey, key -> tenantRepository.findByApiKey(key).orElse(null)));
+    }
+
+    // An in-flight load of the same key completes before the entry is removed, so a stale row cannot survive this
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        tenants.invalidate(event.apiKeyHash());
+    }
+}
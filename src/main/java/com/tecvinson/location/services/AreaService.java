@@ -3,26 +3,30 @@ package com.tecvinson.location.services;
 import com.tecvinson.location.dtos.area.AreaResponse;
 import com.tecvinson.location.dtos.area.CreateAreaRequest;
 import com.tecvinson.location.dtos.area.UpdateAreaRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.entities.Area;
 import com.tecvinson.location.entities.City;
-import com.tecvinson.location.entities.Country;
-import com.tecvinson.location.entities.State;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.exceptions.BadRequestException;
 import com.tecvinson.location.exceptions.NotFoundException;
 import com.tecvinson.location.exceptions.ResourceConflictException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.mappers.AreaMapper;
 import com.tecvinson.location.repositories.AreaRepository;
 import com.tecvinson.location.repositories.CityRepository;
-import com.tecvinson.location.repositories.CountryRepository;
-import com.tecvinson.location.repositories.StateRepository;
-
-import org.modelmapper.ModelMapper;
+import com.tecvinson.location.spatial.PreparedPolygon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class AreaService {
@@ -31,27 +35,32 @@ public class AreaService {
     private static final Logger logger = LoggerFactory.getLogger(AreaService.class);
 
     // Repositories for interacting with the database
-    private final ModelMapper modelMapper;
+    private final AreaMapper areaMapper;
     private final AreaRepository areaRepository;
     private final CityRepository cityRepository;
-    private final StateRepository stateRepository;
-    private final CountryRepository countryRepository;
+    private final GazetteerIndex gazetteerIndex;
+    private final PaginationService paginationService;
+    private final PlaceClosureService placeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor to inject dependencies
-    public AreaService(ModelMapper modelMapper, AreaRepository areaRepository, CityRepository cityRepository, StateRepository stateRepository, CountryRepository countryRepository) {
-        this.modelMapper = modelMapper;
+    public AreaService(AreaMapper areaMapper, AreaRepository areaRepository, CityRepository cityRepository, GazetteerIndex gazetteerIndex, PaginationService paginationService, PlaceClosureService placeClosureService, ApplicationEventPublisher eventPublisher) {
+        this.areaMapper = areaMapper;
         this.areaRepository = areaRepository;
         this.cityRepository = cityRepository;
-        this.stateRepository = stateRepository;
-        this.countryRepository = countryRepository;
+        this.gazetteerIndex = gazetteerIndex;
+        this.paginationService = paginationService;
+        this.placeClosureService = placeClosureService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Method to create a new Area
+    @Transactional
     public AreaResponse createArea(CreateAreaRequest areaRequest) {
         logger.info("Creating Area with name {}", areaRequest.getName());
 
         // Validate that the City exists
-        City city = cityRepository.findById(areaRequest.getCityId())
+        City city = cityRepository.findWithParentsById(areaRequest.getCityId())
                 .orElseThrow(() -> new NotFoundException("City not Found"));
 
         // Check if an Area with the same name already exists in the City
@@ -60,32 +69,32 @@ public class AreaService {
         if (areaExists) {
             throw new ResourceConflictException("Area Exists for this City");
         }
+        validateBoundary(areaRequest.getBoundary());
 
         // Map the request to an Area entity and set the City
-        Area area = modelMapper.map(areaRequest, Area.class);
+        Area area = areaMapper.toEntity(areaRequest);
         area.setCity(city);
         area.setCreatedBy("SYSTEM");
         area.setModifiedBy("SYSTEM");
 
         // Save the Area entity to the database
         area = areaRepository.save(area);
+        placeClosureService.addPlace(PlaceType.AREA, area.getId(), city.getId());
 
         logger.info("Area with id: {} created", area.getId());
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.AREA, area.getId()));
 
         // Map the Area entity to a response DTO and set additional fields
-        AreaResponse areaResponse = modelMapper.map(area, AreaResponse.class);
-        areaResponse.setStateName(area.getCity().getState().getName());
-        areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
-
-        return areaResponse;
+        return areaMapper.toResponse(area);
     }
 
     // Method to update an existing Area
+    @Transactional
     public AreaResponse updateArea(UUID id, UpdateAreaRequest areaRequest) {
         logger.info("Updating area with id {}", id);
 
         // Validate that the City exists
-        City city = cityRepository.findById(areaRequest.getCityId())
+        City city = cityRepository.findWithParentsById(areaRequest.getCityId())
                 .orElseThrow(() -> new NotFoundException("City not Found"));
 
         // Check if the Area with the same name already exists in the City
@@ -94,14 +103,22 @@ public class AreaService {
         if (areaExists) {
             throw new ResourceConflictException("Area Exists for this City");
         }
+        validateBoundary(areaRequest.getBoundary());
 
         // Retrieve the existing Area from the database
         Area area = areaRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Area not Found"));
 
+        UUID previousCityId = area.getCity() == null ? null : area.getCity().getId();
+
         // Update the Area details
         area.setName(areaRequest.getName());
         area.setCity(city);
+        // Keep the stored boundary unless the request sends one; an empty one removes it
+        double[][][] boundary = areaRequest.getBoundary();
+        if (boundary != null) {
+            area.setBoundary(boundary.length == 0 ? null : boundary);
+        }
         area.setCreatedBy("SYSTEM");
         area.setModifiedBy("SYSTEM");
 
@@ -109,163 +126,118 @@ public class AreaService {
                 id, city.getName());
 
         // Save the updated Area entity and map to response DTO
-        AreaResponse areaResponse = modelMapper.map(areaRepository.save(area), AreaResponse.class);
-        areaResponse.setStateName(area.getCity().getState().getName());
-        areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
+        area = areaRepository.save(area);
+        if (!city.getId().equals(previousCityId)) {
+            placeClosureService.movePlace(PlaceType.AREA, area.getId(), city.getId());
+        }
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.AREA, area.getId()));
 
-        return areaResponse;
+        return areaMapper.toResponse(area);
     }
 
-    // Method to retrieve all Areas
-    public List<AreaResponse> getAreas() {
-        logger.info("Retrieving All Areas");
+    // Method to retrieve a page of Areas, ordered by creation date
+    public CursorPage<AreaResponse> getAreas(String cursor, Integer size) {
+        logger.info("Retrieving a page of Areas");
 
-        // Fetch all areas from the repository
-        List<Area> areas = areaRepository.findAll();
-        if (areas.isEmpty()) {
-            logger.warn("No Areas found in Database");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} areas in the Database", areas.size());
-        }
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+
+        // Seek past the cursor in the snapshot, which keeps each type sorted on (dateCreated, id)
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = after == null
+                ? gazetteer.page(PlaceType.AREA, null, null, pageSize + 1)
+                : gazetteer.page(PlaceType.AREA, after.dateCreated(), after.id(), pageSize + 1);
 
         // Convert the Areas to AreaResponse DTOs and include city, state, and country information
-        return areas.stream().map(area -> {
-                    AreaResponse areaResponse = modelMapper.map(area, AreaResponse.class);
-                    areaResponse.setCityName(area.getCity().getName());
-                    areaResponse.setStateName(area.getCity().getState().getName());
-                    areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
-                    return areaResponse;
-                })
-                .collect(Collectors.toList());
+        return paginationService.toPage(slots, pageSize,
+                slot -> new PaginationService.Cursor(gazetteer.dateCreated(slot), gazetteer.id(slot)),
+                slot -> areaMapper.toResponse(gazetteer, slot));
     }
 
     // Method to retrieve a specific Area by its ID
     public AreaResponse getArea(UUID id) {
         logger.info("Retrieving an Area with {} id", id);
 
-        // Fetch the Area from the repository
-        Area area = areaRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Area not found"));
+        // Look the Area up in the snapshot
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int slot = gazetteer.indexOf(id, PlaceType.AREA);
+        if (slot == Gazetteer.NONE) {
+            throw new NotFoundException("Area not found");
+        }
 
         // Convert the Area to AreaResponse DTO and include city, state, and country information
-        AreaResponse areaResponse = modelMapper.map(area, AreaResponse.class);
-        areaResponse.setCityName(area.getCity().getName());
-        areaResponse.setStateName(area.getCity().getState().getName());
-        areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
-
-        return areaResponse;
+        return areaMapper.toDetailResponse(gazetteer, slot);
     }
 
     // Method to retrieve Areas by Name (case-insensitive)
     public List<AreaResponse> getByName(String name) {
         logger.info("Retrieving Areas By Name {}", name);
 
-        // Fetch Areas that match the name from the repository (ignoring case)
-        List<Area> areas = areaRepository.getByNameIgnoringCase(name);
-        if (areas.isEmpty()) {
+        // Find the Areas whose name contains the given text (ignoring case)
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = gazetteer.findByName(PlaceType.AREA, name);
+        if (slots.length == 0) {
             logger.warn("No Area with name containing '{}' found in the database", name);
             return Collections.emptyList();
         } else {
-            logger.info("Found {} area(s) containing '{}' in the database", areas.size(), name);
+            logger.info("Found {} area(s) containing '{}' in the database", slots.length, name);
         }
 
         // Convert the Areas to AreaResponse DTOs and include city, state, and country information
-        return areas.stream().map(area -> {
-                    AreaResponse areaResponse = modelMapper.map(area, AreaResponse.class);
-                    areaResponse.setCityName(area.getCity().getName());
-                    areaResponse.setStateName(area.getCity().getState().getName());
-                    areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
-                    return areaResponse;
-                })
-                .collect(Collectors.toList());
+        return toResponses(gazetteer, slots);
     }
 
     // Method to retrieve Areas within a specific City
     public List<AreaResponse> getByCity(UUID cityId) {
         logger.info("Retrieving Areas in City: {}", cityId);
-
-        // Validate that the City exists
-        City city = cityRepository.findById(cityId)
-                .orElseThrow(() -> new NotFoundException("City not Found"));
-
-        // Fetch Areas for the specified City
-        List<Area> areas = areaRepository.getByCity(city);
-        if (areas.isEmpty()) {
-            logger.warn("No areas found in the city: {}", city.getName());
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} areas in city '{}' in the Database", areas.size(), city.getName());
-        }
-
-        // Convert the Areas to AreaResponse DTOs and include city, state, and country information
-        return areas.stream().map(area -> {
-                    AreaResponse areaResponse = modelMapper.map(area, AreaResponse.class);
-                    areaResponse.setCityName(area.getCity().getName());
-                    areaResponse.setStateName(area.getCity().getState().getName());
-                    areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
-                    return areaResponse;
-                })
-                .collect(Collectors.toList());
+        return getUnder(cityId, PlaceType.CITY, "City not Found");
     }
 
     // Method to retrieve Areas within a specific State
     public List<AreaResponse> getByState(UUID stateId) {
         logger.info("Retrieving Areas in State: {}", stateId);
-
-        // Validate that the State exists
-        State state = stateRepository.findById(stateId)
-                .orElseThrow(() -> new NotFoundException("State not Found"));
-
-        // Fetch all Areas and filter them by State
-        List<Area> allAreas = areaRepository.findAll();
-        if (allAreas.isEmpty()) {
-            logger.warn("No areas found in the state: {}", state.getName());
-            return Collections.emptyList();
-        }
-
-        List<Area> filteredAreas = allAreas.stream().filter(area ->
-                        area.getCity().getState().getId().equals(stateId))
-                .toList();
-
-        // Convert the Areas to AreaResponse DTOs and include city, state, and country information
-        return filteredAreas.stream().map(area -> {
-                    AreaResponse areaResponse = modelMapper.map(area, AreaResponse.class);
-                    areaResponse.setCityName(area.getCity().getName());
-                    areaResponse.setStateName(area.getCity().getState().getName());
-                    areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
-                    return areaResponse;
-                })
-                .collect(Collectors.toList());
+        return getUnder(stateId, PlaceType.STATE, "State not Found");
     }
 
     // Method to retrieve Areas within a specific Country
     public List<AreaResponse> getByCountry(UUID countryId) {
         logger.info("Retrieving Areas in Country: {}", countryId);
+        return getUnder(countryId, PlaceType.COUNTRY, "Country not Found");
+    }
 
-        // Validate that the Country exists
-        Country country = countryRepository.findById(countryId)
-                .orElseThrow(() -> new NotFoundException("Country not Found"));
+    // The Areas anywhere below the given place, which must exist and be of the given type
+    private List<AreaResponse> getUnder(UUID parentId, PlaceType parentType, String notFoundMessage) {
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int parent = gazetteer.indexOf(parentId, parentType);
+        if (parent == Gazetteer.NONE) {
+            throw new NotFoundException(notFoundMessage);
+        }
 
-        // Fetch all Areas and filter them by Country
-        List<Area> allAreas = areaRepository.findAll();
-        if (allAreas.isEmpty()) {
-            logger.warn("No areas found in the country: {}", country.getName());
+        int[] slots = gazetteer.descendants(parent, PlaceType.AREA);
+        if (slots.length == 0) {
+            logger.warn("No areas found in {} {}", parentType, gazetteer.name(parent));
             return Collections.emptyList();
         }
+        return toResponses(gazetteer, slots);
+    }
 
-        List<Area> filteredAreas = allAreas.stream().filter(
-                        area -> area.getCity().getState().getCountry().getId().equals(countryId))
-                .toList();
+    private List<AreaResponse> toResponses(Gazetteer gazetteer, int[] slots) {
+        List<AreaResponse> responses = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            responses.add(areaMapper.toResponse(gazetteer, slot));
+        }
+        return responses;
+    }
 
-        // Convert the Areas to AreaResponse DTOs and include city, state, and country information
-        return filteredAreas.stream().map(area -> {
-                    AreaResponse areaResponse = modelMapper.map(area, AreaResponse.class);
-                    areaResponse.setCityName(area.getCity().getName());
-                    areaResponse.setStateName(area.getCity().getState().getName());
-                    areaResponse.setCountryName(area.getCity().getState().getCountry().getName());
-                    return areaResponse;
-                })
-                .collect(Collectors.toList());
+    // Rejects malformed boundary polygons before they are stored
+    private void validateBoundary(double[][][] boundary) {
+        if (boundary == null || boundary.length == 0) {
+            return;
+        }
+        try {
+            PreparedPolygon.validate(boundary);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
     }
 }
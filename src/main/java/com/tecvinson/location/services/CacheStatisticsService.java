@@ -0,0 +1,36 @@
+package com.tecvinson.location.services;
+
+import com.tecvinson.location.dtos.cache.CacheRegionResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class CacheStatisticsService {
+
+    private final Statistics statistics;
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Hit, miss and put counts of every second-level cache region, query results included
+    public List<CacheRegionResponse> getRegionStatistics() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+                    return regionStatistics == null ? null : new CacheRegionResponse(region,
+                            regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                            regionStatistics.getPutCount(), regionStatistics.getElementCountInMemory());
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
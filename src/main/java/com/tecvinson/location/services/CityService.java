@@ -2,50 +2,65 @@ package com.tecvinson.location.services;
 
 import com.tecvinson.location.dtos.city.CityResponse;
 import com.tecvinson.location.dtos.city.CityRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.entities.City;
-import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.PlaceType;
 import com.tecvinson.location.entities.State;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.exceptions.BadRequestException;
 import com.tecvinson.location.exceptions.NotFoundException;
 import com.tecvinson.location.exceptions.ResourceConflictException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.mappers.CityMapper;
 import com.tecvinson.location.repositories.CityRepository;
-import com.tecvinson.location.repositories.CountryRepository;
 import com.tecvinson.location.repositories.StateRepository;
-
-import org.modelmapper.ModelMapper;
+import com.tecvinson.location.spatial.PreparedPolygon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class CityService {
 
     private static final Logger logger = LoggerFactory.getLogger(CityService.class);
 
-    private final ModelMapper modelMapper;
+    private final CityMapper cityMapper;
     private final CityRepository cityRepository;
     private final StateRepository stateRepository;
-    private final CountryRepository countryRepository;
+    private final GazetteerIndex gazetteerIndex;
+    private final PaginationService paginationService;
+    private final PlaceClosureService placeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor injection for required dependencies
-    public CityService(ModelMapper modelMapper, CityRepository cityRepository,
-                       StateRepository stateRepository, CountryRepository countryRepository) {
-        this.modelMapper = modelMapper;
+    public CityService(CityMapper cityMapper, CityRepository cityRepository,
+                       StateRepository stateRepository, GazetteerIndex gazetteerIndex,
+                       PaginationService paginationService, PlaceClosureService placeClosureService,
+                       ApplicationEventPublisher eventPublisher) {
+        this.cityMapper = cityMapper;
         this.cityRepository = cityRepository;
         this.stateRepository = stateRepository;
-        this.countryRepository = countryRepository;
+        this.gazetteerIndex = gazetteerIndex;
+        this.paginationService = paginationService;
+        this.placeClosureService = placeClosureService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Method to create a new city
+    @Transactional
     public CityResponse createCity(CityRequest cityRequest) {
         logger.info("Creating a City with name {}", cityRequest.getName());
 
         // Fetch the associated state or throw an exception if not found
-        State state = stateRepository.findById(cityRequest.getStateId())
+        State state = stateRepository.findWithCountryById(cityRequest.getStateId())
                 .orElseThrow(() -> new NotFoundException("State not Found"));
 
         // Check if a city with the same name already exists in the specified state
@@ -54,28 +69,30 @@ public class CityService {
         if (cityExists) {
             throw new ResourceConflictException("City Exists for this State");
         }
+        validateBoundary(cityRequest.getBoundary());
 
         // Map the CityRequest DTO to a City entity
-        City city = modelMapper.map(cityRequest, City.class);
+        City city = cityMapper.toEntity(cityRequest);
         city.setState(state); // Set the associated state
         city.setCreatedBy("SYSTEM"); // Set audit fields
         city.setModifiedBy("SYSTEM");
         city = cityRepository.save(city); // Save the city to the database
+        placeClosureService.addPlace(PlaceType.CITY, city.getId(), state.getId());
 
         logger.info("City with id: {} created", city.getId());
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.CITY, city.getId()));
 
         // Map the City entity to a CityResponse DTO
-        CityResponse cityResponse = modelMapper.map(city, CityResponse.class);
-        cityResponse.setCountryName(city.getState().getCountry().getName());
-        return cityResponse;
+        return cityMapper.toResponse(city);
     }
 
     // Method to update an existing city
+    @Transactional
     public CityResponse updateCity(UUID id, CityRequest cityRequest) {
         logger.info("Updating a city with id {}", id);
 
         // Fetch the associated state or throw an exception if not found
-        State state = stateRepository.findById(cityRequest.getStateId())
+        State state = stateRepository.findWithCountryById(cityRequest.getStateId())
                 .orElseThrow(() -> new NotFoundException("State not Found"));
 
         // Check if a city with the same name already exists in the specified state
@@ -84,139 +101,134 @@ public class CityService {
         if (cityExists) {
             throw new ResourceConflictException("City Exists for this State");
         }
+        validateBoundary(cityRequest.getBoundary());
 
         // Fetch the existing city or throw an exception if not found
         City city = cityRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("City not Found"));
 
+        UUID previousStateId = city.getState() == null ? null : city.getState().getId();
+
         // Update the city entity fields
         city.setName(cityRequest.getName());
         city.setState(state);
+        // Keep the stored boundary unless the request sends one; an empty one removes it
+        double[][][] boundary = cityRequest.getBoundary();
+        if (boundary != null) {
+            city.setBoundary(boundary.length == 0 ? null : boundary);
+        }
         city.setCreatedBy("SYSTEM");
         city.setModifiedBy("SYSTEM");
 
         logger.info("City Updated. Id:{}, State:{}", id, state.getName());
 
         // Save the updated city and map to CityResponse DTO
-        CityResponse cityResponse = modelMapper.map(cityRepository.save(city), CityResponse.class);
-        cityResponse.setCountryName(city.getState().getCountry().getName());
-        return cityResponse;
+        city = cityRepository.save(city);
+        if (!state.getId().equals(previousStateId)) {
+            placeClosureService.movePlace(PlaceType.CITY, city.getId(), state.getId());
+        }
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.CITY, city.getId()));
+
+        return cityMapper.toResponse(city);
     }
 
-    // Method to retrieve all cities
-    public List<CityResponse> getCities() {
-        logger.info("Retrieving All Cities");
+    // Method to retrieve a page of cities, ordered by creation date
+    public CursorPage<CityResponse> getCities(String cursor, Integer size) {
+        logger.info("Retrieving a page of Cities");
 
-        // Fetch all cities from the repository
-        List<City> cities = cityRepository.findAll();
-        if (cities.isEmpty()) {
-            logger.warn("No City found in Database");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} cities in the Database", cities.size());
-        }
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+
+        // Seek past the cursor in the snapshot, which keeps each type sorted on (dateCreated, id)
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = after == null
+                ? gazetteer.page(PlaceType.CITY, null, null, pageSize + 1)
+                : gazetteer.page(PlaceType.CITY, after.dateCreated(), after.id(), pageSize + 1);
 
-        // Map each City entity to a CityResponse DTO
-        return cities.stream().map(city -> {
-            CityResponse cityResponse = modelMapper.map(city, CityResponse.class);
-            cityResponse.setStateName(city.getState().getName());
-            cityResponse.setCountryName(city.getState().getCountry().getName());
-            return cityResponse;
-        }).collect(Collectors.toList());
+        // Map each City to a CityResponse DTO
+        return paginationService.toPage(slots, pageSize,
+                slot -> new PaginationService.Cursor(gazetteer.dateCreated(slot), gazetteer.id(slot)),
+                slot -> cityMapper.toResponse(gazetteer, slot));
     }
 
     // Method to retrieve a city by its ID
     public CityResponse getCity(UUID id) {
         logger.info("Retrieving a City with {} id", id);
 
-        // Fetch the city by its ID or throw an exception if not found
-        City city = cityRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("City not found"));
-
-        // Map the City entity to a CityResponse DTO
-        CityResponse cityResponse = modelMapper.map(city, CityResponse.class);
-        cityResponse.setStateName(city.getState().getName());
-        cityResponse.setCountryName(city.getState().getCountry().getName());
+        // Look the city up in the snapshot or throw an exception if not found
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int slot = gazetteer.indexOf(id, PlaceType.CITY);
+        if (slot == Gazetteer.NONE) {
+            throw new NotFoundException("City not found");
+        }
 
-        return cityResponse;
+        // Map the City to a CityResponse DTO
+        return cityMapper.toDetailResponse(gazetteer, slot);
     }
 
     // Method to retrieve cities by their name
     public List<CityResponse> getByName(String name) {
         logger.info("Retrieving Cities By Name {}", name);
 
-        // Fetch cities by name using a custom query
-        List<City> cities = cityRepository.getByNameIgnoringCase(name);
-        if (cities.isEmpty()) {
+        // Find the cities whose name contains the given text
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = gazetteer.findByName(PlaceType.CITY, name);
+        if (slots.length == 0) {
             logger.warn("No City with such name found in Database");
             return Collections.emptyList();
         } else {
-            logger.info("Found {} cities with name {} in the Database", cities.size(), name);
+            logger.info("Found {} cities with name {} in the Database", slots.length, name);
         }
 
-        // Map each City entity to a CityResponse DTO
-        return cities.stream().map(city -> {
-            CityResponse cityResponse = modelMapper.map(city, CityResponse.class);
-            cityResponse.setStateName(city.getState().getName());
-            cityResponse.setCountryName(city.getState().getCountry().getName());
-            return cityResponse;
-        }).collect(Collectors.toList());
+        // Map each City to a CityResponse DTO
+        return toResponses(gazetteer, slots);
     }
 
     // Method to retrieve cities by their state ID
     public List<CityResponse> getByState(UUID stateId) {
         logger.info("Retrieving Cities in state: {}", stateId);
-
-        // Fetch the state by its ID or throw an exception if not found
-        State state = stateRepository.findById(stateId)
-                .orElseThrow(() -> new NotFoundException("State not Found"));
-
-        // Fetch cities in the state
-        List<City> cities = cityRepository.getByState(state);
-        if (cities.isEmpty()) {
-            logger.warn("No cities found in the state: {}", state.getName());
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} cities in state {} in the Database", cities.size(), state);
-        }
-
-        // Map each City entity to a CityResponse DTO
-        return cities.stream().map(city -> {
-            CityResponse cityResponse = modelMapper.map(city, CityResponse.class);
-            cityResponse.setStateName(city.getState().getName());
-            cityResponse.setCountryName(city.getState().getCountry().getName());
-            return cityResponse;
-        }).collect(Collectors.toList());
+        return getUnder(stateId, PlaceType.STATE, "State not Found");
     }
 
     // Method to retrieve cities by their country ID
     public List<CityResponse> getByCountry(UUID countryId) {
         logger.info("Retrieving Cities in Country with ID: {}", countryId);
+        return getUnder(countryId, PlaceType.COUNTRY, "Country not Found");
+    }
 
-        // Fetch the country by its ID or throw an exception if not found
-        Country country = countryRepository.findById(countryId)
-                .orElseThrow(() -> new NotFoundException("Country not Found"));
+    // The cities anywhere below the given place, which must exist and be of the given type
+    private List<CityResponse> getUnder(UUID parentId, PlaceType parentType, String notFoundMessage) {
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int parent = gazetteer.indexOf(parentId, parentType);
+        if (parent == Gazetteer.NONE) {
+            throw new NotFoundException(notFoundMessage);
+        }
 
-        // Fetch all cities from the repository
-        List<City> allCities = cityRepository.findAll();
-        if (allCities.isEmpty()) {
-            logger.warn("No Cities found");
+        int[] slots = gazetteer.descendants(parent, PlaceType.CITY);
+        if (slots.length == 0) {
+            logger.warn("No cities found in {} {}", parentType, gazetteer.name(parent));
             return Collections.emptyList();
         }
+        return toResponses(gazetteer, slots);
+    }
 
-        // Filter cities that belong to the given country
-        List<City> filteredCities = allCities.stream()
-                .filter(city -> city.getState().getCountry().getId().equals(countryId))
-                .toList();
-
-        // Map the filtered cities to CityResponse DTOs
-        return filteredCities.stream()
-                .map(city -> {
-                    CityResponse cityResponse = modelMapper.map(city, CityResponse.class);
-                    cityResponse.setStateName(city.getState().getName());
-                    cityResponse.setCountryName(city.getState().getCountry().getName());
-                    return cityResponse;
-                })
-                .collect(Collectors.toList());
+    private List<CityResponse> toResponses(Gazetteer gazetteer, int[] slots) {
+        List<CityResponse> responses = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            responses.add(cityMapper.toResponse(gazetteer, slot));
+        }
+        return responses;
+    }
+
+    // Rejects malformed boundary polygons before they are stored
+    private void validateBoundary(double[][][] boundary) {
+        if (boundary == null || boundary.length == 0) {
+            return;
+        }
+        try {
+            PreparedPolygon.validate(boundary);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
     }
 }
@@ -1,22 +1,22 @@
 package com.tecvinson.location.services;
 
+import com.tecvinson.location.auth.TenantContext;
 import com.tecvinson.location.dtos.client.ClientResponse;
 import com.tecvinson.location.dtos.client.ClientRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.entities.Client;
 import com.tecvinson.location.entities.Tenant;
 import com.tecvinson.location.exceptions.NotFoundException;
 import com.tecvinson.location.exceptions.ResourceConflictException;
+import com.tecvinson.location.mappers.ClientMapper;
 import com.tecvinson.location.repositories.ClientRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class ClientService {
@@ -24,29 +24,30 @@ public class ClientService {
     // Logger instance for tracking service operations
     private static final Logger logger = LoggerFactory.getLogger(ClientService.class);
 
-    private final ModelMapper modelMapper; // Used for DTO to Entity mapping and vice versa
+    private final ClientMapper clientMapper; // Used for DTO to Entity mapping and vice versa
     private final ClientRepository clientRepository; // Repository for client-related database operations
-    private final ValidationService validationService; // Service to validate API keys and tenants
+    private final TenantContext tenantContext; // Tenant resolved from the request's API key
+    private final PaginationService paginationService; // Resolves page sizes and keyset cursors
 
     // Constructor for dependency injection
-    public ClientService(ModelMapper modelMapper, ClientRepository clientRepository, ValidationService validationService) {
-        this.modelMapper = modelMapper;
+    public ClientService(ClientMapper clientMapper, ClientRepository clientRepository, TenantContext tenantContext, PaginationService paginationService) {
+        this.clientMapper = clientMapper;
         this.clientRepository = clientRepository;
-        this.validationService = validationService;
+        this.tenantContext = tenantContext;
+        this.paginationService = paginationService;
     }
 
     /**
      * Creates a new client for a specific tenant.
-     * @param apiKey The API key of the tenant.
      * @param clientRequest The client creation data from the request DTO.
      * @return The response containing the created client's information.
      */
     @Transactional
-    public ClientResponse createClient(String apiKey, ClientRequest clientRequest) {
+    public ClientResponse createClient(ClientRequest clientRequest) {
         logger.info("Creating a Client");
 
-        // Validate the API key and retrieve the associated tenant
-        Tenant tenant = validationService.validateApiKey(apiKey);
+        // The tenant the request's API key resolved to
+        Tenant tenant = tenantContext.requireTenant();
 
         // Check if a client with the same name already exists for this tenant
         boolean clientExist = clientRepository.existsByNameAndTenantId(clientRequest.getName(), tenant.getId());
@@ -55,7 +56,7 @@ public class ClientService {
         }
 
         // Map the request DTO to a Client entity and set additional fields
-        Client client = modelMapper.map(clientRequest, Client.class);
+        Client client = clientMapper.toEntity(clientRequest);
         client.setTenant(tenant);
         client.setCreatedBy("SYSTEM");
         client.setModifiedBy("SYSTEM");
@@ -66,22 +67,21 @@ public class ClientService {
         logger.info("Client Created. Name: {}", client.getName());
 
         // Map the saved entity to a response DTO
-        return modelMapper.map(client, ClientResponse.class);
+        return clientMapper.toResponse(client);
     }
 
     /**
      * Updates an existing client's details.
-     * @param apiKey The API key of the tenant.
      * @param id The ID of the client to update.
      * @param clientRequest The client update data from the request DTO.
      * @return The updated client's information as a response DTO.
      */
     @Transactional
-    public ClientResponse updateClient(String apiKey, UUID id, ClientRequest clientRequest) {
+    public ClientResponse updateClient(UUID id, ClientRequest clientRequest) {
         logger.info("Updating the details of Client with ID: {}", id);
 
-        // Validate the API key and retrieve the associated tenant
-        Tenant tenant = validationService.validateApiKey(apiKey);
+        // The tenant the request's API key resolved to
+        Tenant tenant = tenantContext.requireTenant();
 
         // Check if a client with the same name already exists for this tenant
         boolean clientExist = clientRepository.existsByNameAndTenantId(clientRequest.getName(), tenant.getId());
@@ -100,33 +100,28 @@ public class ClientService {
         logger.info("Client Updated. Name: {}", clientRequest.getName());
 
         // Save the updated client and map it to a response DTO
-        return modelMapper.map(clientRepository.save(client), ClientResponse.class);
+        return clientMapper.toResponse(clientRepository.save(client));
     }
 
     /**
-     * Retrieves all clients in the system.
-     * @return A list of client response DTOs.
+     * Retrieves a page of clients ordered by creation date.
+     * @param cursor Opaque cursor returned with the previous page, or null for the first page.
+     * @param size Requested page size, capped by the configured maximum.
+     * @return A page of client response DTOs and the cursor of the next page.
      */
-    public List<ClientResponse> getClients() {
-        logger.info("Retrieving All Clients");
-
-        // Retrieve all clients from the database
-        List<Client> clients = clientRepository.findAll();
-        if (clients.isEmpty()) {
-            logger.warn("No Client found");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} Client(s)", clients.size());
-        }
+    public CursorPage<ClientResponse> getClients(String cursor, Integer size) {
+        logger.info("Retrieving a page of Clients");
+
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
 
-        // Map the list of clients to a list of response DTOs with tenant names
-        return clients.stream()
-                .map(client -> {
-                    ClientResponse clientResponse = modelMapper.map(client, ClientResponse.class);
-                    clientResponse.setTenantName(client.getTenant().getName());
-                    return clientResponse;
-                })
-                .collect(Collectors.toList());
+        // Seek past the cursor on the (dateCreated, id) index rather than reading the whole table
+        List<Client> clients = after == null
+                ? clientRepository.findFirstPage(paginationService.limit(pageSize))
+                : clientRepository.findPageAfter(after.dateCreated(), after.id(), paginationService.limit(pageSize));
+
+        // Map the page of clients to response DTOs with tenant names
+        return paginationService.toPage(clients, pageSize, clientMapper::toResponse);
     }
 
     /**
@@ -138,10 +133,10 @@ public class ClientService {
         logger.info("Retrieving Client with ID: {}", id);
 
         // Find the client by ID or throw an exception if not found
-        Client client = clientRepository.findById(id)
+        Client client = clientRepository.findWithTenantById(id)
                 .orElseThrow(() -> new NotFoundException("Client Not Found"));
 
         // Map the client entity to a response DTO
-        return modelMapper.map(client, ClientResponse.class);
+        return clientMapper.toResponse(client);
     }
 }
@@ -3,21 +3,27 @@ package com.tecvinson.location.services;
 import com.tecvinson.location.dtos.continent.ContinentResponse;
 import com.tecvinson.location.dtos.continent.CreateContinentRequest;
 import com.tecvinson.location.dtos.continent.UpdateContinentRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.entities.Client;
 import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.PlaceChangedEvent;
 import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.mappers.ContinentMapper;
 import com.tecvinson.location.repositories.ClientRepository;
 import com.tecvinson.location.repositories.ContinentRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class ContinentService {
@@ -27,13 +33,21 @@ public class ContinentService {
 
     private final ClientRepository clientRepository; // Repository for client-related database operations
     private final ContinentRepository continentRepository; // Repository for continent-related database operations
-    private final ModelMapper modelMapper; // Used for mapping DTOs to entities and vice versa
+    private final ContinentMapper continentMapper; // Used for mapping DTOs to entities and vice versa
+    private final GazetteerIndex gazetteerIndex; // In-memory snapshot the reads are served from
+    private final PaginationService paginationService; // Resolves page sizes and keyset cursors
+    private final PlaceClosureService placeClosureService; // Keeps the place closure table in step with the hierarchy
+    private final ApplicationEventPublisher eventPublisher; // Notifies the in-memory indexes of changes
 
     // Constructor for dependency injection
-    public ContinentService(ClientRepository clientRepository, ContinentRepository continentRepository, ModelMapper modelMapper) {
+    public ContinentService(ClientRepository clientRepository, ContinentRepository continentRepository, ContinentMapper continentMapper, GazetteerIndex gazetteerIndex, PaginationService paginationService, PlaceClosureService placeClosureService, ApplicationEventPublisher eventPublisher) {
         this.clientRepository = clientRepository;
         this.continentRepository = continentRepository;
-        this.modelMapper = modelMapper;
+        this.continentMapper = continentMapper;
+        this.gazetteerIndex = gazetteerIndex;
+        this.paginationService = paginationService;
+        this.placeClosureService = placeClosureService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -51,18 +65,20 @@ public class ContinentService {
         }
 
         // Map the request DTO to a Continent entity and set additional fields
-        Continent continent = modelMapper.map(continentRequest, Continent.class);
+        Continent continent = continentMapper.toEntity(continentRequest);
         continent.setCreatedBy("SYSTEM");
         continent.setModifiedBy("SYSTEM");
         continent.setClientId(clientId);
 
         // Save the continent to the database
         continent = continentRepository.save(continent);
+        placeClosureService.addPlace(PlaceType.CONTINENT, continent.getId(), null);
 
         logger.info("Continent with id: {} was created", continent.getId());
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.CONTINENT, continent.getId()));
 
         // Map the saved entity to a response DTO
-        return modelMapper.map(continent, ContinentResponse.class);
+        return continentMapper.toResponse(continent);
     }
 
     /**
@@ -87,29 +103,34 @@ public class ContinentService {
         logger.info("Continent updated - id: {}, name: {}", country.getId(), country.getName());
 
         // Save the updated continent and map it to a response DTO
-        return modelMapper.map(continentRepository.save(country), ContinentResponse.class);
+        country = continentRepository.save(country);
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.CONTINENT, country.getId()));
+
+        return continentMapper.toResponse(country);
     }
 
     /**
-     * Retrieves all continents in the system.
-     * @return A list of continent response DTOs.
+     * Retrieves a page of continents ordered by creation date.
+     * @param cursor Opaque cursor returned with the previous page, or null for the first page.
+     * @param size Requested page size, capped by the configured maximum.
+     * @return A page of continent response DTOs and the cursor of the next page.
      */
-    public List<ContinentResponse> getContinents() {
-        logger.info("Retrieving a list of continents");
-
-        // Retrieve all continents from the database
-        List<Continent> countries = continentRepository.findAll();
-        if (countries.isEmpty()) {
-            logger.warn("No continents found in the database");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} continents", countries.size());
-        }
-
-        // Map the list of continents to response DTOs
-        return countries.stream()
-                .map(country -> modelMapper.map(country, ContinentResponse.class))
-                .collect(Collectors.toList());
+    public CursorPage<ContinentResponse> getContinents(String cursor, Integer size) {
+        logger.info("Retrieving a page of continents");
+
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+
+        // Seek past the cursor in the snapshot, which keeps each type sorted on (dateCreated, id)
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = after == null
+                ? gazetteer.page(PlaceType.CONTINENT, null, null, pageSize + 1)
+                : gazetteer.page(PlaceType.CONTINENT, after.dateCreated(), after.id(), pageSize + 1);
+
+        // Map the page of continents to response DTOs
+        return paginationService.toPage(slots, pageSize,
+                slot -> new PaginationService.Cursor(gazetteer.dateCreated(slot), gazetteer.id(slot)),
+                slot -> continentMapper.toResponse(gazetteer, slot));
     }
 
     /**
@@ -120,12 +141,15 @@ public class ContinentService {
     public ContinentResponse getContinent(UUID id) {
         logger.info("Retrieving a continent with id: {}", id);
 
-        // Find the continent by ID or throw an exception if not found
-        Continent country = continentRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Continent Not Found"));
+        // Find the continent in the snapshot or throw an exception if not found
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int slot = gazetteer.indexOf(id, PlaceType.CONTINENT);
+        if (slot == Gazetteer.NONE) {
+            throw new NotFoundException("Continent Not Found");
+        }
 
-        // Map the continent entity to a response DTO
-        return modelMapper.map(country, ContinentResponse.class);
+        // Map the continent to a response DTO
+        return continentMapper.toResponse(gazetteer, slot);
     }
 
     /**
@@ -137,16 +161,19 @@ public class ContinentService {
         logger.info("Searching for continents containing: {}", name);
 
         // Search for continents by name (case-insensitive)
-        List<Continent> countries = continentRepository.getByNameIgnoringCase(name);
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = gazetteer.findByName(PlaceType.CONTINENT, name);
 
-        if (countries.isEmpty()) {
+        if (slots.length == 0) {
             logger.warn("No continents found with name containing: {}", name);
             return Collections.emptyList();
         }
 
         // Map the list of continents to response DTOs
-        return countries.stream()
-                .map(country -> modelMapper.map(country, ContinentResponse.class))
-                .collect(Collectors.toList());
+        List<ContinentResponse> responses = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            responses.add(continentMapper.toResponse(gazetteer, slot));
+        }
+        return responses;
     }
 }
@@ -2,22 +2,28 @@ package com.tecvinson.location.services;
 
 import com.tecvinson.location.dtos.country.CountryResponse;
 import com.tecvinson.location.dtos.country.CountryRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.entities.Continent;
 import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.PlaceChangedEvent;
 import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.mappers.CountryMapper;
 import com.tecvinson.location.repositories.ContinentRepository;
 import com.tecvinson.location.repositories.CountryRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class CountryService {
@@ -26,13 +32,21 @@ public class CountryService {
 
     private final CountryRepository countryRepository;
     private final ContinentRepository continentRepository;
-    private final ModelMapper modelMapper;
+    private final CountryMapper countryMapper;
+    private final GazetteerIndex gazetteerIndex;
+    private final PaginationService paginationService;
+    private final PlaceClosureService placeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor-based dependency injection for repositories and model mapper
-    public CountryService(CountryRepository countryRepository, ContinentRepository continentRepository, ModelMapper modelMapper) {
+    public CountryService(CountryRepository countryRepository, ContinentRepository continentRepository, CountryMapper countryMapper, GazetteerIndex gazetteerIndex, PaginationService paginationService, PlaceClosureService placeClosureService, ApplicationEventPublisher eventPublisher) {
         this.countryRepository = countryRepository;
         this.continentRepository = continentRepository;
-        this.modelMapper = modelMapper;
+        this.countryMapper = countryMapper;
+        this.gazetteerIndex = gazetteerIndex;
+        this.paginationService = paginationService;
+        this.placeClosureService = placeClosureService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -50,18 +64,20 @@ public class CountryService {
 
 
             // Map the DTO to an entity and set additional properties
-            Country country = modelMapper.map(countryRequest, Country.class);
+            Country country = countryMapper.toEntity(countryRequest);
             country.setCreatedBy("SYSTEM");
             country.setModifiedBy("SYSTEM");
             country.setContinent(continent);
 
             // Save the new country to the database
             country = countryRepository.save(country);
+            placeClosureService.addPlace(PlaceType.COUNTRY, country.getId(), continent.getId());
 
             logger.info("Country with id: {} was created", country.getId());
+            eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.COUNTRY, country.getId()));
 
             // Map the saved entity to a response DTO and return
-            return modelMapper.map(country, CountryResponse.class);
+            return countryMapper.toResponse(country);
 
     }
 
@@ -83,6 +99,8 @@ public class CountryService {
                 .orElseThrow(() -> new NotFoundException("Country not Found"));
 
 
+            UUID previousContinentId = country.getContinent() == null ? null : country.getContinent().getId();
+
             // Update entity properties with the new data
             country.setName(countryRequest.getName());
             country.setCountryCode(countryRequest.getCountryCode());
@@ -95,33 +113,37 @@ public class CountryService {
             logger.info("Country updated - id: {}, name: {}", country.getId(), country.getName());
 
             // Save the updated country to the database and map it to a response DTO
-            return modelMapper.map(countryRepository.save(country), CountryResponse.class);
+            country = countryRepository.save(country);
+            if (!continent.getId().equals(previousContinentId)) {
+                placeClosureService.movePlace(PlaceType.COUNTRY, country.getId(), continent.getId());
+            }
+            eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.COUNTRY, country.getId()));
+
+            return countryMapper.toResponse(country);
     }
 
     /**
-     * Retrieves a list of all countries.
-     * @return A list of CountryResponse DTOs representing all countries.
+     * Retrieves a page of countries ordered by creation date.
+     * @param cursor Opaque cursor returned with the previous page, or null for the first page.
+     * @param size Requested page size, capped by the configured maximum.
+     * @return A page of CountryResponse DTOs and the cursor of the next page.
      */
-    public List<CountryResponse> getCountries() {
-        logger.info("Retrieving a list of countries");
-
-        // Fetch all countries from the database
-        List<Country> countries = countryRepository.findAll();
-        if (countries.isEmpty()) {
-            logger.warn("No countries found in the database");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} countries", countries.size());
-        }
-
-        // Map each Country entity to a CountryResponse DTO and return the list
-        return countries.stream()
-                .map(country -> {
-                    CountryResponse countryResponse = modelMapper.map(country, CountryResponse.class);
-                    countryResponse.setContinentName(country.getContinent().getName());
-                    return countryResponse;
-                })
-                .collect(Collectors.toList());
+    public CursorPage<CountryResponse> getCountries(String cursor, Integer size) {
+        logger.info("Retrieving a page of countries");
+
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+
+        // Seek past the cursor in the snapshot, which keeps each type sorted on (dateCreated, id)
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = after == null
+                ? gazetteer.page(PlaceType.COUNTRY, null, null, pageSize + 1)
+                : gazetteer.page(PlaceType.COUNTRY, after.dateCreated(), after.id(), pageSize + 1);
+
+        // Map each Country to a CountryResponse DTO
+        return paginationService.toPage(slots, pageSize,
+                slot -> new PaginationService.Cursor(gazetteer.dateCreated(slot), gazetteer.id(slot)),
+                slot -> countryMapper.toResponse(gazetteer, slot));
     }
 
     /**
@@ -132,12 +154,15 @@ public class CountryService {
     public CountryResponse getCountry(UUID id) {
         logger.info("Retrieving a country with id: {}", id);
 
-        // Fetch the country by ID or throw an exception if not found
-        Country country = countryRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Country not found"));
+        // Look the country up in the snapshot or throw an exception if not found
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int slot = gazetteer.indexOf(id, PlaceType.COUNTRY);
+        if (slot == Gazetteer.NONE) {
+            throw new NotFoundException("Country not found");
+        }
 
-        // Map the entity to a response DTO and return
-        return modelMapper.map(country, CountryResponse.class);
+        // Map the country to a response DTO and return
+        return countryMapper.toResponse(gazetteer, slot);
     }
 
     /**
@@ -148,51 +173,50 @@ public class CountryService {
     public List<CountryResponse> getCountriesByName(String name) {
         logger.info("Searching for countries containing: {}", name);
 
-        // Fetch countries matching the search criteria
-        List<Country> countries = countryRepository.getByNameIgnoringCase(name);
+        // Find the countries matching the search criteria
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = gazetteer.findByName(PlaceType.COUNTRY, name);
 
-        if (countries.isEmpty()) {
+        if (slots.length == 0) {
             logger.warn("No countries found with name containing: {}", name);
             return Collections.emptyList();
         }
 
-        // Map each Country entity to a CountryResponse DTO and return the list
-        return countries.stream()
-                .map(country -> {
-                    CountryResponse countryResponse = modelMapper.map(country, CountryResponse.class);
-                    countryResponse.setContinentName(country.getContinent().getName());
-                    return countryResponse;
-                })
-                .collect(Collectors.toList());
+        // Map each Country to a CountryResponse DTO and return the list
+        return toResponses(gazetteer, slots);
     }
 
     /**
-     * Retrieves a list of states for a specific country by its ID.
-     * @param continentId The UUID of the country to retrieve states for.
-     * @return A list of StateResponse DTOs for the specified country.
+     * Retrieves a list of countries for a specific continent by its ID.
+     * @param continentId The UUID of the continent to retrieve countries for.
+     * @return A list of CountryResponse DTOs for the specified continent.
      */
     public List<CountryResponse> getByContinent(UUID continentId) {
         logger.info("Retrieving a list of Countries in a Continent with Id: {}",continentId);
 
-        // Fetch the continent by ID or throw an exception if not found
-        Continent continent = continentRepository.findById(continentId)
-                .orElseThrow(() -> new NotFoundException("Continent not found"));
+        // Look the continent up in the snapshot or throw an exception if not found
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int continent = gazetteer.indexOf(continentId, PlaceType.CONTINENT);
+        if (continent == Gazetteer.NONE) {
+            throw new NotFoundException("Continent not found");
+        }
 
-        //Fetch all Countries associated with the Continent
-        List<Country> countries = countryRepository.getByContinent(continent);
-        if (countries.isEmpty()) {
+        //Collect all Countries of the Continent
+        int[] slots = gazetteer.descendants(continent, PlaceType.COUNTRY);
+        if (slots.length == 0) {
             logger.warn("No Country found for Continent with Id:{}",continentId);
             return Collections.emptyList();
         }
 
-        // Map each Country entity to a CountryResponse DTO and return the list
-        return countries.stream()
-                .map(country -> {
-                    CountryResponse countryResponse = modelMapper.map(country, CountryResponse.class );
-                    countryResponse.setContinentName(country.getContinent().getName());
-                    return countryResponse;
-                })
-                .collect(Collectors.toList());
+        // Map each Country to a CountryResponse DTO and return the list
+        return toResponses(gazetteer, slots);
     }
 
+    private List<CountryResponse> toResponses(Gazetteer gazetteer, int[] slots) {
+        List<CountryResponse> responses = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            responses.add(countryMapper.toResponse(gazetteer, slot));
+        }
+        return responses;
+    }
 }
@@ -1,42 +1,121 @@
 package com.tecvinson.location.services;
 
+import jakarta.annotation.PreDestroy;
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 public class EncryptionService {
 
     private final SecretKeySpec secretKeySpec;
 
-    public EncryptionService(@Value("${encryption.secret-key}") String secretKey) {
+    /*
+     * Cipher is not thread-safe, but an initialised instance can be reused after doFinal. Calls borrow one from a
+     * small pool per mode instead of keeping one per thread, which under virtual threads would mean one per request.
+     */
+    private final CipherPool encryptCiphers;
+    private final CipherPool decryptCiphers;
+
+    // Batches smaller than the threshold are decrypted on the calling thread
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public EncryptionService(@Value("${encryption.secret-key}") String secretKey,
+                             @Value("${encryption.batch.parallelism:0}") int parallelism,
+                             @Value("${encryption.batch.parallel-threshold:64}") int parallelThreshold,
+                             @Value("${encryption.cipher-pool-size:0}") int cipherPoolSize) {
         if (secretKey.length() != 16) {
             throw new IllegalArgumentException("Encryption key must be exactly 16 characters long.");
         }
         this.secretKeySpec = new SecretKeySpec(secretKey.getBytes(), "AES");
+        int processors = Runtime.getRuntime().availableProcessors();
+        int poolSize = cipherPoolSize > 0 ? cipherPoolSize : 2 * processors;
+        this.encryptCiphers = new CipherPool(Cipher.ENCRYPT_MODE, poolSize);
+        this.decryptCiphers = new CipherPool(Cipher.DECRYPT_MODE, poolSize);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : processors);
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
     }
 
     public String encrypt(String data) {
+        Cipher cipher = encryptCiphers.borrow();
         try {
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
             byte[] encryptedData = cipher.doFinal(data.getBytes());
+            encryptCiphers.release(cipher);
             return Base64.getEncoder().encodeToString(encryptedData);
         } catch (Exception e) {
+            // The cipher is not returned, so no later call starts from its state
             throw new RuntimeException("Error encrypting data", e);
         }
     }
 
     public String decrypt(String encryptedData) {
+        Cipher cipher = decryptCiphers.borrow();
         try {
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
             byte[] decodedBytes = Base64.getDecoder().decode(encryptedData);
-            return new String(cipher.doFinal(decodedBytes));
+            String plaintext = new String(cipher.doFinal(decodedBytes));
+            decryptCiphers.release(cipher);
+            return plaintext;
         } catch (Exception e) {
             throw new RuntimeException("Error decrypting data", e);
         }
     }
+
+    /**
+     * Decrypts a batch of values, spreading large batches across the worker pool.
+     * @return The plaintexts in the order of the input; null where the input value was null.
+     */
+    public List<String> decryptAll(List<String> encryptedData) {
+        if (encryptedData.size() < parallelThreshold) {
+            return encryptedData.stream().map(this::decryptNullable).toList();
+        }
+        return pool.submit(() -> encryptedData.parallelStream().map(this::decryptNullable).toList()).join();
+    }
+
+    private String decryptNullable(String encryptedData) {
+        return encryptedData == null ? null : decrypt(encryptedData);
+    }
+
+    // Idle initialised ciphers of one mode. Neither borrowing nor releasing ever waits: an empty pool makes a new
+    // cipher, and a full one drops the returned cipher.
+    private final class CipherPool {
+
+        private final int mode;
+        private final BlockingQueue<Cipher> idle;
+
+        CipherPool(int mode, int size) {
+            this.mode = mode;
+            this.idle = new ArrayBlockingQueue<>(size);
+        }
+
+        Cipher borrow() {
+            Cipher cipher = idle.poll();
+            return cipher != null ? cipher : newCipher(mode);
+        }
+
+        void release(Cipher cipher) {
+            idle.offer(cipher);
+        }
+    }
+
+    private Cipher newCipher(int mode) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(mode, secretKeySpec);
+            return cipher;
+        } catch (Exception e) {
+            throw new RuntimeException("Error initialising cipher", e);
+        }
+    }
 }
@@ -0,0 +1,685 @@
+package com.tecvinson.location.services;
+
+import com.tecvinson.location.dtos.place.GazetteerSeedResponse;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.CommonFields;
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.PlaceClosure;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.exceptions.BadRequestException;
+import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.exceptions.ResourceConflictException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+import com.tecvinson.location.gazetteer.GeoNamesDump;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.ClientRepository;
+import com.tecvinson.location.repositories.ContinentRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.PlaceClosureRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import com.tecvinson.location.search.PlaceAutocompleteIndex;
+import com.tecvinson.location.spatial.GeoMath;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Seeds the continent -> country -> state -> city -> area hierarchy from GeoNames-style dumps: countryInfo.txt
+ * for countries and their continents, and a place dump (allCountries.txt or a single country's file) for the
+ * rest. First-level divisions (ADM1) become states, populated places become cities, and sections of populated
+ * places (PPLX) become areas of the nearest city in the same state.
+ *
+ * <p>The dump is parsed in parallel, parents are resolved in memory against the gazetteer and the places created
+ * so far, and each level is written in batches together with its closure rows. A place is a duplicate when its
+ * parent already has a place of the same name, ignoring case as the existsByNameAnd... checks do under MySQL's
+ * default collation; duplicates are reused as parents instead of being created again, so a seed can be re-run.
+ */
+@Service
+public class GazetteerSeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GazetteerSeedService.class);
+
+    private static final Map<String, String> CONTINENTS = Map.of(
+            "AF", "Africa", "AN", "Antarctica", "AS", "Asia", "EU", "Europe",
+            "NA", "North America", "OC", "Oceania", "SA", "South America");
+
+    // Populated places that become cities; abandoned, historical and destroyed ones are left out
+    private static final Set<String> CITY_CODES = Set.of(
+            "PPL", "PPLA", "PPLA2", "PPLA3", "PPLA4", "PPLA5", "PPLC", "PPLF", "PPLG", "PPLL", "PPLR", "PPLS");
+    private static final String STATE_CODE = "ADM1";
+    private static final String AREA_CODE = "PPLX";
+
+    // The Country columns are limited to this many characters by CountryRequest
+    private static final int MAX_CODE_LENGTH = 5;
+
+    private final ContinentRepository continentRepository;
+    private final CountryRepository countryRepository;
+    private final StateRepository stateRepository;
+    private final CityRepository cityRepository;
+    private final AreaRepository areaRepository;
+    private final PlaceClosureRepository placeClosureRepository;
+    private final ClientRepository clientRepository;
+    private final GazetteerIndex gazetteerIndex;
+    private final PlaceAutocompleteIndex placeAutocompleteIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final String directory;
+    private final boolean onStartup;
+    private final String startupPlaces;
+    private final String startupCountryInfo;
+    private final String startupClientId;
+    private final long minPopulation;
+    private final double areaMaxDistanceKm;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gazetteer-seed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile SeedRun lastRun;
+
+    public GazetteerSeedService(ContinentRepository continentRepository, CountryRepository countryRepository,
+                                StateRepository stateRepository, CityRepository cityRepository,
+                                AreaRepository areaRepository, PlaceClosureRepository placeClosureRepository,
+                                ClientRepository clientRepository, GazetteerIndex gazetteerIndex,
+                                PlaceAutocompleteIndex placeAutocompleteIndex, PlatformTransactionManager transactionManager,
+                                @Value("${gazetteer.seed.directory:}") String directory,
+                                @Value("${gazetteer.seed.on-startup:false}") boolean onStartup,
+                                @Value("${gazetteer.seed.places:}") String startupPlaces,
+                                @Value("${gazetteer.seed.country-info:countryInfo.txt}") String startupCountryInfo,
+                                @Value("${gazetteer.seed.client-id:}") String startupClientId,
+                                @Value("${gazetteer.seed.min-population:0}") long minPopulation,
+                                @Value("${gazetteer.seed.area-max-distance-km:25}") double areaMaxDistanceKm,
+                                @Value("${gazetteer.seed.batch-size:1000}") int batchSize,
+                                @Value("${gazetteer.seed.parallelism:0}") int parallelism) {
+        this.continentRepository = continentRepository;
+        this.countryRepository = countryRepository;
+        this.stateRepository = stateRepository;
+        this.cityRepository = cityRepository;
+        this.areaRepository = areaRepository;
+        this.placeClosureRepository = placeClosureRepository;
+        this.clientRepository = clientRepository;
+        this.gazetteerIndex = gazetteerIndex;
+        this.placeAutocompleteIndex = placeAutocompleteIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = directory;
+        this.onStartup = onStartup;
+        this.startupPlaces = startupPlaces;
+        this.startupCountryInfo = startupCountryInfo;
+        this.startupClientId = startupClientId;
+        this.minPopulation = minPopulation;
+        this.areaMaxDistanceKm = areaMaxDistanceKm;
+        this.batchSize = batchSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        pool.shutdown();
+    }
+
+    /**
+     * Seeds from the configured files before the application reports ready, so the indexes loaded on
+     * ApplicationReadyEvent and the closure backfill already see the new places.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void seedOnStartup() {
+        if (!onStartup) {
+            return;
+        }
+        UUID clientId = startupClientId.isBlank() ? null : UUID.fromString(startupClientId.trim());
+        SeedRun run = begin(startupPlaces, startupCountryInfo, clientId);
+        seed(run);
+    }
+
+    /**
+     * Queues a seed from files in the configured seed directory.
+     * @param clientId Owner of the continents that have to be created; without it, countries of a missing
+     *                 continent are skipped.
+     */
+    public GazetteerSeedResponse startSeed(String places, String countryInfo, UUID clientId) {
+        if (clientId != null && !clientRepository.existsById(clientId)) {
+            throw new NotFoundException("Client not found");
+        }
+        SeedRun run = begin(places, countryInfo, clientId);
+        runner.submit(() -> seed(run));
+        return run.toResponse();
+    }
+
+    public GazetteerSeedResponse getLastSeed() {
+        SeedRun run = lastRun;
+        if (run == null) {
+            throw new NotFoundException("No gazetteer seed has run");
+        }
+        return run.toResponse();
+    }
+
+    private SeedRun begin(String places, String countryInfo, UUID clientId) {
+        Path placesFile = resolve(places);
+        Path countryInfoFile = resolve(countryInfo);
+        if (!running.compareAndSet(false, true)) {
+            throw new ResourceConflictException("A gazetteer seed is already running");
+        }
+        SeedRun run = new SeedRun(placesFile, countryInfoFile, clientId);
+        lastRun = run;
+        return run;
+    }
+
+    // Only files directly inside the seed directory can be named
+    private Path resolve(String fileName) {
+        if (directory.isBlank()) {
+            throw new BadRequestException("Gazetteer seeding is not configured");
+        }
+        if (fileName == null || fileName.isBlank()) {
+            throw new BadRequestException("Seed file name is required");
+        }
+        Path base = Path.of(directory).toAbsolutePath().normalize();
+        Path file = base.resolve(fileName).normalize();
+        if (!base.equals(file.getParent())) {
+            throw new BadRequestException("Seed files must be in the seed directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new NotFoundException("Seed file not found: " + fileName);
+        }
+        return file;
+    }
+
+    private void seed(SeedRun run) {
+        long start = System.currentTimeMillis();
+        try {
+            seedHierarchy(run);
+            run.finish(GazetteerSeedResponse.Status.COMPLETED, null);
+        } catch (Exception e) {
+            logger.error("Gazetteer seed from {} failed", run.placesFile, e);
+            run.finish(GazetteerSeedResponse.Status.FAILED, "Seed failed: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        logger.info("Gazetteer seed from {} finished in {} ms: {} continents, {} countries, {} states, {} cities, "
+                        + "{} areas created, {} duplicates, {} skipped", run.placesFile.getFileName(),
+                System.currentTimeMillis() - start, run.created.get(0), run.created.get(1), run.created.get(2),
+                run.created.get(3), run.created.get(4), run.duplicates, run.skipped);
+    }
+
+    private void seedHierarchy(SeedRun run) throws IOException {
+        List<GeoNamesDump.Entry> entries = GeoNamesDump.readPlaces(run.placesFile, "AP", this::isWanted, pool);
+        List<GeoNamesDump.CountryInfo> countryInfo = GeoNamesDump.readCountryInfo(run.countryInfoFile);
+        run.entriesRead = entries.size();
+        logger.info("Parsed {} places from {}", entries.size(), run.placesFile.getFileName());
+
+        // Dedup against the live snapshot, which change events keep up to date with what is stored
+        Hierarchy hierarchy = new Hierarchy(gazetteerIndex.current());
+
+        Map<String, UUID> countries = seedCountries(run, hierarchy, entries, countryInfo);
+        Map<String, UUID> states = seedStates(run, hierarchy, entries, countries);
+        Map<String, List<CityPoint>> cities = seedCities(run, hierarchy, entries, states);
+        seedAreas(run, hierarchy, entries, cities);
+
+        // Publish everything at once instead of one change event per place, without losing edits made meanwhile
+        gazetteerIndex.merge(hierarchy.added);
+        placeAutocompleteIndex.load();
+    }
+
+    private boolean isWanted(GeoNamesDump.Entry entry) {
+        if (entry.featureClass() == 'A') {
+            return STATE_CODE.equals(entry.featureCode());
+        }
+        return AREA_CODE.equals(entry.featureCode())
+                || (CITY_CODES.contains(entry.featureCode()) && entry.population() >= minPopulation);
+    }
+
+    // Countries of the dump, keyed by ISO code, with the continents they need
+    private Map<String, UUID> seedCountries(SeedRun run, Hierarchy hierarchy, List<GeoNamesDump.Entry> entries,
+                                            List<GeoNamesDump.CountryInfo> countryInfo) {
+        Set<String> codes = new HashSet<>();
+        entries.forEach(entry -> codes.add(entry.countryCode()));
+
+        Map<String, UUID> countryIds = new HashMap<>();
+        Map<String, Continent> newContinents = new HashMap<>();
+        List<Country> newCountries = new ArrayList<>();
+        List<Object> newCountryContinents = new ArrayList<>();
+        for (GeoNamesDump.CountryInfo info : countryInfo) {
+            if (!codes.contains(info.isoCode())) {
+                continue;
+            }
+            // Country names and codes are unique across continents
+            UUID existing = hierarchy.countriesByCode.getOrDefault(lower(info.isoCode()), hierarchy.countriesByName.get(lower(info.name())));
+            if (existing != null) {
+                countryIds.put(info.isoCode(), existing);
+                run.duplicates++;
+                continue;
+            }
+
+            String phoneCode = phoneCode(info.phone());
+            if (phoneCode == null || hierarchy.countryPhoneCodes.contains(phoneCode)
+                    || info.isoCode().length() > MAX_CODE_LENGTH) {
+                // Countries share some dialling codes, but the column is unique
+                logger.warn("Skipping country {}: phone code '{}' is missing or already taken", info.name(), info.phone());
+                run.skipped++;
+                continue;
+            }
+
+            String continentName = CONTINENTS.get(info.continentCode());
+            Object continent = continentName == null ? null : hierarchy.existing(null, continentName);
+            if (continent == null && continentName != null && run.clientId != null) {
+                continent = newContinents.computeIfAbsent(continentName, name -> {
+                    Continent created = new Continent();
+                    created.setName(name);
+                    created.setClientId(run.clientId);
+                    return created;
+                });
+            }
+            if (continent == null) {
+                logger.warn("Skipping country {}: continent '{}' does not exist", info.name(), info.continentCode());
+                run.skipped++;
+                continue;
+            }
+
+            Country country = new Country();
+            country.setName(info.name());
+            country.setCountryCode(info.isoCode());
+            country.setPhoneCode(phoneCode);
+            country.setFlag(flag(info.isoCode()));
+            newCountries.add(country);
+            newCountryContinents.add(continent);
+            hierarchy.countryPhoneCodes.add(phoneCode);
+        }
+
+        List<Continent> continents = new ArrayList<>(newContinents.values());
+        insert(run, hierarchy, PlaceType.CONTINENT, continents, nulls(continents.size()), continentRepository,
+                (continent, parentId) -> { }, GazetteerPlace::of);
+
+        // Continents created above are only known as entities until now
+        List<UUID> continentIds = new ArrayList<>(newCountryContinents.size());
+        for (Object continent : newCountryContinents) {
+            continentIds.add(continent instanceof Continent created ? created.getId() : (UUID) continent);
+        }
+        insert(run, hierarchy, PlaceType.COUNTRY, newCountries, continentIds, countryRepository,
+                (country, parentId) -> country.setContinent(continentRepository.getReferenceById(parentId)), GazetteerPlace::of);
+        newCountries.forEach(country -> countryIds.put(country.getCountryCode(), country.getId()));
+        return countryIds;
+    }
+
+    // States from the first-level divisions, keyed by "countryCode.admin1"
+    private Map<String, UUID> seedStates(SeedRun run, Hierarchy hierarchy, List<GeoNamesDump.Entry> entries,
+                                         Map<String, UUID> countries) {
+        Map<String, UUID> stateIds = new HashMap<>();
+        Map<String, State> newStates = new HashMap<>();
+        List<State> states = new ArrayList<>();
+        List<UUID> parentIds = new ArrayList<>();
+        for (GeoNamesDump.Entry entry : entries) {
+            if (entry.featureClass() != 'A') {
+                continue;
+            }
+            String key = entry.countryCode() + "." + entry.admin1();
+            UUID countryId = countries.get(entry.countryCode());
+            if (countryId == null) {
+                run.skipped++;
+                continue;
+            }
+            if (stateIds.containsKey(key) || newStates.containsKey(key)) {
+                run.duplicates++;
+                continue;
+            }
+            UUID existing = hierarchy.existing(countryId, entry.name());
+            State pending = hierarchy.pending(countryId, entry.name());
+            if (existing != null || pending != null) {
+                // Two division codes with one name end up as one state
+                if (existing != null) {
+                    stateIds.put(key, existing);
+                } else {
+                    newStates.put(key, pending);
+                }
+                run.duplicates++;
+                continue;
+            }
+            State state = new State();
+            state.setName(entry.name());
+            newStates.put(key, state);
+            states.add(state);
+            parentIds.add(countryId);
+            hierarchy.claim(countryId, entry.name(), state);
+        }
+
+        insert(run, hierarchy, PlaceType.STATE, states, parentIds, stateRepository,
+                (state, parentId) -> state.setCountry(countryRepository.getReferenceById(parentId)), GazetteerPlace::of);
+        newStates.forEach((key, state) -> stateIds.put(key, state.getId()));
+        return stateIds;
+    }
+
+    // Cities, most populous first so that it wins a name clash; returned per state key for placing the areas
+    private Map<String, List<CityPoint>> seedCities(SeedRun run, Hierarchy hierarchy, List<GeoNamesDump.Entry> entries,
+                                                    Map<String, UUID> states) {
+        List<GeoNamesDump.Entry> cityEntries = entries.stream()
+                .filter(entry -> entry.featureClass() == 'P' && !AREA_CODE.equals(entry.featureCode()))
+                .sorted(Comparator.comparingLong(GeoNamesDump.Entry::population).reversed())
+                .toList();
+
+        Map<String, List<CityPoint>> points = new HashMap<>();
+        List<City> cities = new ArrayList<>();
+        List<UUID> parentIds = new ArrayList<>();
+        List<GeoNamesDump.Entry> created = new ArrayList<>();
+        for (GeoNamesDump.Entry entry : cityEntries) {
+            String key = entry.countryCode() + "." + entry.admin1();
+            UUID stateId = states.get(key);
+            if (stateId == null) {
+                run.skipped++;
+                continue;
+            }
+            UUID existing = hierarchy.existing(stateId, entry.name());
+            if (existing != null || hierarchy.pending(stateId, entry.name()) != null) {
+                // A stored city is still a candidate for the areas around it
+                if (existing != null) {
+                    points.computeIfAbsent(key, k -> new ArrayList<>()).add(new CityPoint(existing, entry));
+                }
+                run.duplicates++;
+                continue;
+            }
+            City city = new City();
+            city.setName(entry.name());
+            cities.add(city);
+            parentIds.add(stateId);
+            created.add(entry);
+            hierarchy.claim(stateId, entry.name(), city);
+        }
+
+        insert(run, hierarchy, PlaceType.CITY, cities, parentIds, cityRepository,
+                (city, parentId) -> city.setState(stateRepository.getReferenceById(parentId)), GazetteerPlace::of);
+        for (int i = 0; i < cities.size(); i++) {
+            GeoNamesDump.Entry entry = created.get(i);
+            points.computeIfAbsent(entry.countryCode() + "." + entry.admin1(), k -> new ArrayList<>())
+                    .add(new CityPoint(cities.get(i).getId(), entry));
+        }
+        return points;
+    }
+
+    // Areas go to the nearest city of their state, preferring cities of the same second-level division
+    private void seedAreas(SeedRun run, Hierarchy hierarchy, List<GeoNamesDump.Entry> entries,
+                           Map<String, List<CityPoint>> cities) {
+        List<GeoNamesDump.Entry> areaEntries = entries.stream()
+                .filter(entry -> AREA_CODE.equals(entry.featureCode()))
+                .toList();
+        List<UUID> nearest = pool.submit(() -> areaEntries.parallelStream()
+                .map(entry -> nearestCity(entry, cities.getOrDefault(entry.countryCode() + "." + entry.admin1(), List.of())))
+                .toList()).join();
+
+        List<Area> areas = new ArrayList<>();
+        List<UUID> parentIds = new ArrayList<>();
+        for (int i = 0; i < areaEntries.size(); i++) {
+            GeoNamesDump.Entry entry = areaEntries.get(i);
+            UUID cityId = nearest.get(i);
+            if (cityId == null) {
+                run.skipped++;
+                continue;
+            }
+            if (hierarchy.existing(cityId, entry.name()) != null || hierarchy.pending(cityId, entry.name()) != null) {
+                run.duplicates++;
+                continue;
+            }
+            Area area = new Area();
+            area.setName(entry.name());
+            areas.add(area);
+            parentIds.add(cityId);
+            hierarchy.claim(cityId, entry.name(), area);
+        }
+
+        insert(run, hierarchy, PlaceType.AREA, areas, parentIds, areaRepository,
+                (area, parentId) -> area.setCity(cityRepository.getReferenceById(parentId)), GazetteerPlace::of);
+    }
+
+    private UUID nearestCity(GeoNamesDump.Entry area, List<CityPoint> candidates) {
+        UUID best = null;
+        double bestDistance = areaMaxDistanceKm;
+        boolean bestSameAdmin2 = false;
+        for (CityPoint city : candidates) {
+            boolean sameAdmin2 = !area.admin2().isEmpty() && area.admin2().equals(city.admin2());
+            if (bestSameAdmin2 && !sameAdmin2) {
+                continue;
+            }
+            double distance = GeoMath.distanceKm(area.latitude(), area.longitude(), city.latitude(), city.longitude());
+            if (distance <= areaMaxDistanceKm && (sameAdmin2 && !bestSameAdmin2 || distance < bestDistance)) {
+                best = city.id();
+                bestDistance = distance;
+                bestSameAdmin2 = sameAdmin2;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Saves one level in batches of batchSize, each in its own transaction together with the closure rows of its
+     * places. Parents are linked by reference, since they are known to exist.
+     */
+    private <E extends CommonFields> void insert(SeedRun run, Hierarchy hierarchy, PlaceType type, List<E> entities,
+                                                 List<UUID> parentIds, JpaRepository<E, UUID> repository,
+                                                 BiConsumer<E, UUID> setParent, Function<E, GazetteerPlace> toPlace) {
+        long start = System.currentTimeMillis();
+        for (int from = 0; from < entities.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, entities.size());
+            List<E> batch = entities.subList(from, to);
+            List<UUID> batchParents = parentIds.subList(from, to);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    E entity = batch.get(i);
+                    if (batchParents.get(i) != null) {
+                        setParent.accept(entity, batchParents.get(i));
+                    }
+                    entity.setCreatedBy("SYSTEM");
+                    entity.setModifiedBy("SYSTEM");
+                }
+                repository.saveAll(batch);
+
+                List<PlaceClosure> rows = new ArrayList<>(batch.size() * (type.ordinal() + 1));
+                for (int i = 0; i < batch.size(); i++) {
+                    UUID id = batch.get(i).getId();
+                    hierarchy.register(id, type, batchParents.get(i));
+                    rows.add(new PlaceClosure(id, type, id, type, 0));
+                    int depth = 1;
+                    for (UUID ancestor = batchParents.get(i); ancestor != null; ancestor = hierarchy.parentOf(ancestor), depth++) {
+                        rows.add(new PlaceClosure(ancestor, hierarchy.typeOf(ancestor), id, type, depth));
+                    }
+                }
+                placeClosureRepository.saveAll(rows);
+            });
+            batch.forEach(entity -> hierarchy.added.add(toPlace.apply(entity)));
+            run.created.addAndGet(type.ordinal(), batch.size());
+        }
+        if (!entities.isEmpty()) {
+            logger.info("Seeded {} {} place(s) in {} ms", entities.size(), type, System.currentTimeMillis() - start);
+        }
+    }
+
+    // "1-809 and 1-829" -> "1-809"; null when nothing usable is left
+    private static String phoneCode(String phone) {
+        String code = phone.replace("+", "").trim().split(" ")[0];
+        return code.isEmpty() || code.length() > MAX_CODE_LENGTH ? null : code;
+    }
+
+    // The flag emoji: each letter of the ISO code as a regional indicator symbol
+    private static String flag(String isoCode) {
+        StringBuilder flag = new StringBuilder();
+        isoCode.toUpperCase(Locale.ROOT).chars().forEach(c -> flag.appendCodePoint(0x1F1E6 + c - 'A'));
+        return flag.toString();
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<UUID> nulls(int size) {
+        List<UUID> nulls = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nulls.add(null);
+        }
+        return nulls;
+    }
+
+    private record CityPoint(UUID id, double latitude, double longitude, String admin2) {
+
+        CityPoint(UUID id, GeoNamesDump.Entry entry) {
+            this(id, entry.latitude(), entry.longitude(), entry.admin2());
+        }
+    }
+
+    /**
+     * The hierarchy as the seed sees it: the gazetteer snapshot it started from plus the places it has created.
+     * Names are claimed per parent before their batch is written, so the dump cannot clash with itself either.
+     */
+    private static final class Hierarchy {
+
+        final Gazetteer gazetteer;
+        final Map<String, UUID> existing = new HashMap<>();
+        final Map<String, CommonFields> pending = new HashMap<>();
+        final Map<String, UUID> countriesByCode = new HashMap<>();
+        final Map<String, UUID> countriesByName = new HashMap<>();
+        final Set<String> countryPhoneCodes = new HashSet<>();
+        final Map<UUID, UUID> newParents = new HashMap<>();
+        final Map<UUID, PlaceType> newTypes = new HashMap<>();
+        final List<GazetteerPlace> added = new ArrayList<>();
+
+        Hierarchy(Gazetteer gazetteer) {
+            this.gazetteer = gazetteer;
+            for (GazetteerPlace place : gazetteer.places()) {
+                if (place.name() != null) {
+                    existing.put(key(place.parentId(), place.name()), place.id());
+                }
+                if (place.type() == PlaceType.COUNTRY) {
+                    if (place.name() != null) {
+                        countriesByName.put(lower(place.name()), place.id());
+                    }
+                    if (place.countryCode() != null) {
+                        countriesByCode.put(lower(place.countryCode()), place.id());
+                    }
+                    if (place.phoneCode() != null) {
+                        countryPhoneCodes.add(place.phoneCode());
+                    }
+                }
+            }
+        }
+
+        // The stored place of that name under the parent (null for continents), or null
+        UUID existing(UUID parentId, String name) {
+            return existing.get(key(parentId, name));
+        }
+
+        // The place of that name under the parent that this seed is about to create, or null
+        @SuppressWarnings("unchecked")
+        <E extends CommonFields> E pending(UUID parentId, String name) {
+            return (E) pending.get(key(parentId, name));
+        }
+
+        void claim(UUID parentId, String name, CommonFields place) {
+            pending.put(key(parentId, name), place);
+        }
+
+        private static String key(UUID parentId, String name) {
+            return parentId + "/" + lower(name);
+        }
+
+        void register(UUID id, PlaceType type, UUID parentId) {
+            newParents.put(id, parentId);
+            newTypes.put(id, type);
+        }
+
+        UUID parentOf(UUID id) {
+            if (newTypes.containsKey(id)) {
+                return newParents.get(id);
+            }
+            int slot = gazetteer.indexOf(id);
+            int parent = slot == Gazetteer.NONE ? Gazetteer.NONE : gazetteer.parent(slot);
+            return parent == Gazetteer.NONE ? null : gazetteer.id(parent);
+        }
+
+        PlaceType typeOf(UUID id) {
+            PlaceType type = newTypes.get(id);
+            if (type == null) {
+                int slot = gazetteer.indexOf(id);
+                type = slot == Gazetteer.NONE ? null : gazetteer.place(slot).type();
+            }
+            return type;
+        }
+    }
+
+    // Progress of one seed; written by the seeding thread only, read by any request thread
+    private static final class SeedRun {
+
+        final Path placesFile;
+        final Path countryInfoFile;
+        final UUID clientId;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        // Places created, per PlaceType ordinal
+        final AtomicLongArray created = new AtomicLongArray(PlaceType.values().length);
+        volatile long entriesRead;
+        volatile long duplicates;
+        volatile long skipped;
+        volatile GazetteerSeedResponse.Status status = GazetteerSeedResponse.Status.RUNNING;
+        volatile LocalDateTime finishedAt;
+        volatile String message;
+
+        SeedRun(Path placesFile, Path countryInfoFile, UUID clientId) {
+            this.placesFile = placesFile;
+            this.countryInfoFile = countryInfoFile;
+            this.clientId = clientId;
+        }
+
+        void finish(GazetteerSeedResponse.Status status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        GazetteerSeedResponse toResponse() {
+            GazetteerSeedResponse response = new GazetteerSeedResponse();
+            response.setFile(placesFile.getFileName().toString());
+            response.setStatus(status);
+            response.setEntriesRead(entriesRead);
+            response.setContinents(created.get(PlaceType.CONTINENT.ordinal()));
+            response.setCountries(created.get(PlaceType.COUNTRY.ordinal()));
+            response.setStates(created.get(PlaceType.STATE.ordinal()));
+            response.setCities(created.get(PlaceType.CITY.ordinal()));
+            response.setAreas(created.get(PlaceType.AREA.ordinal()));
+            response.setDuplicates(duplicates);
+            response.setSkipped(skipped);
+            response.setStartedAt(startedAt);
+            response.setFinishedAt(finishedAt);
+            response.setMessage(message);
+            return response;
+        }
+    }
+}
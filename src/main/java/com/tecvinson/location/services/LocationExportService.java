@@ -0,0 +1,224 @@
+package com.tecvinson.location.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.dtos.location.ExportFormat;
+import com.tecvinson.location.dtos.location.LocationResponse;
+import com.tecvinson.location.exceptions.BadRequestException;
+import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.LocationRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class LocationExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationExportService.class);
+
+    // Rows written between explicit flushes; the first row is always flushed so clients see data immediately
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final LocationRepository locationRepository;
+    private final CityRepository cityRepository;
+    private final StateRepository stateRepository;
+    private final CountryRepository countryRepository;
+    private final ObjectMapper objectMapper;
+
+    public LocationExportService(LocationRepository locationRepository, CityRepository cityRepository,
+                                 StateRepository stateRepository, CountryRepository countryRepository,
+                                 ObjectMapper objectMapper) {
+        this.locationRepository = locationRepository;
+        this.cityRepository = cityRepository;
+        this.stateRepository = stateRepository;
+        this.countryRepository = countryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Checks the export scope before the response is committed, so that a bad request
+     * still gets a proper status code instead of a truncated body.
+     */
+    public void validateScope(UUID countryId, UUID stateId, UUID cityId) {
+        int scopes = (countryId != null ? 1 : 0) + (stateId != null ? 1 : 0) + (cityId != null ? 1 : 0);
+        if (scopes > 1) {
+            throw new BadRequestException("Only one of countryId, stateId or cityId can be given");
+        }
+        if (countryId != null && !countryRepository.existsById(countryId)) {
+            throw new NotFoundException("Country Not Found");
+        }
+        if (stateId != null && !stateRepository.existsById(stateId)) {
+            throw new NotFoundException("State Not Found");
+        }
+        if (cityId != null && !cityRepository.existsById(cityId)) {
+            throw new NotFoundException("City Not Found");
+        }
+    }
+
+    /**
+     * Streams the locations in scope to the output as they are read from the database cursor.
+     * The transaction keeps the cursor open for the duration of the export.
+     */
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, UUID countryId, UUID stateId, UUID cityId, OutputStream out) throws IOException {
+        logger.info("Exporting locations as {} (country: {}, state: {}, city: {})", format, countryId, stateId, cityId);
+
+        long written;
+        try (Stream<LocationResponse> rows = openStream(countryId, stateId, cityId)) {
+            written = switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), out);
+                case CSV -> writeCsv(rows.iterator(), out);
+                case GEOJSON -> writeGeoJson(rows.iterator(), out);
+            };
+        }
+
+        logger.info("Exported {} locations as {}", written, format);
+    }
+
+    private Stream<LocationResponse> openStream(UUID countryId, UUID stateId, UUID cityId) {
+        if (countryId != null) {
+            return locationRepository.streamByCountryForExport(countryId);
+        }
+        if (stateId != null) {
+            return locationRepository.streamByStateForExport(stateId);
+        }
+        if (cityId != null) {
+            return locationRepository.streamByCityForExport(cityId);
+        }
+        return locationRepository.streamAllForExport();
+    }
+
+    private long writeNdjson(Iterator<LocationResponse> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            while (rows.hasNext()) {
+                generator.writeObject(rows.next());
+                generator.writeRaw('\n');
+                flushIfDue(generator, ++count);
+            }
+        }
+        return count;
+    }
+
+    private long writeGeoJson(Iterator<LocationResponse> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+            while (rows.hasNext()) {
+                LocationResponse row = rows.next();
+                generator.writeStartObject();
+                generator.writeStringField("type", "Feature");
+                generator.writeStringField("id", String.valueOf(row.getId()));
+
+                // GeoJSON positions are [longitude, latitude]
+                generator.writeObjectFieldStart("geometry");
+                generator.writeStringField("type", "Point");
+                generator.writeArrayFieldStart("coordinates");
+                generator.writeNumber(row.getLongitude());
+                generator.writeNumber(row.getLatitude());
+                generator.writeEndArray();
+                generator.writeEndObject();
+
+                generator.writeObjectFieldStart("properties");
+                generator.writeStringField("houseAddress", row.getHouseAddress());
+                generator.writeStringField("streetName", row.getStreetName());
+                generator.writeStringField("freeText", row.getFreeText());
+                generator.writeStringField("areaName", row.getAreaName());
+                generator.writeStringField("cityName", row.getCityName());
+                generator.writeStringField("stateName", row.getStateName());
+                generator.writeStringField("countryName", row.getCountryName());
+                generator.writeEndObject();
+
+                generator.writeEndObject();
+                flushIfDue(generator, ++count);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<LocationResponse> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,houseAddress,streetName,freeText,latitude,longitude,areaName,cityName,stateName,countryName\n");
+        while (rows.hasNext()) {
+            LocationResponse row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writeCsvField(writer, row.getHouseAddress());
+            writer.write(',');
+            writeCsvField(writer, row.getStreetName());
+            writer.write(',');
+            writeCsvField(writer, row.getFreeText());
+            writer.write(',');
+            writer.write(Double.toString(row.getLatitude()));
+            writer.write(',');
+            writer.write(Double.toString(row.getLongitude()));
+            writer.write(',');
+            writeCsvField(writer, row.getAreaName());
+            writer.write(',');
+            writeCsvField(writer, row.getCityName());
+            writer.write(',');
+            writeCsvField(writer, row.getStateName());
+            writer.write(',');
+            writeCsvField(writer, row.getCountryName());
+            writer.write('\n');
+
+            count++;
+            if (count == 1 || count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Quotes a field only when it contains a delimiter, quote or line break (RFC 4180)
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuoting = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuoting) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // The servlet container owns the response stream, so the generator must not close it
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setCodec(objectMapper);
+        return generator;
+    }
+
+    private void flushIfDue(JsonGenerator generator, long count) throws IOException {
+        if (count == 1 || count % FLUSH_INTERVAL == 0) {
+            generator.flush();
+        }
+    }
+}
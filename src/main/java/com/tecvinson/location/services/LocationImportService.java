@@ -0,0 +1,512 @@
+package com.tecvinson.location.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.auth.TenantContext;
+import com.tecvinson.location.dtos.geocoding.PlaceMatch;
+import com.tecvinson.location.dtos.location.CreateLocationRequest;
+import com.tecvinson.location.dtos.location.ImportFormat;
+import com.tecvinson.location.dtos.location.ImportJobResponse;
+import com.tecvinson.location.dtos.location.ImportRowError;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.LocationSavedEvent;
+import com.tecvinson.location.exceptions.BadRequestException;
+import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.mappers.LocationMapper;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.LocationRepository;
+import com.tecvinson.location.spatial.BoundaryIndex;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk location import. The upload is spooled to a temporary file and imported in the background, so the request
+ * returns at once with a job to poll. Rows are parsed and validated in memory, their area ids are checked against
+ * the gazetteer instead of the database, and each chunk is stored in its own transaction with Hibernate sending
+ * the inserts as JDBC batches. A bad row is reported and skipped; it never fails the rest of the file.
+ */
+@Service
+public class LocationImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationImportService.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("houseAddress", "streetName", "freeText", "latitude", "longitude", "areaId");
+
+    private final LocationRepository locationRepository;
+    private final AreaRepository areaRepository;
+    private final LocationMapper locationMapper;
+    private final GazetteerIndex gazetteerIndex;
+    private final BoundaryIndex boundaryIndex;
+    private final TenantContext tenantContext;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final long retentionMinutes;
+    private final ExecutorService executor;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public LocationImportService(LocationRepository locationRepository, AreaRepository areaRepository,
+                                 LocationMapper locationMapper, GazetteerIndex gazetteerIndex, BoundaryIndex boundaryIndex,
+                                 TenantContext tenantContext, Validator validator, ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                                 @Value("${location.import.chunk-size:5000}") int chunkSize,
+                                 @Value("${location.import.max-reported-errors:10000}") int maxReportedErrors,
+                                 @Value("${location.import.retention-minutes:60}") long retentionMinutes,
+                                 @Value("${location.import.threads:2}") int threads) {
+        this.locationRepository = locationRepository;
+        this.areaRepository = areaRepository;
+        this.locationMapper = locationMapper;
+        this.gazetteerIndex = gazetteerIndex;
+        this.boundaryIndex = boundaryIndex;
+        this.tenantContext = tenantContext;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.retentionMinutes = retentionMinutes;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "location-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Spools the upload and queues its import.
+     * @return The new job; its id is what the progress and error reports are fetched by.
+     */
+    public ImportJobResponse startImport(MultipartFile file, ImportFormat format) {
+        UUID tenantId = tenantContext.requireTenant().getId();
+        if (file.isEmpty()) {
+            throw new BadRequestException("Uploaded file is empty");
+        }
+        removeExpiredJobs();
+
+        Path spooled;
+        try {
+            spooled = Files.createTempFile("location-import-", "." + format.getFileExtension());
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read the uploaded file");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID(), tenantId, format);
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job, spooled));
+
+        logger.info("Queued import {} of {} ({} bytes)", job.id, format, file.getSize());
+        return job.toResponse();
+    }
+
+    public ImportJobResponse getJob(UUID id) {
+        return findJob(id).toResponse();
+    }
+
+    // The rows rejected so far, in file order; the import may still be running
+    public List<ImportRowError> getErrors(UUID id) {
+        return findJob(id).errorsSoFar();
+    }
+
+    // Writes the rejected rows as NDJSON, one error per line
+    public void writeErrors(List<ImportRowError> errors, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setCodec(objectMapper);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        for (ImportRowError error : errors) {
+            generator.writeObject(error);
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    // A job is only visible to the tenant that started it
+    private ImportJob findJob(UUID id) {
+        UUID tenantId = tenantContext.requireTenant().getId();
+        ImportJob job = jobs.get(id);
+        if (job == null || !job.tenantId.equals(tenantId)) {
+            throw new NotFoundException("Import not found");
+        }
+        return job;
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(ImportJob job, Path spooled) {
+        long start = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(spooled, StandardCharsets.UTF_8)) {
+            RowReader rows = job.format == ImportFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            Row row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            importChunk(job, chunk);
+            job.finish(ImportJobResponse.Status.COMPLETED, null);
+        } catch (Exception e) {
+            logger.error("Import {} failed after {} rows", job.id, job.rowsRead, e);
+            job.finish(ImportJobResponse.Status.FAILED, e instanceof BadRequestException ? e.getMessage() : "Import failed: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled import file {}", spooled, e);
+            }
+        }
+        logger.info("Import {} finished in {} ms: {} rows read, {} imported, {} rejected",
+                job.id, System.currentTimeMillis() - start, job.rowsRead, job.imported, job.rejected);
+    }
+
+    private void importChunk(ImportJob job, List<Row> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        job.rowsRead += chunk.size();
+
+        // Validation and area resolution need no database access, so a chunk only opens a transaction to insert
+        Gazetteer gazetteer = gazetteerIndex.current();
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String error = row.error != null ? row.error : resolve(row, gazetteer);
+            if (error != null) {
+                job.reject(row.line, error, maxReportedErrors);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // The area ids are known to exist, so references stand in for them without a select each
+                Map<UUID, Area> areas = new HashMap<>();
+                List<Location> locations = new ArrayList<>(valid.size());
+                for (Row row : valid) {
+                    Location location = locationMapper.toEntity(row.request);
+                    location.setArea(areas.computeIfAbsent(row.request.getAreaId(), areaRepository::getReferenceById));
+                    location.setCreatedBy("SYSTEM");
+                    location.setModifiedBy("SYSTEM");
+                    locations.add(location);
+                }
+                locationRepository.saveAll(locations);
+                locations.forEach(location -> eventPublisher.publishEvent(LocationSavedEvent.of(location)));
+            });
+            job.imported += valid.size();
+        } catch (RuntimeException e) {
+            // The chunk was rolled back as a whole, so every row of it is reported
+            logger.warn("Import {}: a chunk of {} rows could not be stored", job.id, valid.size(), e);
+            String error = "Could not be stored: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            valid.forEach(row -> job.reject(row.line, error, maxReportedErrors));
+        }
+    }
+
+    // Validates the row like POST /locations and settles its area; returns the error, or null if the row is good.
+    // The request annotates both fields and getters, so the same message can come back twice
+    private String resolve(Row row, Gazetteer gazetteer) {
+        CreateLocationRequest request = row.request;
+        Set<ConstraintViolation<CreateLocationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).distinct().sorted().collect(Collectors.joining("; "));
+        }
+
+        if (request.getAreaId() == null) {
+            List<PlaceMatch> containing = boundaryIndex.containingAreas(request.getLatitude(), request.getLongitude());
+            if (containing.isEmpty()) {
+                return "No Area boundary contains the coordinates; provide an Area ID";
+            }
+            request.setAreaId(containing.get(0).getId());
+        } else if (gazetteer.indexOf(request.getAreaId(), PlaceType.AREA) == Gazetteer.NONE) {
+            return "Area not Found";
+        }
+        return null;
+    }
+
+    // One parsed row; exactly one of request and error is set
+    private record Row(long line, CreateLocationRequest request, String error) {
+    }
+
+    private interface RowReader {
+        // The next row, or null at the end of the file
+        Row next() throws IOException;
+    }
+
+    // One JSON object per line, with the fields of CreateLocationRequest
+    private final class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new Row(lineNumber, objectMapper.readValue(line, CreateLocationRequest.class), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row naming the columns, matched case-insensitively: houseAddress, streetName,
+     * freeText, latitude, longitude and the optional areaId. Other columns are ignored, so an export can be
+     * imported again. Quoted fields may contain delimiters, quotes and line breaks.
+     */
+    private static final class CsvRowReader implements RowReader {
+
+        private final Reader reader;
+        private final int[] columns = new int[CSV_COLUMNS.size()];
+        private long lineNumber = 1;
+        private int pushedBack = -2;
+
+        CsvRowReader(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new BadRequestException("The CSV file has no header row");
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = -1;
+                for (int column = 0; column < header.size(); column++) {
+                    if (header.get(column).trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                        columns[i] = column;
+                    }
+                }
+            }
+            for (String required : List.of("houseAddress", "streetName", "latitude", "longitude")) {
+                if (columns[CSV_COLUMNS.indexOf(required)] < 0) {
+                    throw new BadRequestException("The CSV header has no " + required + " column");
+                }
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> record;
+            long line;
+            do {
+                line = lineNumber;
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            CreateLocationRequest request = new CreateLocationRequest();
+            request.setHouseAddress(field(record, "houseAddress"));
+            request.setStreetName(field(record, "streetName"));
+            request.setFreeText(field(record, "freeText"));
+            try {
+                request.setLatitude(Double.parseDouble(required(record, "latitude")));
+                request.setLongitude(Double.parseDouble(required(record, "longitude")));
+            } catch (NumberFormatException e) {
+                return new Row(line, null, "Invalid coordinates");
+            }
+            String areaId = field(record, "areaId");
+            if (areaId != null) {
+                try {
+                    request.setAreaId(UUID.fromString(areaId));
+                } catch (IllegalArgumentException e) {
+                    return new Row(line, null, "Invalid Area ID");
+                }
+            }
+            return new Row(line, request, null);
+        }
+
+        // The trimmed value of a column, null when the column is missing or empty
+        private String field(List<String> record, String name) {
+            int column = columns[CSV_COLUMNS.indexOf(name)];
+            if (column < 0 || column >= record.size()) {
+                return null;
+            }
+            String value = record.get(column).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private String required(List<String> record, String name) {
+            String value = field(record, name);
+            if (value == null) {
+                throw new NumberFormatException();
+            }
+            return value;
+        }
+
+        // Reads one record, or null at the end of the input
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new BadRequestException("Unterminated quoted field starting before line " + lineNumber);
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            lineNumber++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pushedBack = following;
+                        }
+                    }
+                    if (c != -1) {
+                        lineNumber++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+
+    // Progress of one import; written by its worker thread only, read by any request thread
+    private static final class ImportJob {
+
+        final UUID id;
+        final UUID tenantId;
+        final ImportFormat format;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final List<ImportRowError> errors = new ArrayList<>();
+        volatile long rowsRead;
+        volatile long imported;
+        volatile long rejected;
+        volatile ImportJobResponse.Status status = ImportJobResponse.Status.RUNNING;
+        volatile LocalDateTime finishedAt;
+        volatile String message;
+
+        ImportJob(UUID id, UUID tenantId, ImportFormat format) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.format = format;
+        }
+
+        // Counts every rejected row but keeps only the first maxReported of them
+        void reject(long line, String error, int maxReported) {
+            rejected++;
+            synchronized (errors) {
+                if (errors.size() < maxReported) {
+                    errors.add(new ImportRowError(line, error));
+                }
+            }
+        }
+
+        List<ImportRowError> errorsSoFar() {
+            synchronized (errors) {
+                return new ArrayList<>(errors);
+            }
+        }
+
+        void finish(ImportJobResponse.Status status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        ImportJobResponse toResponse() {
+            return new ImportJobResponse(id, format, status, rowsRead, imported, rejected, startedAt, finishedAt, message);
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package com.tecvinson.location.services;
 
+import com.tecvinson.location.dtos.geocoding.PlaceMatch;
 import com.tecvinson.location.dtos.location.CreateLocationRequest;
 import com.tecvinson.location.dtos.location.LocationResponse;
+import com.tecvinson.location.dtos.location.NearbyLocationResponse;
 import com.tecvinson.location.dtos.location.UpdateLocationRequest;
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.entities.*;
+import com.tecvinson.location.events.LocationSavedEvent;
+import com.tecvinson.location.exceptions.BadRequestException;
 import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.mappers.LocationMapper;
 import com.tecvinson.location.repositories.*;
-import org.modelmapper.ModelMapper;
+import com.tecvinson.location.search.AddressSearchIndex;
+import com.tecvinson.location.spatial.AreaPath;
+import com.tecvinson.location.spatial.BoundaryIndex;
+import com.tecvinson.location.spatial.GeoGridIndex;
+import com.tecvinson.location.spatial.GeoMath;
+import com.tecvinson.location.spatial.LocationSpatialIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 
@@ -22,42 +38,60 @@ public class LocationService {
 
     public static final Logger logger = LoggerFactory.getLogger(LocationService.class);
 
-    private final ModelMapper modelMapper;
+    private final LocationMapper locationMapper;
     private final LocationRepository locationRepository;
     private final AreaRepository areaRepository;
     private  final CityRepository cityRepository;
     private  final StateRepository stateRepository;
     private  final CountryRepository countryRepository;
-
-    public LocationService(ModelMapper modelMapper, LocationRepository locationRepository, AreaRepository areaRepository, CityRepository cityRepository, StateRepository stateRepository, CountryRepository countryRepository) {
-        this.modelMapper = modelMapper;
+    private final PaginationService paginationService;
+    private final LocationSpatialIndex locationSpatialIndex;
+    private final BoundaryIndex boundaryIndex;
+    private final AddressSearchIndex addressSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LocationService(LocationMapper locationMapper, LocationRepository locationRepository, AreaRepository areaRepository, CityRepository cityRepository, StateRepository stateRepository, CountryRepository countryRepository, PaginationService paginationService, LocationSpatialIndex locationSpatialIndex, BoundaryIndex boundaryIndex, AddressSearchIndex addressSearchIndex, ApplicationEventPublisher eventPublisher) {
+        this.locationMapper = locationMapper;
         this.locationRepository = locationRepository;
         this.areaRepository = areaRepository;
         this.cityRepository = cityRepository;
         this.stateRepository = stateRepository;
         this.countryRepository = countryRepository;
+        this.paginationService = paginationService;
+        this.locationSpatialIndex = locationSpatialIndex;
+        this.boundaryIndex = boundaryIndex;
+        this.addressSearchIndex = addressSearchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
 
     public LocationResponse createLocation(CreateLocationRequest locationRequest) {
         logger.info("Creating a Location");
 
-        Area area = areaRepository.findById(locationRequest.getAreaId())
+        UUID areaId = locationRequest.getAreaId();
+        if (areaId == null) {
+            // Coordinates only: take the most specific area whose boundary contains them
+            List<PlaceMatch> containing = boundaryIndex.containingAreas(locationRequest.getLatitude(), locationRequest.getLongitude());
+            if (containing.isEmpty()) {
+                throw new BadRequestException("No Area boundary contains the coordinates; provide an Area ID");
+            }
+            areaId = containing.get(0).getId();
+            logger.info("Resolved Area {} from coordinates", areaId);
+        }
+
+        Area area = areaRepository.findById(areaId)
                 .orElseThrow(() -> new NotFoundException("Area not Found"));
 
-        Location location = modelMapper.map(locationRequest, Location.class);
+        Location location = locationMapper.toEntity(locationRequest);
         location.setArea(area);
         location.setCreatedBy("SYSTEM");
         location.setModifiedBy("SYSTEM");
         location = locationRepository.save(location);
 
         logger.info("Location with Id {} created", location.getId());
+        eventPublisher.publishEvent(LocationSavedEvent.of(location));
 
-        LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-        locationResponse.setCityName(location.getArea().getCity().getName());
-        locationResponse.setStateName(location.getArea().getCity().getState().getName());
-        locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-        return locationResponse;
+        return locationMapper.toResponse(location);
     }
 
 
@@ -71,42 +105,32 @@ public class LocationService {
                 orElseThrow(() -> new NotFoundException("Location not Found"));
 
         location.setHouseAddress(locationRequest.getHouseAddress());
-        location.setStreetName(location.getStreetName());
+        location.setStreetName(locationRequest.getStreetName());
+        location.setFreeText(locationRequest.getFreeText());
         location.setArea(area);
         location.setCreatedBy("SYSTEM");
         location.setModifiedBy("SYSTEM");
         location.setLatitude(locationRequest.getLatitude());
         location.setLongitude(locationRequest.getLongitude());
 
-        LocationResponse locationResponse = modelMapper.map(locationRepository.save(location), LocationResponse.class);
-        locationResponse.setCityName(location.getArea().getCity().getName());
-        locationResponse.setStateName(location.getArea().getCity().getState().getName());
-        locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-        return locationResponse;
+        location = locationRepository.save(location);
+        eventPublisher.publishEvent(LocationSavedEvent.of(location));
+
+        return locationMapper.toResponse(location);
     }
 
-    public List<LocationResponse> getLocations() {
-        logger.info("Retrieving all locations");
+    public CursorPage<LocationResponse> getLocations(String cursor, Integer size) {
+        logger.info("Retrieving a page of locations");
 
-        List<Location> locations = locationRepository.findAll();
-        if (locations.isEmpty()) {
-            logger.warn("No location found in the database");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} Locations in the database", locations.size());
-
-
-            return locations.stream()
-                    .map(location -> {
-                        LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-                        locationResponse.setAreaName(location.getArea().getName());
-                        locationResponse.setCityName(location.getArea().getCity().getName());
-                        locationResponse.setStateName(location.getArea().getCity().getState().getName());
-                        locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-                        return locationResponse;
-                    })
-                    .collect(Collectors.toList());
-        }
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+
+        // Seek past the cursor on the (dateCreated, id) index rather than reading the whole table
+        List<Location> locations = after == null
+                ? locationRepository.findFirstPage(paginationService.limit(pageSize))
+                : locationRepository.findPageAfter(after.dateCreated(), after.id(), paginationService.limit(pageSize));
+
+        return paginationService.toPage(locations, pageSize, locationMapper::toResponse);
     }
 
     public LocationResponse getLocation(UUID id) {
@@ -115,12 +139,7 @@ public class LocationService {
         Location location = locationRepository.findById(id)
                 .orElseThrow(()-> new NotFoundException("Location Not found"));
 
-        LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-        locationResponse.setAreaName(location.getArea().getName());
-        locationResponse.setCityName(location.getArea().getCity().getName());
-        locationResponse.setStateName(location.getArea().getCity().getState().getName());
-        locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-        return locationResponse;
+        return locationMapper.toResponse(location);
     }
 
 
@@ -130,26 +149,14 @@ public class LocationService {
         Country country = countryRepository.findById(countryId)
                 .orElseThrow(() -> new NotFoundException("Country Not Found"));
 
-        List <Location> allLocations = locationRepository.findAll();
-        if (allLocations.isEmpty()) {
-            logger.warn("No Country Found in The Database");
+        List<Location> locations = locationRepository.findAllUnder(country.getId());
+        if (locations.isEmpty()) {
+            logger.warn("No Location Found in Country: {}", country.getName());
             return Collections.emptyList();
         }
 
-        List<Location> filteredLocations = allLocations.stream().filter(
-                location -> location.getArea().getCity().getState().getCountry().getId().equals(countryId))
-                .toList();
-
-
-        return filteredLocations.stream()
-                .map(location -> {
-                    LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-                    locationResponse.setAreaName(location.getArea().getName());
-                    locationResponse.setCityName(location.getArea().getCity().getName());
-                    locationResponse.setStateName(location.getArea().getCity().getState().getName());
-                    locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-                    return locationResponse;
-                })
+        return locations.stream()
+                .map(locationMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -159,25 +166,14 @@ public class LocationService {
         State states = stateRepository.findById(stateId)
                 .orElseThrow(()-> new NotFoundException("State Not Found"));
 
-        List <Location> allLocations = locationRepository.findAll();
-        if (allLocations.isEmpty()){
-            logger.warn("No Location Found in The Database");
+        List<Location> locations = locationRepository.findAllUnder(states.getId());
+        if (locations.isEmpty()){
+            logger.warn("No Location Found in State: {}", states.getName());
             return Collections.emptyList();
         }
 
-        List<Location> filteredLocations = allLocations.stream().filter(
-                location -> location.getArea().getCity().getState().getId().equals(stateId))
-                .toList();
-
-        return filteredLocations.stream()
-                .map(location -> {
-                    LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-                    locationResponse.setAreaName(location.getArea().getName());
-                    locationResponse.setCityName(location.getArea().getCity().getName());
-                    locationResponse.setStateName(location.getArea().getCity().getState().getName());
-                    locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-                    return locationResponse;
-                })
+        return locations.stream()
+                .map(locationMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -187,82 +183,123 @@ public class LocationService {
         City cities = cityRepository.findById(cityId)
                 .orElseThrow(()-> new NotFoundException("No city Found"));
 
-        List<Location> allLocation = locationRepository.findAll();
-        if (allLocation.isEmpty()){
-            logger.warn("No Location Found in The Database");
+        List<Location> locations = locationRepository.findAllUnder(cities.getId());
+        if (locations.isEmpty()){
+            logger.warn("No Location Found in City: {}", cities.getName());
             return Collections.emptyList();
         }
 
-        List<Location> filteredLocations = allLocation.stream().filter(
-                location -> location.getArea().getCity().getId().equals(cityId))
-                .toList();
-
-        return filteredLocations.stream()
-                .map(location -> {
-                    LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-                    locationResponse.setAreaName(location.getArea().getName());
-                    locationResponse.setCityName(location.getArea().getCity().getName());
-                    locationResponse.setStateName(location.getArea().getCity().getState().getName());
-                    locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-                    return locationResponse;
-                })
+        return locations.stream()
+                .map(locationMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     public List<LocationResponse> getLocationByArea(UUID areaId) {
         logger.info("Retrieving All Locations in an Area with Id: {},", areaId);
 
-        List<Area> areas = areaRepository.findAll();
-        if (areas.isEmpty()){
-            logger.warn("No Area Found in The Database");
-            return Collections.emptyList();
-        }
+        Area area = areaRepository.findById(areaId)
+                .orElseThrow(()-> new NotFoundException("Area not Found"));
 
-        List<Location> allLocation = locationRepository.findAll();
-        if (allLocation.isEmpty()){
-            logger.warn("No Location Found in The Database");
+        List<Location> locations = locationRepository.findByAreaId(area.getId());
+        if (locations.isEmpty()){
+            logger.warn("No Location Found in Area: {}", area.getName());
             return Collections.emptyList();
         }
 
-        List<Location> filteredLocations = allLocation.stream().filter(
-                        location -> location.getArea().getId().equals(areaId))
-                .toList();
-
-        return filteredLocations.stream()
-                .map(location -> {
-                    LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-                    locationResponse.setAreaName(location.getArea().getName());
-                    locationResponse.setCityName(location.getArea().getCity().getName());
-                    locationResponse.setStateName(location.getArea().getCity().getState().getName());
-                    locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-                    return locationResponse;
-                })
+        return locations.stream()
+                .map(locationMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
-    public List<LocationResponse> getBySearch(String searchTerm) {
+    /**
+     * Ranks the locations whose house address, street name or free text contain every term of the search,
+     * using the in-memory address index, and loads only the rows of the requested page.
+     */
+    public CursorPage<LocationResponse> getBySearch(String searchTerm, String cursor, Integer size) {
         logger.info("Retrieving Locations matching search term: {}", searchTerm);
 
-        List<Location> locations = locationRepository.findByHouseAddressOrStreetName(searchTerm);
-        if (locations.isEmpty()) {
-            logger.warn("No Locations found for '{}'", searchTerm);
+        int pageSize = paginationService.resolvePageSize(size);
+        int offset = paginationService.decodeOffsetCursor(cursor);
+
+        List<AddressSearchIndex.Hit> hits = addressSearchIndex.search(searchTerm);
+        if (offset >= hits.size()) {
+            if (hits.isEmpty()) {
+                logger.warn("No Locations found for '{}'", searchTerm);
+            }
+            return new CursorPage<>(Collections.emptyList(), null, 0);
+        }
+
+        logger.info("Found {} location(s) for '{}'", hits.size(), searchTerm);
+
+        int end = Math.min(offset + pageSize, hits.size());
+        List<UUID> ids = hits.subList(offset, end).stream().map(AddressSearchIndex.Hit::id).toList();
+        Map<UUID, LocationResponse> responses = locationRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(LocationResponse::getId, Function.identity()));
+
+        List<LocationResponse> items = ids.stream().map(responses::get).filter(Objects::nonNull).toList();
+        String nextCursor = end < hits.size() ? paginationService.encodeOffsetCursor(end) : null;
+        return new CursorPage<>(items, nextCursor, items.size());
+    }
+
+    /**
+     * Finds the locations closest to a point through the in-memory spatial index, optionally limited to a radius
+     * and to an area, city, state or country. Only the matching rows are then read from the database.
+     */
+    public List<NearbyLocationResponse> getNearbyLocations(double latitude, double longitude, Double radiusKm, Integer limit,
+                                                           UUID areaId, UUID cityId, UUID stateId, UUID countryId) {
+        logger.info("Retrieving Locations near {}, {} within {} km", latitude, longitude, radiusKm);
+
+        if (!GeoMath.isValidCoordinate(latitude, longitude)) {
+            throw new BadRequestException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new BadRequestException("Radius must be greater than 0");
+        }
+        int resultLimit = paginationService.resolvePageSize(limit);
+
+        Predicate<AreaPath> scope = path -> (areaId == null || areaId.equals(path.areaId()))
+                && (cityId == null || cityId.equals(path.cityId()))
+                && (stateId == null || stateId.equals(path.stateId()))
+                && (countryId == null || countryId.equals(path.countryId()));
+
+        List<GeoGridIndex.Neighbour> neighbours = locationSpatialIndex.nearest(latitude, longitude, resultLimit,
+                radiusKm == null ? Double.MAX_VALUE : radiusKm, scope);
+        if (neighbours.isEmpty()) {
+            logger.warn("No Locations found near {}, {}", latitude, longitude);
             return Collections.emptyList();
         }
 
-        logger.info("Found {} location(s) for '{}'", locations.size(), searchTerm);
+        // Load the matched rows in one statement and return them in distance order
+        List<UUID> ids = neighbours.stream().map(neighbour -> neighbour.point().id()).toList();
+        Map<UUID, LocationResponse> responses = locationRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(LocationResponse::getId, Function.identity()));
 
-        return locations.stream()
-                .map(location -> {
-                    LocationResponse locationResponse = modelMapper.map(location, LocationResponse.class);
-                    locationResponse.setAreaName(location.getArea().getName());
-                    locationResponse.setCityName(location.getArea().getCity().getName());
-                    locationResponse.setStateName(location.getArea().getCity().getState().getName());
-                    locationResponse.setCountryName(location.getArea().getCity().getState().getCountry().getName());
-                    return locationResponse;
+        return neighbours.stream()
+                .map(neighbour -> {
+                    LocationResponse locationResponse = responses.get(neighbour.point().id());
+                    return locationResponse == null ? null : new NearbyLocationResponse(locationResponse, neighbour.distanceKm());
                 })
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the locations inside a map viewport. The box is answered from ranges of the indexed geohash column;
+     * a box whose minLng is greater than its maxLng crosses the antimeridian.
+     */
+    public List<LocationResponse> getLocationsWithin(double minLat, double minLng, double maxLat, double maxLng, Integer limit) {
+        logger.info("Retrieving Locations within [{}, {}] - [{}, {}]", minLat, minLng, maxLat, maxLng);
 
+        if (!GeoMath.isValidCoordinate(minLat, minLng) || !GeoMath.isValidCoordinate(maxLat, maxLng)) {
+            throw new BadRequestException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        if (minLat > maxLat) {
+            throw new BadRequestException("minLat must not be greater than maxLat");
+        }
+        int resultLimit = paginationService.resolvePageSize(limit);
 
+        List<LocationResponse> locations = locationRepository.findWithinBoundingBox(minLat, minLng, maxLat, maxLng, resultLimit);
+        logger.info("Found {} location(s) within the bounding box", locations.size());
+        return locations;
+    }
 }
@@ -0,0 +1,125 @@
+package com.tecvinson.location.services;
+
+import com.tecvinson.location.dtos.page.CursorPage;
+import com.tecvinson.location.entities.CommonFields;
+import com.tecvinson.location.exceptions.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+@Service
+public class PaginationService {
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public PaginationService(@Value("${pagination.default-page-size:20}") int defaultPageSize,
+                             @Value("${pagination.max-page-size:100}") int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Position of the last row of a page on the (dateCreated, id) sort key
+    public record Cursor(LocalDateTime dateCreated, UUID id) {
+    }
+
+    // Applies the default page size and caps the requested one
+    public int resolvePageSize(Integer requestedSize) {
+        if (requestedSize == null) {
+            return defaultPageSize;
+        }
+        if (requestedSize < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        return Math.min(requestedSize, maxPageSize);
+    }
+
+    // Fetches one row more than the page size so the next cursor is only issued when more rows exist
+    public Pageable limit(int pageSize) {
+        return PageRequest.ofSize(pageSize + 1);
+    }
+
+    public Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encodeCursor(CommonFields entity) {
+        return encodeCursor(entity.getDateCreated(), entity.getId());
+    }
+
+    public String encodeCursor(LocalDateTime dateCreated, UUID id) {
+        String raw = dateCreated + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Ranked results have no stable sort key, so their cursor carries the offset of the next page instead
+    public int decodeOffsetCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encodeOffsetCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Trims the look-ahead row, maps the page and computes the cursor of the following page
+    public <E extends CommonFields, R> CursorPage<R> toPage(List<E> rows, int pageSize, Function<E, R> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(pageRows.get(pageRows.size() - 1)) : null;
+
+        List<R> items = pageRows.stream().map(mapper).toList();
+        return new CursorPage<>(items, nextCursor, items.size());
+    }
+
+    // The same for rows addressed by int slots of an in-memory index; sortKey gives the cursor of a slot
+    public <R> CursorPage<R> toPage(int[] slots, int pageSize, IntFunction<Cursor> sortKey, IntFunction<R> mapper) {
+        boolean hasMore = slots.length > pageSize;
+        int count = hasMore ? pageSize : slots.length;
+        String nextCursor = null;
+        if (hasMore) {
+            Cursor last = sortKey.apply(slots[count - 1]);
+            nextCursor = encodeCursor(last.dateCreated(), last.id());
+        }
+
+        List<R> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(mapper.apply(slots[i]));
+        }
+        return new CursorPage<>(items, nextCursor, items.size());
+    }
+}
@@ -0,0 +1,164 @@
+package com.tecvinson.location.services;
+
+import com.tecvinson.location.entities.PlaceClosure;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.ContinentRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.PlaceClosureRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import com.tecvinson.location.search.PlaceName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains the place closure table. The hierarchy services call it inside their own transaction whenever a
+ * place is created or moved under another parent, so descendant queries never see a half-applied change.
+ */
+@Service
+public class PlaceClosureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceClosureService.class);
+
+    // Ids bound per IN list when unlinking a moved subtree, and rows written per backfill transaction
+    private static final int BATCH_SIZE = 1000;
+
+    private final PlaceClosureRepository placeClosureRepository;
+    private final ContinentRepository continentRepository;
+    private final CountryRepository countryRepository;
+    private final StateRepository stateRepository;
+    private final CityRepository cityRepository;
+    private final AreaRepository areaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PlaceClosureService(PlaceClosureRepository placeClosureRepository, ContinentRepository continentRepository,
+                               CountryRepository countryRepository, StateRepository stateRepository,
+                               CityRepository cityRepository, AreaRepository areaRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.placeClosureRepository = placeClosureRepository;
+        this.continentRepository = continentRepository;
+        this.countryRepository = countryRepository;
+        this.stateRepository = stateRepository;
+        this.cityRepository = cityRepository;
+        this.areaRepository = areaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Links a newly created place to itself and to every ancestor of its parent.
+     * @param parentId The id of the place directly above it, or null for a continent.
+     */
+    @Transactional
+    public void addPlace(PlaceType type, UUID id, UUID parentId) {
+        List<PlaceClosure> rows = new ArrayList<>();
+        rows.add(new PlaceClosure(id, type, id, type, 0));
+        if (parentId != null) {
+            for (PlaceClosure ancestor : placeClosureRepository.findByDescendantId(parentId)) {
+                rows.add(new PlaceClosure(ancestor.getAncestorId(), ancestor.getAncestorType(), id, type, ancestor.getDepth() + 1));
+            }
+        }
+        placeClosureRepository.saveAll(rows);
+    }
+
+    /**
+     * Moves a place, and everything under it, below a new parent: the links from its old ancestors to the
+     * subtree are dropped and the subtree is linked to every ancestor of the new parent.
+     */
+    @Transactional
+    public void movePlace(PlaceType type, UUID id, UUID newParentId) {
+        List<PlaceClosure> subtree = placeClosureRepository.findByAncestorId(id);
+        if (subtree.isEmpty()) {
+            // Saved before the closure table existed and not backfilled yet
+            addPlace(type, id, newParentId);
+            return;
+        }
+
+        List<UUID> oldAncestorIds = placeClosureRepository.findStrictAncestorIds(id);
+        if (!oldAncestorIds.isEmpty()) {
+            List<UUID> descendantIds = subtree.stream().map(PlaceClosure::getDescendantId).toList();
+            for (int from = 0; from < descendantIds.size(); from += BATCH_SIZE) {
+                placeClosureRepository.deleteLinks(oldAncestorIds,
+                        descendantIds.subList(from, Math.min(from + BATCH_SIZE, descendantIds.size())));
+            }
+        }
+
+        List<PlaceClosure> newAncestors = placeClosureRepository.findByDescendantId(newParentId);
+        List<PlaceClosure> rows = new ArrayList<>(newAncestors.size() * subtree.size());
+        for (PlaceClosure ancestor : newAncestors) {
+            for (PlaceClosure descendant : subtree) {
+                rows.add(new PlaceClosure(ancestor.getAncestorId(), ancestor.getAncestorType(),
+                        descendant.getDescendantId(), descendant.getDescendantType(),
+                        ancestor.getDepth() + descendant.getDepth() + 1));
+            }
+        }
+        placeClosureRepository.saveAll(rows);
+
+        logger.info("Moved {} {} and {} place(s) under it below {}", type, id, subtree.size() - 1, newParentId);
+    }
+
+    /**
+     * Adds the places saved before the closure table existed, top-down so that every parent chain is
+     * resolved from the live parent links. Places already in the table are left as they are.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long start = System.currentTimeMillis();
+
+        List<PlaceClosure> rows = transactionTemplate.execute(status -> {
+            Set<UUID> linked = new HashSet<>(placeClosureRepository.findAllPlaceIds());
+
+            Map<UUID, PlaceName> places = new HashMap<>();
+            Map<UUID, PlaceType> types = new HashMap<>();
+            continentRepository.findAll().forEach(continent ->
+                    put(places, types, PlaceType.CONTINENT, new PlaceName(continent.getId(), continent.getName(), null)));
+            countryRepository.findAllPlaceNames().forEach(place -> put(places, types, PlaceType.COUNTRY, place));
+            stateRepository.findAllPlaceNames().forEach(place -> put(places, types, PlaceType.STATE, place));
+            cityRepository.findAllPlaceNames().forEach(place -> put(places, types, PlaceType.CITY, place));
+            areaRepository.findAllPlaceNames().forEach(place -> put(places, types, PlaceType.AREA, place));
+
+            List<PlaceClosure> missing = new ArrayList<>();
+            for (PlaceName place : places.values()) {
+                if (linked.contains(place.id())) {
+                    continue;
+                }
+                PlaceType type = types.get(place.id());
+                missing.add(new PlaceClosure(place.id(), type, place.id(), type, 0));
+                int depth = 1;
+                for (UUID ancestorId = place.parentId(); ancestorId != null && places.containsKey(ancestorId);
+                     ancestorId = places.get(ancestorId).parentId(), depth++) {
+                    missing.add(new PlaceClosure(ancestorId, types.get(ancestorId), place.id(), type, depth));
+                }
+            }
+            return missing;
+        });
+
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<PlaceClosure> batch = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+            transactionTemplate.executeWithoutResult(status -> placeClosureRepository.saveAll(batch));
+        }
+        logger.info("Backfilled {} place closure rows in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void put(Map<UUID, PlaceName> places, Map<UUID, PlaceType> types, PlaceType type, PlaceName place) {
+        places.put(place.id(), place);
+        types.put(place.id(), type);
+    }
+}
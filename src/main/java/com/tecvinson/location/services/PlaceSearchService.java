@@ -0,0 +1,75 @@
+package com.tecvinson.location.services;
+
+import com.tecvinson.location.dtos.place.FuzzyPlaceResult;
+import com.tecvinson.location.dtos.place.PlaceSuggestion;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.exceptions.BadRequestException;
+import com.tecvinson.location.search.PlaceAutocompleteIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class PlaceSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceSearchService.class);
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int DEFAULT_MAX_DISTANCE = 2;
+    private static final int MAX_DISTANCE = 3;
+
+    private final PlaceAutocompleteIndex placeAutocompleteIndex;
+    private final int maxFuzzyResults;
+
+    public PlaceSearchService(PlaceAutocompleteIndex placeAutocompleteIndex,
+                              @Value("${places.fuzzy.max-results:50}") int maxFuzzyResults) {
+        this.placeAutocompleteIndex = placeAutocompleteIndex;
+        this.maxFuzzyResults = maxFuzzyResults;
+    }
+
+    // Called on every keystroke, so it logs at debug level only
+    public List<PlaceSuggestion> autocomplete(String query, String type, Integer limit) {
+        logger.debug("Autocompleting '{}' (type: {})", query, type);
+
+        PlaceType placeType = parseType(type);
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        int resultLimit = Math.min(limit == null ? DEFAULT_LIMIT : limit, placeAutocompleteIndex.getTopK());
+
+        return placeAutocompleteIndex.complete(query, placeType, resultLimit);
+    }
+
+    public List<FuzzyPlaceResult> fuzzy(String query, String type, Integer limit, Integer maxDistance) {
+        logger.debug("Fuzzy place search for '{}' (type: {}, max distance: {})", query, type, maxDistance);
+
+        PlaceType placeType = parseType(type);
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        int distance = maxDistance == null ? DEFAULT_MAX_DISTANCE : maxDistance;
+        if (distance < 0 || distance > MAX_DISTANCE) {
+            throw new BadRequestException("Max distance must be between 0 and " + MAX_DISTANCE);
+        }
+        int resultLimit = Math.min(limit == null ? DEFAULT_LIMIT : limit, maxFuzzyResults);
+
+        return placeAutocompleteIndex.fuzzy(query, placeType, resultLimit, distance).stream()
+                .map(match -> new FuzzyPlaceResult(match.place(), match.distance()))
+                .toList();
+    }
+
+    private static PlaceType parseType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return PlaceType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported place type: " + type);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.tecvinson.location.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.exceptions.BadRequestException;
+import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/**
+ * The continent -> country -> state -> city -> area tree as nested JSON. It is walked straight off the gazetteer
+ * snapshot, which was loaded with one query per level and links every place to its children, so writing n places
+ * visits each of them once and needs no database access at all.
+ */
+@Service
+public class PlaceTreeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceTreeService.class);
+
+    // Places written between explicit flushes; the first one is always flushed so clients see data immediately
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final GazetteerIndex gazetteerIndex;
+    private final ObjectMapper objectMapper;
+
+    public PlaceTreeService(GazetteerIndex gazetteerIndex, ObjectMapper objectMapper) {
+        this.gazetteerIndex = gazetteerIndex;
+        this.objectMapper = objectMapper;
+    }
+
+    // What to write: the top-level places of one snapshot, and how many levels below them to expand
+    public record Tree(Gazetteer gazetteer, int[] roots, int depth) {
+    }
+
+    /**
+     * Checks the request before the response is committed, so that a bad request still gets a proper status code
+     * instead of a truncated body.
+     * @param rootId The place to start from; every continent when null.
+     * @param depth Levels below the top-level places to include; all of them when null.
+     */
+    public Tree resolve(UUID rootId, Integer depth) {
+        if (depth != null && depth < 0) {
+            throw new BadRequestException("Depth must be at least 0");
+        }
+        int levels = depth == null ? PlaceType.values().length : depth;
+
+        Gazetteer gazetteer = gazetteerIndex.current();
+        if (rootId == null) {
+            return new Tree(gazetteer, gazetteer.page(PlaceType.CONTINENT, null, null, Integer.MAX_VALUE), levels);
+        }
+        int root = gazetteer.indexOf(rootId);
+        if (root == Gazetteer.NONE) {
+            throw new NotFoundException("Place not found");
+        }
+        return new Tree(gazetteer, new int[]{root}, levels);
+    }
+
+    /**
+     * Writes the tree as an array of the top-level places. A place that was expanded has a children array, empty
+     * if nothing is below it; the places at the depth limit have none.
+     */
+    public void write(Tree tree, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+
+        // The servlet container owns the response stream, so the generator must not close it
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            for (int root : tree.roots()) {
+                count = writePlace(generator, tree.gazetteer(), root, tree.depth(), count);
+            }
+            generator.writeEndArray();
+        }
+
+        logger.info("Wrote a place tree of {} places in {} ms", count, System.currentTimeMillis() - start);
+    }
+
+    private long writePlace(JsonGenerator generator, Gazetteer gazetteer, int slot, int depth, long count) throws IOException {
+        PlaceType type = gazetteer.place(slot).type();
+        generator.writeStartObject();
+        generator.writeStringField("id", gazetteer.id(slot).toString());
+        generator.writeStringField("type", type.name());
+        generator.writeStringField("name", gazetteer.name(slot));
+        if (type == PlaceType.COUNTRY) {
+            generator.writeStringField("countryCode", gazetteer.place(slot).countryCode());
+            generator.writeStringField("flag", gazetteer.place(slot).flag());
+        }
+        if (++count == 1 || count % FLUSH_INTERVAL == 0) {
+            generator.flush();
+        }
+
+        if (depth > 0) {
+            generator.writeArrayFieldStart("children");
+            for (int child : gazetteer.children(slot)) {
+                count = writePlace(generator, gazetteer, child, depth - 1, count);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        return count;
+    }
+}
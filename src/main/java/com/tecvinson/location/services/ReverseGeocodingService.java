@@ -0,0 +1,245 @@
+package com.tecvinson.location.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.dtos.geocoding.BatchReverseGeocodeResult;
+import com.tecvinson.location.dtos.geocoding.ContainmentResponse;
+import com.tecvinson.location.dtos.geocoding.PlaceMatch;
+import com.tecvinson.location.dtos.geocoding.ReverseGeocodeResponse;
+import com.tecvinson.location.exceptions.BadRequestException;
+import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.spatial.AreaPath;
+import com.tecvinson.location.spatial.BoundaryIndex;
+import com.tecvinson.location.spatial.GeoGridIndex;
+import com.tecvinson.location.spatial.GeoMath;
+import com.tecvinson.location.spatial.LocationSpatialIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Resolves coordinates to the smallest area whose boundary contains them or, for points outside every boundary, to
+ * the area of the nearest known location, together with its city, state and country. Lookups are served entirely
+ * from the in-memory boundary and spatial indexes.
+ */
+@Service
+public class ReverseGeocodingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReverseGeocodingService.class);
+
+    // Lines resolved per fork-join task; the next chunk is read while the previous one is being resolved
+    private static final int CHUNK_LINES = 8192;
+    // Below this many lines a task resolves its slice directly instead of splitting it further
+    private static final int SPLIT_THRESHOLD = 256;
+
+    private final LocationSpatialIndex locationSpatialIndex;
+    private final BoundaryIndex boundaryIndex;
+    private final ObjectMapper objectMapper;
+    private final double maxDistanceKm;
+    private final ForkJoinPool pool;
+
+    public ReverseGeocodingService(LocationSpatialIndex locationSpatialIndex, BoundaryIndex boundaryIndex, ObjectMapper objectMapper,
+                                   @Value("${geocoding.reverse.max-distance-km:50}") double maxDistanceKm,
+                                   @Value("${geocoding.batch.parallelism:0}") int parallelism) {
+        this.locationSpatialIndex = locationSpatialIndex;
+        this.boundaryIndex = boundaryIndex;
+        this.objectMapper = objectMapper;
+        this.maxDistanceKm = maxDistanceKm;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public ReverseGeocodeResponse reverseGeocode(double latitude, double longitude) {
+        logger.info("Reverse geocoding {}, {}", latitude, longitude);
+
+        if (!GeoMath.isValidCoordinate(latitude, longitude)) {
+            throw new BadRequestException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+
+        ReverseGeocodeResponse response = resolve(latitude, longitude);
+        if (response == null) {
+            logger.warn("No Area found within {} km of {}, {}", maxDistanceKm, latitude, longitude);
+            throw new NotFoundException("No Area found within " + maxDistanceKm + " km");
+        }
+        return response;
+    }
+
+    // Areas and cities whose boundary polygon contains the point
+    public ContainmentResponse getContaining(double latitude, double longitude) {
+        logger.info("Finding boundaries containing {}, {}", latitude, longitude);
+
+        if (!GeoMath.isValidCoordinate(latitude, longitude)) {
+            throw new BadRequestException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        return new ContainmentResponse(latitude, longitude,
+                boundaryIndex.containingAreas(latitude, longitude), boundaryIndex.containingCities(latitude, longitude));
+    }
+
+    /**
+     * Reads one point per line ({@code lat,lng} or {@code reference,lat,lng}) and writes one NDJSON result per
+     * point, in input order. A first line that is not a point is taken as a header and skipped. Lines that cannot
+     * be resolved produce an error entry instead of failing the whole batch.
+     */
+    public void reverseGeocodeBatch(InputStream in, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long total = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setCodec(objectMapper);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+        // Two buffers so one chunk can be read while the other is resolved
+        Chunk current = new Chunk();
+        Chunk next = new Chunk();
+        long lineNumber = current.read(reader, 0);
+        while (current.size > 0) {
+            ForkJoinTask<Void> resolving = pool.submit(new ResolveTask(current, 0, current.size));
+            lineNumber = next.read(reader, lineNumber);
+            resolving.join();
+
+            for (int i = 0; i < current.size; i++) {
+                generator.writeObject(current.results[i]);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+            total += current.size;
+
+            Chunk resolved = current;
+            current = next;
+            next = resolved;
+        }
+        generator.close();
+
+        logger.info("Reverse geocoded {} points in {} ms", total, System.currentTimeMillis() - start);
+    }
+
+    // The smallest area whose boundary contains the point, otherwise the area of the nearest location
+    private ReverseGeocodeResponse resolve(double latitude, double longitude) {
+        for (PlaceMatch area : boundaryIndex.containingAreas(latitude, longitude)) {
+            AreaPath path = locationSpatialIndex.getAreaPath(area.getId());
+            if (path != null) {
+                return toResponse(latitude, longitude, path, 0);
+            }
+        }
+
+        List<GeoGridIndex.Neighbour> nearest = locationSpatialIndex.nearest(latitude, longitude, 1, maxDistanceKm, path -> true);
+        if (nearest.isEmpty()) {
+            return null;
+        }
+        GeoGridIndex.Neighbour neighbour = nearest.get(0);
+        AreaPath path = locationSpatialIndex.getAreaPath(neighbour.point().areaId());
+        if (path == null) {
+            return null;
+        }
+        return toResponse(latitude, longitude, path, neighbour.distanceKm());
+    }
+
+    private static ReverseGeocodeResponse toResponse(double latitude, double longitude, AreaPath path, double distanceKm) {
+        return new ReverseGeocodeResponse(latitude, longitude, path.areaId(), path.areaName(), path.cityId(), path.cityName(),
+                path.stateId(), path.stateName(), path.countryId(), path.countryName(), distanceKm);
+    }
+
+    private BatchReverseGeocodeResult resolveLine(String line, long lineNumber) {
+        String[] fields = line.split(",");
+        if (fields.length != 2 && fields.length != 3) {
+            return new BatchReverseGeocodeResult(lineNumber, null, null, "Expected lat,lng or reference,lat,lng");
+        }
+        String reference = fields.length == 3 ? fields[0].trim() : null;
+        double latitude;
+        double longitude;
+        try {
+            latitude = Double.parseDouble(fields[fields.length - 2].trim());
+            longitude = Double.parseDouble(fields[fields.length - 1].trim());
+        } catch (NumberFormatException e) {
+            return new BatchReverseGeocodeResult(lineNumber, reference, null, "Invalid coordinates");
+        }
+        if (!GeoMath.isValidCoordinate(latitude, longitude)) {
+            return new BatchReverseGeocodeResult(lineNumber, reference, null, "Coordinates out of range");
+        }
+
+        ReverseGeocodeResponse response = resolve(latitude, longitude);
+        if (response == null) {
+            return new BatchReverseGeocodeResult(lineNumber, reference, null, "No Area found within " + maxDistanceKm + " km");
+        }
+        return new BatchReverseGeocodeResult(lineNumber, reference, response, null);
+    }
+
+    private static boolean isHeader(String line) {
+        String[] fields = line.split(",");
+        try {
+            Double.parseDouble(fields[fields.length - 1].trim());
+            return false;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    // A block of input lines with their line numbers and, once resolved, their results
+    private static final class Chunk {
+        final String[] lines = new String[CHUNK_LINES];
+        final long[] lineNumbers = new long[CHUNK_LINES];
+        final BatchReverseGeocodeResult[] results = new BatchReverseGeocodeResult[CHUNK_LINES];
+        int size;
+
+        // Fills the chunk with the next non-blank lines and returns the number of the last line read
+        long read(BufferedReader reader, long lineNumber) throws IOException {
+            size = 0;
+            String line;
+            while (size < CHUNK_LINES && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+                lines[size] = line;
+                lineNumbers[size] = lineNumber;
+                size++;
+            }
+            return lineNumber;
+        }
+    }
+
+    private final class ResolveTask extends RecursiveAction {
+
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        ResolveTask(Chunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    chunk.results[i] = resolveLine(chunk.lines[i], chunk.lineNumbers[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ResolveTask(chunk, from, middle), new ResolveTask(chunk, middle, to));
+        }
+    }
+}
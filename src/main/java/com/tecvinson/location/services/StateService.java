@@ -1,23 +1,30 @@
 package com.tecvinson.location.services;
 
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.dtos.state.CreateStateRequest;
 import com.tecvinson.location.dtos.state.StateResponse;
 import com.tecvinson.location.dtos.state.UpdateStateRequest;
 import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.PlaceType;
 import com.tecvinson.location.entities.State;
+import com.tecvinson.location.events.PlaceChangedEvent;
 import com.tecvinson.location.exceptions.NotFoundException;
 import com.tecvinson.location.exceptions.ResourceConflictException;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.mappers.StateMapper;
 import com.tecvinson.location.repositories.CountryRepository;
 import com.tecvinson.location.repositories.StateRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class StateService {
@@ -25,13 +32,21 @@ public class StateService {
 
     private final CountryRepository countryRepository;
     private final StateRepository stateRepository;
-    private final ModelMapper modelMapper;
+    private final StateMapper stateMapper;
+    private final GazetteerIndex gazetteerIndex;
+    private final PaginationService paginationService;
+    private final PlaceClosureService placeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor-based dependency injection for repositories and model mapper
-    public StateService(CountryRepository countryRepository, StateRepository stateRepository, ModelMapper modelMapper) {
+    public StateService(CountryRepository countryRepository, StateRepository stateRepository, StateMapper stateMapper, GazetteerIndex gazetteerIndex, PaginationService paginationService, PlaceClosureService placeClosureService, ApplicationEventPublisher eventPublisher) {
         this.countryRepository = countryRepository;
         this.stateRepository = stateRepository;
-        this.modelMapper = modelMapper;
+        this.stateMapper = stateMapper;
+        this.gazetteerIndex = gazetteerIndex;
+        this.paginationService = paginationService;
+        this.placeClosureService = placeClosureService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -39,6 +54,7 @@ public class StateService {
      * @param stateRequest DTO containing the details of the state to be created.
      * @return StateResponse DTO with the created state's details.
      */
+    @Transactional
     public StateResponse createState(CreateStateRequest stateRequest) {
         logger.info("Creating a state with name: {}", stateRequest.getName());
 
@@ -53,16 +69,18 @@ public class StateService {
         }
 
         // Map the DTO to an entity and set additional properties
-        State state = modelMapper.map(stateRequest, State.class);
+        State state = stateMapper.toEntity(stateRequest);
         state.setCountry(country);
         state.setCreatedBy("SYSTEM");
         state.setModifiedBy("SYSTEM");
         state = stateRepository.save(state);
+        placeClosureService.addPlace(PlaceType.STATE, state.getId(), country.getId());
 
         logger.info("State with Id: {} created", state.getId());
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.STATE, state.getId()));
 
         // Map the saved entity to a response DTO and return
-        return modelMapper.map(state, StateResponse.class);
+        return stateMapper.toResponse(state);
     }
 
     /**
@@ -71,6 +89,7 @@ public class StateService {
      * @param stateRequest DTO containing the updated state details.
      * @return StateResponse DTO with updated state details.
      */
+    @Transactional
     public StateResponse updateState(UUID id, UpdateStateRequest stateRequest) {
         logger.info("Updating the details of a state with ID: {}", id);
 
@@ -88,6 +107,8 @@ public class StateService {
         State state = stateRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("State Not Found"));
 
+        UUID previousCountryId = state.getCountry() == null ? null : state.getCountry().getId();
+
         // Update the state's details
         state.setName(stateRequest.getName());
         state.setCountry(country);
@@ -97,33 +118,37 @@ public class StateService {
         logger.info("State updated. id: {}, country: {}", id, country.getName());
 
         // Save the updated state and map it to a response DTO
-        return modelMapper.map(stateRepository.save(state), StateResponse.class);
+        state = stateRepository.save(state);
+        if (!country.getId().equals(previousCountryId)) {
+            placeClosureService.movePlace(PlaceType.STATE, state.getId(), country.getId());
+        }
+        eventPublisher.publishEvent(new PlaceChangedEvent(PlaceType.STATE, state.getId()));
+
+        return stateMapper.toResponse(state);
     }
 
     /**
-     * Retrieves a list of all states.
-     * @return A list of StateResponse DTOs representing all states.
+     * Retrieves a page of states ordered by creation date.
+     * @param cursor Opaque cursor returned with the previous page, or null for the first page.
+     * @param size Requested page size, capped by the configured maximum.
+     * @return A page of StateResponse DTOs and the cursor of the next page.
      */
-    public List<StateResponse> getStates() {
-        logger.info("Retrieving List of all states");
-
-        // Fetch all states from the database
-        List<State> states = stateRepository.findAll();
-        if (states.isEmpty()) {
-            logger.warn("No states found in the database");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} states in the database", states.size());
-        }
-
-        // Map each State entity to a StateResponse DTO and return the list
-        return states.stream()
-                .map(state -> {
-                    StateResponse stateResponse = modelMapper.map(state, StateResponse.class);
-                    stateResponse.setCountryName(state.getCountry().getName());
-                    return stateResponse;
-                })
-                .collect(Collectors.toList());
+    public CursorPage<StateResponse> getStates(String cursor, Integer size) {
+        logger.info("Retrieving a page of states");
+
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+
+        // Seek past the cursor in the snapshot, which keeps each type sorted on (dateCreated, id)
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = after == null
+                ? gazetteer.page(PlaceType.STATE, null, null, pageSize + 1)
+                : gazetteer.page(PlaceType.STATE, after.dateCreated(), after.id(), pageSize + 1);
+
+        // Map each State to a StateResponse DTO
+        return paginationService.toPage(slots, pageSize,
+                slot -> new PaginationService.Cursor(gazetteer.dateCreated(slot), gazetteer.id(slot)),
+                slot -> stateMapper.toResponse(gazetteer, slot));
     }
 
     /**
@@ -134,14 +159,15 @@ public class StateService {
     public StateResponse getState(UUID id) {
         logger.info("Retrieving State with id: {}", id);
 
-        // Fetch the state by ID or throw an exception if not found
-        State state = stateRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("No state Found"));
+        // Look the state up in the snapshot or throw an exception if not found
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int slot = gazetteer.indexOf(id, PlaceType.STATE);
+        if (slot == Gazetteer.NONE) {
+            throw new NotFoundException("No state Found");
+        }
 
         // Map the state to a response DTO
-        StateResponse stateResponse = modelMapper.map(state, StateResponse.class);
-        stateResponse.setCountryName(state.getCountry().getName());
-        return stateResponse;
+        return stateMapper.toResponse(gazetteer, slot);
     }
 
     /**
@@ -152,22 +178,17 @@ public class StateService {
     public List<StateResponse> getStatesByName(String name) {
         logger.info("Searching for states with name: {}", name);
 
-        // Fetch states matching the search criteria
-        List<State> states = stateRepository.getByNameIgnoringCase(name);
+        // Find the states whose name contains the search text
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int[] slots = gazetteer.findByName(PlaceType.STATE, name);
 
-        if (states.isEmpty()) {
+        if (slots.length == 0) {
             logger.warn("No states found with name: {}", name);
             return Collections.emptyList();
         }
 
-        // Map each State entity to a StateResponse DTO and return the list
-        return states.stream()
-                .map(state -> {
-                    StateResponse response = modelMapper.map(state, StateResponse.class);
-                    response.setCountryName(state.getCountry().getName());
-                    return response;
-                })
-                .collect(Collectors.toList());
+        // Map each State to a StateResponse DTO and return the list
+        return toResponses(gazetteer, slots);
     }
 
     /**
@@ -178,24 +199,29 @@ public class StateService {
     public List<StateResponse> getByCountryId(UUID countryId) {
         logger.info("Retrieving a List of states in a country with countryId: {}", countryId);
 
-        // Fetch the country by ID or throw an exception if not found
-        Country country = countryRepository.findById(countryId)
-                .orElseThrow(() -> new NotFoundException("Country not Found"));
+        // Look the country up in the snapshot or throw an exception if not found
+        Gazetteer gazetteer = gazetteerIndex.current();
+        int country = gazetteer.indexOf(countryId, PlaceType.COUNTRY);
+        if (country == Gazetteer.NONE) {
+            throw new NotFoundException("Country not Found");
+        }
 
-        // Fetch all states associated with the country
-        List<State> states = stateRepository.getByCountry(country);
-        if (states.isEmpty()) {
+        // Collect all states of the country
+        int[] slots = gazetteer.descendants(country, PlaceType.STATE);
+        if (slots.length == 0) {
             logger.warn("No states found for country with ID: {}", countryId);
             return Collections.emptyList();
         }
 
-        // Map each State entity to a StateResponse DTO and return the list
-        return states.stream()
-                .map(state -> {
-                    StateResponse stateResponse = modelMapper.map(state, StateResponse.class);
-                    stateResponse.setCountryName(state.getCountry().getName());
-                    return stateResponse;
-                })
-                .collect(Collectors.toList());
+        // Map each State to a StateResponse DTO and return the list
+        return toResponses(gazetteer, slots);
+    }
+
+    private List<StateResponse> toResponses(Gazetteer gazetteer, int[] slots) {
+        List<StateResponse> responses = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            responses.add(stateMapper.toResponse(gazetteer, slot));
+        }
+        return responses;
     }
 }
@@ -1,14 +1,17 @@
 package com.tecvinson.location.services;
 
+import com.tecvinson.location.dtos.page.CursorPage;
 import com.tecvinson.location.dtos.tenant.CreateTenantRequest;
 import com.tecvinson.location.dtos.tenant.TenantResponse;
 import com.tecvinson.location.dtos.tenant.UpdateTenantRequest;
 import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.events.TenantChangedEvent;
 import com.tecvinson.location.exceptions.NotFoundException;
+import com.tecvinson.location.mappers.TenantMapper;
 import com.tecvinson.location.repositories.TenantRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +19,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class TenantService {
@@ -28,16 +29,20 @@ public class TenantService {
     private static final Logger logger = LoggerFactory.getLogger(TenantService.class);
 
     private final TenantRepository tenantRepository; // Repository for database operations
-    private final ModelMapper modelMapper; // Used for mapping between DTOs and entities
+    private final TenantMapper tenantMapper; // Used for mapping between DTOs and entities
     private final ValidationService validationService;
     private final EncryptionService encryptionService;
+    private final PaginationService paginationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor-based dependency injection for the repository and model mapper
-    public TenantService(TenantRepository tenantRepository, ModelMapper modelMapper, ValidationService validationService, EncryptionService encryptionService) {
+    public TenantService(TenantRepository tenantRepository, TenantMapper tenantMapper, ValidationService validationService, EncryptionService encryptionService, PaginationService paginationService, ApplicationEventPublisher eventPublisher) {
         this.tenantRepository = tenantRepository;
-        this.modelMapper = modelMapper;
+        this.tenantMapper = tenantMapper;
         this.validationService = validationService;
         this.encryptionService = encryptionService;
+        this.paginationService = paginationService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -58,7 +63,7 @@ public class TenantService {
         String encryptedApiKey = encryptionService.encrypt(generatedApiKey); // Encrypt using configured key
 
         // Map DTO to Entity
-        Tenant tenant = modelMapper.map(tenantRequest, Tenant.class);
+        Tenant tenant = tenantMapper.toEntity(tenantRequest);
         tenant.setApiKey(hashedApiKey);
         tenant.setEncryptedApiKey(encryptedApiKey); // Store encrypted API key
         tenant.setActive(true);
@@ -70,7 +75,7 @@ public class TenantService {
         logger.info("Tenant with ID: {} created", tenant.getId());
 
         // Map to Response DTO (return original API key just once)
-        TenantResponse tenantResponse = modelMapper.map(tenant, TenantResponse.class);
+        TenantResponse tenantResponse = tenantMapper.toResponse(tenant);
         tenantResponse.setApiKey(generatedApiKey);
         return tenantResponse;
     }
@@ -104,36 +109,45 @@ public class TenantService {
 
         logger.info("Tenant updated. Email: {}, Status: {}", tenantRequest.getEmail(), tenantRequest.isActive());
 
-        // Save the updated tenant and map it to a response DTO
-        return modelMapper.map(tenantRepository.save(tenant), TenantResponse.class);
+        // Save the updated tenant, drop its cached API key lookup once committed, and map it to a response DTO
+        tenant = tenantRepository.save(tenant);
+        eventPublisher.publishEvent(new TenantChangedEvent(tenant.getId(), tenant.getApiKey()));
+        return tenantMapper.toResponse(tenant);
     }
 
     /**
-     * Retrieves all tenants in the system.
-     * @return A list of tenant response DTOs.
+     * Retrieves a page of tenants ordered by creation date.
+     * @param cursor Opaque cursor returned with the previous page, or null for the first page.
+     * @param size Requested page size, capped by the configured maximum.
+     * @param includeApiKey Whether to decrypt and return each tenant's API key.
+     * @return A page of tenant response DTOs and the cursor of the next page.
      */
-    public List<TenantResponse> getTenants() {
-        logger.info("Retrieving all tenants");
-
-        // Retrieve all tenants from the database
-        List<Tenant> tenants = tenantRepository.findAll();
-        if (tenants.isEmpty()) {
-            logger.warn("No tenants found in the database");
-            return Collections.emptyList();
-        } else {
-            logger.info("Found {} tenants", tenants.size());
+    public CursorPage<TenantResponse> getTenants(String cursor, Integer size, boolean includeApiKey) {
+        logger.info("Retrieving a page of tenants");
+
+        int pageSize = paginationService.resolvePageSize(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+
+        // Seek past the cursor on the (dateCreated, id) index rather than reading the whole table
+        List<Tenant> tenants = after == null
+                ? tenantRepository.findFirstPage(paginationService.limit(pageSize))
+                : tenantRepository.findPageAfter(after.dateCreated(), after.id(), paginationService.limit(pageSize));
+
+        CursorPage<TenantResponse> page = paginationService.toPage(tenants, pageSize, tenantMapper::toResponse);
+        if (!includeApiKey) {
+            return page;
         }
 
-        // Map and decrypt API keys
-        return tenants.stream()
-                .map(tenant -> {
-                    TenantResponse response = modelMapper.map(tenant, TenantResponse.class);
-                    if (tenant.getEncryptedApiKey() != null) {
-                        response.setApiKey(encryptionService.decrypt(tenant.getEncryptedApiKey())); // Decrypt before returning
-                    }
-                    return response;
-                })
-                .collect(Collectors.toList());
+        // Decrypt the API keys of the page in one batch; items are in the order of the tenants they came from
+        List<String> apiKeys = encryptionService.decryptAll(tenants.subList(0, page.getItems().size()).stream()
+                .map(Tenant::getEncryptedApiKey)
+                .toList());
+        for (int i = 0; i < apiKeys.size(); i++) {
+            if (apiKeys.get(i) != null) {
+                page.getItems().get(i).setApiKey(apiKeys.get(i));
+            }
+        }
+        return page;
     }
 
 
@@ -150,7 +164,7 @@ public class TenantService {
                 .orElseThrow(() -> new NotFoundException("Tenant not found"));
 
         // Map the tenant entity to a response DTO
-        TenantResponse response = modelMapper.map(tenant, TenantResponse.class);
+        TenantResponse response = tenantMapper.toResponse(tenant);
 
         // Decrypt API key before returning it
         if (tenant.getEncryptedApiKey() != null) {
@@ -2,8 +2,6 @@ package com.tecvinson.location.services;
 
 import com.tecvinson.location.entities.Tenant;
 import com.tecvinson.location.exceptions.InvalidEmailException;
-import com.tecvinson.location.exceptions.UnauthorizedException;
-import com.tecvinson.location.repositories.TenantRepository;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
@@ -15,52 +13,54 @@ import java.util.regex.Pattern;
 @Service
 public class ValidationService {
 
-    private final TenantRepository tenantRepository;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
-    // Constructor to inject TenantRepository
-    public ValidationService(TenantRepository tenantRepository) {
-        this.tenantRepository = tenantRepository;
+    // MessageDigest is not thread-safe; each call clones this prototype, which skips the provider lookup
+    private static final MessageDigest SHA_256 = newSha256();
+
+    private final ApiKeyCache apiKeyCache;
+
+    // Constructor to inject the API key cache
+    public ValidationService(ApiKeyCache apiKeyCache) {
+        this.apiKeyCache = apiKeyCache;
     }
 
-    // Hash API key using SHA-256
+    // Hash API key using SHA-256, hex-encoded straight into a char array
     public String hashApiKey(String apiKey) {
+        byte[] hashedBytes = sha256().digest(apiKey.getBytes(StandardCharsets.UTF_8));
+
+        char[] hex = new char[hashedBytes.length * 2];
+        for (int i = 0; i < hashedBytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(hashedBytes[i] >> 4) & 0x0f];
+            hex[2 * i + 1] = HEX_DIGITS[hashedBytes[i] & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    private static MessageDigest sha256() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashedBytes = digest.digest(apiKey.getBytes(StandardCharsets.UTF_8));
-
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashedBytes) {
-                hexString.append(String.format("%02x", b));
-            }
-            return hexString.toString();
+            return (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            return newSha256();
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("Error hashing API key", e);
         }
     }
 
-    // Validates the API key by comparing hashes
-    public Tenant validateApiKey(String apiKey) {
-        String hashedApiKey = hashApiKey(apiKey); // Hash the input API key
-
-        // Find the tenant by hashed API key
-        Tenant tenant = tenantRepository.findByApiKey(hashedApiKey)
-                .orElseThrow(() -> new UnauthorizedException("Invalid API Key"));
-
-        return tenant;
+    // Finds the tenant owning the API key by comparing hashes
+    public Optional<Tenant> findTenant(String apiKey) {
+        return apiKeyCache.find(hashApiKey(apiKey));
     }
 
-    // Validates the admin API key
-    public void validateAdminApiKey(String apiKey) {
-        String hashedApiKey = hashApiKey(apiKey);
-
-        // Find the tenant by hashed API key
-        Tenant adminKey = tenantRepository.findByApiKey(hashedApiKey)
-                .orElseThrow(() -> new UnauthorizedException("Invalid API Key"));
-
-        // Check if the email belongs to an admin
-        if (!isAdminEmail(adminKey.getEmail())) {
-            throw new UnauthorizedException("Unauthorized To Perform This Action");
-        }
+    // Whether the tenant's email belongs to an admin
+    public boolean isAdmin(Tenant tenant) {
+        return isAdminEmail(tenant.getEmail());
     }
 
     private boolean isAdminEmail(String email) {
@@ -0,0 +1,10 @@
+package com.tecvinson.location.spatial;
+
+import java.util.UUID;
+
+// An area together with the ids and names of its city, state and country
+public record AreaPath(UUID areaId, String areaName,
+                       UUID cityId, String cityName,
+                       UUID stateId, String stateName,
+                       UUID countryId, String countryName) {
+}
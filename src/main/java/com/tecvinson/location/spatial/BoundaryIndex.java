@@ -0,0 +1,97 @@
+package com.tecvinson.location.spatial;
+
+import com.tecvinson.location.dtos.geocoding.PlaceMatch;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-process index of area and city boundary polygons, loaded at startup and kept current from place events.
+ */
+@Component
+public class BoundaryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundaryIndex.class);
+
+    private final AreaRepository areaRepository;
+    private final CityRepository cityRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final PolygonIndex<PlaceMatch> areas;
+    private final PolygonIndex<PlaceMatch> cities;
+
+    public BoundaryIndex(AreaRepository areaRepository, CityRepository cityRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${boundary-index.cell-size-degrees:0.25}") double cellSizeDegrees) {
+        this.areaRepository = areaRepository;
+        this.cityRepository = cityRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.areas = new PolygonIndex<>(cellSizeDegrees);
+        this.cities = new PolygonIndex<>(cellSizeDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+
+        areas.clear();
+        cities.clear();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            areaRepository.findAllWithBoundary().forEach(area -> put(areas, area.getId(), area.getName(), area.getBoundary()));
+            cityRepository.findAllWithBoundary().forEach(city -> put(cities, city.getId(), city.getName(), city.getBoundary()));
+        });
+
+        logger.info("Boundary index loaded {} area and {} city polygons in {} ms",
+                areas.size(), cities.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.type() == PlaceType.AREA) {
+            areaRepository.findById(event.id()).ifPresentOrElse(
+                    area -> put(areas, area.getId(), area.getName(), area.getBoundary()),
+                    () -> areas.remove(event.id()));
+        } else if (event.type() == PlaceType.CITY) {
+            cityRepository.findById(event.id()).ifPresentOrElse(
+                    city -> put(cities, city.getId(), city.getName(), city.getBoundary()),
+                    () -> cities.remove(event.id()));
+        }
+    }
+
+    // Areas whose boundary contains the point, smallest first
+    public List<PlaceMatch> containingAreas(double latitude, double longitude) {
+        return areas.containing(latitude, longitude);
+    }
+
+    // Cities whose boundary contains the point, smallest first
+    public List<PlaceMatch> containingCities(double latitude, double longitude) {
+        return cities.containing(latitude, longitude);
+    }
+
+    private void put(PolygonIndex<PlaceMatch> index, UUID id, String name, double[][][] boundary) {
+        if (boundary == null) {
+            index.remove(id);
+            return;
+        }
+        try {
+            index.put(id, new PlaceMatch(id, name), new PreparedPolygon(boundary));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping invalid boundary of {}: {}", id, e.getMessage());
+            index.remove(id);
+        }
+    }
+}
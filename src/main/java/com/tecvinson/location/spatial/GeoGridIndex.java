@@ -0,0 +1,260 @@
+package com.tecvinson.location.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Uniform latitude/longitude grid over points. Each point lives in the bucket of the cell that contains it,
+ * so a nearest-neighbour search only visits the rings of cells around the query until no closer point
+ * can exist, and updates touch a single bucket.
+ */
+public class GeoGridIndex {
+
+    public record Neighbour(GridPoint point, double distanceKm) {
+    }
+
+    private final double cellSizeDegrees;
+    private final int latitudeCells;
+    private final int longitudeCells;
+
+    private final Map<Long, List<GridPoint>> cells = new HashMap<>();
+    private final Map<UUID, GridPoint> points = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeoGridIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be in (0, 90] degrees");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.latitudeCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.longitudeCells = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    // Inserts the point, or moves it if a point with the same id is already indexed
+    public void put(GridPoint point) {
+        lock.writeLock().lock();
+        try {
+            GridPoint previous = points.put(point.id(), point);
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            cells.computeIfAbsent(cellKey(point.latitude(), point.longitude()), key -> new ArrayList<>()).add(point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            GridPoint previous = points.remove(id);
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            points.clear();
+            cells.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of points per area; points without an area are not counted
+    public Map<UUID, Long> countByArea() {
+        lock.readLock().lock();
+        try {
+            Map<UUID, Long> counts = new HashMap<>();
+            for (GridPoint point : points.values()) {
+                if (point.areaId() != null) {
+                    counts.merge(point.areaId(), 1L, Long::sum);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} points accepted by the filter, closest first, no further than {@code maxDistanceKm}.
+     */
+    public List<Neighbour> nearest(double latitude, double longitude, int limit, double maxDistanceKm, Predicate<GridPoint> filter) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // Max-heap on distance: the head is the worst of the current best candidates
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(Comparator.comparingDouble(Neighbour::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            int centerLat = latitudeIndex(latitude);
+            int centerLon = longitudeIndex(longitude);
+
+            for (int ring = 0; ; ring++) {
+                // Once the rings cover more cells than are occupied (or wrap around the globe),
+                // ordering the occupied cells by distance is cheaper than walking empty rings
+                long ringArea = (2L * ring + 1) * (2L * ring + 1);
+                if (ringArea > 4L * cells.size() + 9 || 2 * ring + 1 >= longitudeCells) {
+                    best.clear();
+                    scanOccupiedCells(latitude, longitude, limit, maxDistanceKm, filter, best);
+                    break;
+                }
+
+                double bound = ringLowerBoundKm(latitude, ring);
+                if (bound > maxDistanceKm || (best.size() == limit && bound > best.peek().distanceKm())) {
+                    break;
+                }
+                visitRing(centerLat, centerLon, ring, latitude, longitude, limit, maxDistanceKm, filter, best);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Neighbour> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+        return result;
+    }
+
+    private void visitRing(int centerLat, int centerLon, int ring, double latitude, double longitude,
+                           int limit, double maxDistanceKm, Predicate<GridPoint> filter, PriorityQueue<Neighbour> best) {
+        if (ring == 0) {
+            visitCell(centerLat, centerLon, latitude, longitude, limit, maxDistanceKm, filter, best);
+            return;
+        }
+        for (int dLat = -ring; dLat <= ring; dLat++) {
+            boolean edgeRow = dLat == -ring || dLat == ring;
+            int step = edgeRow ? 1 : 2 * ring;
+            for (int dLon = -ring; dLon <= ring; dLon += step) {
+                visitCell(centerLat + dLat, centerLon + dLon, latitude, longitude, limit, maxDistanceKm, filter, best);
+            }
+        }
+    }
+
+    private void visitCell(int latIndex, int lonIndex, double latitude, double longitude,
+                           int limit, double maxDistanceKm, Predicate<GridPoint> filter, PriorityQueue<Neighbour> best) {
+        if (latIndex < 0 || latIndex >= latitudeCells) {
+            return;
+        }
+        List<GridPoint> bucket = cells.get(cellKey(latIndex, Math.floorMod(lonIndex, longitudeCells)));
+        if (bucket == null) {
+            return;
+        }
+        for (GridPoint point : bucket) {
+            if (!filter.test(point)) {
+                continue;
+            }
+            double distance = GeoMath.distanceKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance > maxDistanceKm) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new Neighbour(point, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Neighbour(point, distance));
+            }
+        }
+    }
+
+    // Visits occupied cells in order of their distance lower bound and stops once no cell can improve the result
+    private void scanOccupiedCells(double latitude, double longitude, int limit, double maxDistanceKm,
+                                   Predicate<GridPoint> filter, PriorityQueue<Neighbour> best) {
+        List<double[]> ordered = new ArrayList<>(cells.size());
+        for (Long key : cells.keySet()) {
+            int latIndex = (int) (key >> 32);
+            int lonIndex = (int) (long) key;
+            double bound = cellLowerBoundKm(latitude, longitude, latIndex, lonIndex);
+            if (bound <= maxDistanceKm) {
+                ordered.add(new double[]{bound, latIndex, lonIndex});
+            }
+        }
+        ordered.sort(Comparator.comparingDouble(entry -> entry[0]));
+
+        for (double[] entry : ordered) {
+            if (best.size() == limit && entry[0] > best.peek().distanceKm()) {
+                break;
+            }
+            visitCell((int) entry[1], (int) entry[2], latitude, longitude, limit, maxDistanceKm, filter, best);
+        }
+    }
+
+    // Every cell of ring r is at least r - 1 whole cells away in latitude or in longitude
+    private double ringLowerBoundKm(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double gap = (ring - 1) * cellSizeDegrees;
+        double span = (ring + 1) * cellSizeDegrees;
+        double latitudeBound = GeoMath.lowerBoundKm(latitude, latitude + gap, latitude + gap, 0);
+        double longitudeBound = GeoMath.lowerBoundKm(latitude,
+                Math.max(-90, latitude - span), Math.min(90, latitude + span), gap);
+        return Math.min(latitudeBound, longitudeBound);
+    }
+
+    private double cellLowerBoundKm(double latitude, double longitude, int latIndex, int lonIndex) {
+        double minLat = latIndex * cellSizeDegrees - 90;
+        double maxLat = Math.min(90, minLat + cellSizeDegrees);
+        double minLon = lonIndex * cellSizeDegrees - 180;
+        double maxLon = minLon + cellSizeDegrees;
+
+        double lonDelta = 0;
+        if (longitude < minLon || longitude > maxLon) {
+            double toMin = Math.abs(longitude - minLon) % 360;
+            double toMax = Math.abs(longitude - maxLon) % 360;
+            lonDelta = Math.min(Math.min(toMin, 360 - toMin), Math.min(toMax, 360 - toMax));
+        }
+        return GeoMath.lowerBoundKm(latitude, minLat, maxLat, lonDelta);
+    }
+
+    private void removeFromCell(GridPoint point) {
+        long key = cellKey(point.latitude(), point.longitude());
+        List<GridPoint> bucket = cells.get(key);
+        if (bucket == null) {
+            return;
+        }
+        bucket.removeIf(existing -> existing.id().equals(point.id()));
+        if (bucket.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private int latitudeIndex(double latitude) {
+        return Math.min(latitudeCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSizeDegrees)));
+    }
+
+    private int longitudeIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellSizeDegrees), longitudeCells);
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(latitudeIndex(latitude), longitudeIndex(longitude));
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+}
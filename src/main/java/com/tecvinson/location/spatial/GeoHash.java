@@ -0,0 +1,127 @@
+package com.tecvinson.location.spatial;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash encoding and bounding-box covering. Geohashes interleave longitude and latitude bits, so points
+ * that are close on the map mostly share a prefix and a box can be answered with a few key-range scans.
+ */
+public final class GeoHash {
+
+    // Precision stored on every location, roughly 4 cm x 2 cm
+    public static final int STORED_PRECISION = 12;
+
+    // Upper bound on the cells used to cover a box; adjacent cells are merged into one range afterwards
+    private static final int MAX_COVER_CELLS = 64;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    // Inclusive range of stored geohashes: every hash h in the range satisfies from <= h <= to
+    public record Range(String from, String to) {
+    }
+
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, STORED_PRECISION);
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        int bits = precision * 5;
+        long lonIndex = cellIndex(longitude, -180, 360, lonBits(bits));
+        long latIndex = cellIndex(latitude, -90, 180, latBits(bits));
+        return toBase32(interleave(lonIndex, latIndex, bits), precision);
+    }
+
+    /**
+     * Covers the box with geohash cells of a single precision, as fine as possible without exceeding
+     * {@link #MAX_COVER_CELLS} cells, and merges cells that are consecutive on the curve into ranges.
+     * The box must not cross the antimeridian (minLng <= maxLng).
+     */
+    public static List<Range> cover(double minLat, double minLng, double maxLat, double maxLng) {
+        int precision = 1;
+        for (int candidate = STORED_PRECISION; candidate > 1; candidate--) {
+            if (cellCount(minLat, minLng, maxLat, maxLng, candidate) <= MAX_COVER_CELLS) {
+                precision = candidate;
+                break;
+            }
+        }
+
+        int bits = precision * 5;
+        int lonBits = lonBits(bits);
+        int latBits = latBits(bits);
+        long lonFrom = cellIndex(minLng, -180, 360, lonBits);
+        long lonTo = cellIndex(maxLng, -180, 360, lonBits);
+        long latFrom = cellIndex(minLat, -90, 180, latBits);
+        long latTo = cellIndex(maxLat, -90, 180, latBits);
+
+        List<Long> cells = new ArrayList<>();
+        for (long lat = latFrom; lat <= latTo; lat++) {
+            for (long lon = lonFrom; lon <= lonTo; lon++) {
+                cells.add(interleave(lon, lat, bits));
+            }
+        }
+        cells.sort(null);
+
+        List<Range> ranges = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= cells.size(); i++) {
+            if (i == cells.size() || cells.get(i) != cells.get(i - 1) + 1) {
+                ranges.add(toRange(cells.get(start), cells.get(i - 1), precision));
+                start = i;
+            }
+        }
+        return ranges;
+    }
+
+    private static long cellCount(double minLat, double minLng, double maxLat, double maxLng, int precision) {
+        int bits = precision * 5;
+        long lonCells = cellIndex(maxLng, -180, 360, lonBits(bits)) - cellIndex(minLng, -180, 360, lonBits(bits)) + 1;
+        long latCells = cellIndex(maxLat, -90, 180, latBits(bits)) - cellIndex(minLat, -90, 180, latBits(bits)) + 1;
+        return lonCells * latCells;
+    }
+
+    // Stored hashes are all full length, so the last hash under a prefix is the prefix padded with 'z'
+    private static Range toRange(long firstCell, long lastCell, int precision) {
+        String from = toBase32(firstCell, precision);
+        String to = toBase32(lastCell, precision) + "z".repeat(STORED_PRECISION - precision);
+        return new Range(from, to);
+    }
+
+    // Longitude takes the first bit, so it gets the extra bit when the total is odd
+    private static int lonBits(int bits) {
+        return (bits + 1) / 2;
+    }
+
+    private static int latBits(int bits) {
+        return bits / 2;
+    }
+
+    private static long cellIndex(double value, double min, double span, int bits) {
+        long cells = 1L << bits;
+        long index = (long) Math.floor((value - min) / span * cells);
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+
+    private static long interleave(long lonIndex, long latIndex, int bits) {
+        int lonBit = lonBits(bits) - 1;
+        int latBit = latBits(bits) - 1;
+        long hash = 0;
+        for (int i = 0; i < bits; i++) {
+            long bit = (i % 2 == 0) ? (lonIndex >>> lonBit--) & 1 : (latIndex >>> latBit--) & 1;
+            hash = (hash << 1) | bit;
+        }
+        return hash;
+    }
+
+    private static String toBase32(long hash, int precision) {
+        char[] chars = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            chars[i] = BASE32[(int) (hash & 31)];
+            hash >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,53 @@
+package com.tecvinson.location.spatial;
+
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.repositories.LocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the geohash of locations saved before the column existed, one batch per transaction.
+ * New and updated rows get theirs from the entity callbacks.
+ */
+@Component
+public class GeoHashBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoHashBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final LocationRepository locationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public GeoHashBackfill(LocationRepository locationRepository, PlatformTransactionManager transactionManager) {
+        this.locationRepository = locationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long updated = 0;
+        Integer batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Location> locations = locationRepository.findByGeohashIsNull(PageRequest.ofSize(BATCH_SIZE));
+                locations.forEach(location ->
+                        location.setGeohash(GeoHash.encode(location.getLatitude(), location.getLongitude())));
+                return locations.size();
+            });
+            updated += batch;
+        } while (batch != null && batch == BATCH_SIZE);
+
+        if (updated > 0) {
+            logger.info("Backfilled geohash on {} locations", updated);
+        }
+    }
+}
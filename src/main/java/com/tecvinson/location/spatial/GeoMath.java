@@ -0,0 +1,39 @@
+package com.tecvinson.location.spatial;
+
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private GeoMath() {
+    }
+
+    // Great-circle distance between two coordinates using the haversine formula
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double hav = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, hav)));
+    }
+
+    /**
+     * Lower bound of the distance from a point to any point whose latitude lies in [minLat, maxLat]
+     * and whose longitude differs by at least minLonDelta degrees. Both haversine terms are
+     * non-negative, so each one alone bounds the distance from below.
+     */
+    public static double lowerBoundKm(double lat, double minLat, double maxLat, double minLonDelta) {
+        double latDelta = lat < minLat ? minLat - lat : (lat > maxLat ? lat - maxLat : 0);
+        double latBound = EARTH_RADIUS_KM * Math.toRadians(latDelta);
+
+        double maxAbsLat = Math.min(90, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+        double halfLon = Math.toRadians(Math.min(180, Math.max(0, minLonDelta))) / 2;
+        double hav = Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(maxAbsLat)) * Math.sin(halfLon) * Math.sin(halfLon);
+        double lonBound = 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.max(0, Math.min(1.0, hav))));
+
+        return Math.max(latBound, lonBound);
+    }
+
+    public static boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+}
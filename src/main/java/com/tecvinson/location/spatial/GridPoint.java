@@ -0,0 +1,7 @@
+package com.tecvinson.location.spatial;
+
+import java.util.UUID;
+
+// A location as held by the spatial index: its id, coordinates and the area it belongs to
+public record GridPoint(UUID id, double latitude, double longitude, UUID areaId) {
+}
@@ -0,0 +1,118 @@
+package com.tecvinson.location.spatial;
+
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.LocationSavedEvent;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.LocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-process spatial index over all location coordinates. It is loaded once at startup and then
+ * kept current from the events published by the location and hierarchy services.
+ */
+@Component
+public class LocationSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationSpatialIndex.class);
+
+    private final LocationRepository locationRepository;
+    private final AreaRepository areaRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final GeoGridIndex grid;
+    // Parent chain of every area, so scope filters do not need the database
+    private final Map<UUID, AreaPath> areaPaths = new ConcurrentHashMap<>();
+
+    public LocationSpatialIndex(LocationRepository locationRepository, AreaRepository areaRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${location.spatial-index.cell-size-degrees:0.05}") double cellSizeDegrees) {
+        this.locationRepository = locationRepository;
+        this.areaRepository = areaRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.grid = new GeoGridIndex(cellSizeDegrees);
+    }
+
+    // Ahead of the other startup listeners, so the indexes they build from the locations see every one
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+
+        reloadAreaPaths();
+        grid.clear();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<GridPoint> points = locationRepository.streamGridPoints()) {
+                points.forEach(grid::put);
+            }
+        });
+
+        logger.info("Spatial index loaded {} locations in {} areas in {} ms",
+                grid.size(), areaPaths.size(), System.currentTimeMillis() - start);
+    }
+
+    // Ahead of the other listeners, so anything they derive from the change already sees it here
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationSaved(LocationSavedEvent event) {
+        grid.put(new GridPoint(event.id(), event.latitude(), event.longitude(), event.areaId()));
+        if (event.areaId() != null && !areaPaths.containsKey(event.areaId())) {
+            areaRepository.findAreaPath(event.areaId()).ifPresent(path -> areaPaths.put(path.areaId(), path));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.type() == PlaceType.AREA) {
+            areaRepository.findAreaPath(event.id()).ifPresent(path -> areaPaths.put(path.areaId(), path));
+        } else if (event.type() != PlaceType.CONTINENT) {
+            // A city, state or country may have been re-parented or renamed, which touches many area chains
+            reloadAreaPaths();
+        }
+    }
+
+    public List<GeoGridIndex.Neighbour> nearest(double latitude, double longitude, int limit, double maxDistanceKm,
+                                                Predicate<AreaPath> scope) {
+        Predicate<GridPoint> filter = point -> {
+            AreaPath path = point.areaId() == null ? null : areaPaths.get(point.areaId());
+            return path != null && scope.test(path);
+        };
+        return grid.nearest(latitude, longitude, limit, maxDistanceKm, filter);
+    }
+
+    public AreaPath getAreaPath(UUID areaId) {
+        return areaPaths.get(areaId);
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    // Locations per area, counted in memory
+    public Map<UUID, Long> countByArea() {
+        return grid.countByArea();
+    }
+
+    private void reloadAreaPaths() {
+        List<AreaPath> paths = areaRepository.findAllAreaPaths();
+        paths.forEach(path -> areaPaths.put(path.areaId(), path));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tecvinson.location.spatial;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores polygon rings as GeoJSON coordinate text, [[[lng, lat], ...], ...]
+@Converter
+public class PolygonConverter implements AttributeConverter<double[][][], String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(double[][][] rings) {
+        if (rings == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(rings);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise boundary", e);
+        }
+    }
+
+    @Override
+    public double[][][] convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, double[][][].class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read boundary", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.tecvinson.location.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Point-in-polygon lookup over many polygons. Each polygon is registered in every grid cell its bounding box
+ * overlaps, so a lookup only tests the polygons of the cell holding the point. Polygons spanning too many cells
+ * are kept in a separate list that every lookup checks.
+ */
+public class PolygonIndex<T> {
+
+    private static final int MAX_CELLS_PER_POLYGON = 4096;
+
+    private record Entry<T>(UUID id, T value, PreparedPolygon polygon) {
+    }
+
+    private final double cellSizeDegrees;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final List<Entry<T>> oversized = new ArrayList<>();
+    private final Map<UUID, Entry<T>> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PolygonIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be in (0, 90] degrees");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    // Registers the polygon under the id, replacing any polygon previously registered for it
+    public void put(UUID id, T value, PreparedPolygon polygon) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            Entry<T> entry = new Entry<>(id, value, polygon);
+            entries.put(id, entry);
+
+            long latCells = cell(polygon.getMaxLat()) - cell(polygon.getMinLat()) + 1L;
+            long lngCells = cell(polygon.getMaxLng()) - cell(polygon.getMinLng()) + 1L;
+            if (latCells * lngCells > MAX_CELLS_PER_POLYGON) {
+                oversized.add(entry);
+                return;
+            }
+            forEachCell(polygon, key -> cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entry));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            oversized.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Values of every polygon containing the point, smallest polygon first
+    public List<T> containing(double latitude, double longitude) {
+        List<Entry<T>> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Entry<T>> candidates = cells.get(key(cell(latitude), cell(longitude)));
+            if (candidates != null) {
+                for (Entry<T> entry : candidates) {
+                    if (entry.polygon().contains(latitude, longitude)) {
+                        matches.add(entry);
+                    }
+                }
+            }
+            for (Entry<T> entry : oversized) {
+                if (entry.polygon().contains(latitude, longitude)) {
+                    matches.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingDouble(entry -> entry.polygon().getArea()));
+        return matches.stream().map(Entry::value).toList();
+    }
+
+    private void removeEntry(UUID id) {
+        Entry<T> previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        if (oversized.remove(previous)) {
+            return;
+        }
+        forEachCell(previous.polygon(), key -> {
+            List<Entry<T>> bucket = cells.get(key);
+            if (bucket != null) {
+                bucket.remove(previous);
+                if (bucket.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        });
+    }
+
+    private void forEachCell(PreparedPolygon polygon, LongConsumer action) {
+        for (int lat = cell(polygon.getMinLat()); lat <= cell(polygon.getMaxLat()); lat++) {
+            for (int lng = cell(polygon.getMinLng()); lng <= cell(polygon.getMaxLng()); lng++) {
+                action.accept(key(lat, lng));
+            }
+        }
+    }
+
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees / cellSizeDegrees);
+    }
+
+    private static long key(int lat, int lng) {
+        return ((long) lat << 32) | (lng & 0xffffffffL);
+    }
+}
@@ -0,0 +1,148 @@
+package com.tecvinson.location.spatial;
+
+/**
+ * A polygon prepared for repeated point-in-polygon tests. Rings use GeoJSON order, {@code [ring][point][lng, lat]},
+ * with the outer ring first and holes after it; containment uses the even-odd rule, so holes need no special case.
+ * Edges are bucketed into horizontal latitude bands, so a test only crosses the edges of the band holding the point.
+ */
+public class PreparedPolygon {
+
+    private static final int MAX_BANDS = 256;
+
+    private final double minLat;
+    private final double maxLat;
+    private final double minLng;
+    private final double maxLng;
+    private final double area;
+
+    // Edge i runs from (lng1[i], lat1[i]) to (lng2[i], lat2[i])
+    private final double[] lng1;
+    private final double[] lat1;
+    private final double[] lng2;
+    private final double[] lat2;
+
+    private final int bandCount;
+    private final double bandHeight;
+    private final int[][] bands;
+
+    public PreparedPolygon(double[][][] rings) {
+        validate(rings);
+
+        int edgeCount = 0;
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, minLng = Double.MAX_VALUE, maxLng = -Double.MAX_VALUE;
+        for (double[][] ring : rings) {
+            edgeCount += ring.length;
+            for (double[] point : ring) {
+                minLng = Math.min(minLng, point[0]);
+                maxLng = Math.max(maxLng, point[0]);
+                minLat = Math.min(minLat, point[1]);
+                maxLat = Math.max(maxLat, point[1]);
+            }
+        }
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLng = minLng;
+        this.maxLng = maxLng;
+
+        lng1 = new double[edgeCount];
+        lat1 = new double[edgeCount];
+        lng2 = new double[edgeCount];
+        lat2 = new double[edgeCount];
+        double signedArea = 0;
+        int edge = 0;
+        for (int r = 0; r < rings.length; r++) {
+            double[][] ring = rings[r];
+            double ringArea = 0;
+            for (int i = 0; i < ring.length; i++) {
+                // Rings may or may not repeat the first point at the end; the closing edge is always added
+                double[] from = ring[i];
+                double[] to = ring[(i + 1) % ring.length];
+                lng1[edge] = from[0];
+                lat1[edge] = from[1];
+                lng2[edge] = to[0];
+                lat2[edge] = to[1];
+                ringArea += from[0] * to[1] - to[0] * from[1];
+                edge++;
+            }
+            signedArea += r == 0 ? Math.abs(ringArea) : -Math.abs(ringArea);
+        }
+        this.area = Math.max(0, signedArea / 2);
+
+        this.bandCount = (int) Math.max(1, Math.min(MAX_BANDS, Math.sqrt(edgeCount)));
+        this.bandHeight = Math.max((maxLat - minLat) / bandCount, Double.MIN_NORMAL);
+        int[] sizes = new int[bandCount];
+        for (int i = 0; i < edgeCount; i++) {
+            for (int b = band(Math.min(lat1[i], lat2[i])); b <= band(Math.max(lat1[i], lat2[i])); b++) {
+                sizes[b]++;
+            }
+        }
+        this.bands = new int[bandCount][];
+        for (int b = 0; b < bandCount; b++) {
+            bands[b] = new int[sizes[b]];
+            sizes[b] = 0;
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            for (int b = band(Math.min(lat1[i], lat2[i])); b <= band(Math.max(lat1[i], lat2[i])); b++) {
+                bands[b][sizes[b]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Checks that every ring has at least three points with valid coordinates.
+     */
+    public static void validate(double[][][] rings) {
+        if (rings == null || rings.length == 0) {
+            throw new IllegalArgumentException("Boundary must have at least one ring");
+        }
+        for (double[][] ring : rings) {
+            if (ring == null || ring.length < 3) {
+                throw new IllegalArgumentException("Every boundary ring needs at least 3 points");
+            }
+            for (double[] point : ring) {
+                if (point == null || point.length != 2 || !GeoMath.isValidCoordinate(point[1], point[0])) {
+                    throw new IllegalArgumentException("Boundary points must be [longitude, latitude] pairs within range");
+                }
+            }
+        }
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLat || latitude > maxLat || longitude < minLng || longitude > maxLng) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i : bands[band(latitude)]) {
+            if ((lat1[i] > latitude) != (lat2[i] > latitude)
+                    && longitude < (lng2[i] - lng1[i]) * (latitude - lat1[i]) / (lat2[i] - lat1[i]) + lng1[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private int band(double latitude) {
+        return Math.min(bandCount - 1, Math.max(0, (int) ((latitude - minLat) / bandHeight)));
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public double getMinLng() {
+        return minLng;
+    }
+
+    public double getMaxLng() {
+        return maxLng;
+    }
+
+    // Planar area in square degrees, used to prefer the most specific of several containing polygons
+    public double getArea() {
+        return area;
+    }
+}
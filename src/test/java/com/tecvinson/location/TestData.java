@@ -0,0 +1,98 @@
+package com.tecvinson.location;
+
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.CommonFields;
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.ContinentRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import com.tecvinson.location.repositories.TenantRepository;
+import com.tecvinson.location.services.EncryptionService;
+import com.tecvinson.location.services.ValidationService;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.UUID;
+
+/**
+ * Stores the rows that Spring Boot tests build on: a continent -> country -> state -> city -> area chain to put
+ * locations in, and tenants with working API keys. Import it with {@code @Import(TestData.class)}.
+ */
+@TestComponent
+public class TestData {
+
+	private final ContinentRepository continentRepository;
+	private final CountryRepository countryRepository;
+	private final StateRepository stateRepository;
+	private final CityRepository cityRepository;
+	private final AreaRepository areaRepository;
+	private final TenantRepository tenantRepository;
+	private final ValidationService validationService;
+	private final EncryptionService encryptionService;
+
+	public TestData(ContinentRepository continentRepository, CountryRepository countryRepository,
+					StateRepository stateRepository, CityRepository cityRepository, AreaRepository areaRepository,
+					TenantRepository tenantRepository, ValidationService validationService,
+					EncryptionService encryptionService) {
+		this.continentRepository = continentRepository;
+		this.countryRepository = countryRepository;
+		this.stateRepository = stateRepository;
+		this.cityRepository = cityRepository;
+		this.areaRepository = areaRepository;
+		this.tenantRepository = tenantRepository;
+		this.validationService = validationService;
+		this.encryptionService = encryptionService;
+	}
+
+	// A new chain whose places are named after the prefix; the country code must be unused
+	public Area area(String prefix, String countryCode) {
+		Continent continent = new Continent();
+		continent.setName(prefix + " Continent");
+		continent.setClientId(UUID.randomUUID());
+		continentRepository.save(stamp(continent));
+
+		Country country = new Country();
+		country.setName(prefix + " Country");
+		country.setCountryCode(countryCode);
+		country.setPhoneCode("+" + Math.abs(countryCode.hashCode() % 1000));
+		country.setContinent(continent);
+		countryRepository.save(stamp(country));
+
+		State state = new State();
+		state.setName(prefix + " State");
+		state.setCountry(country);
+		stateRepository.save(stamp(state));
+
+		City city = new City();
+		city.setName(prefix + " City");
+		city.setState(state);
+		cityRepository.save(stamp(city));
+
+		Area area = new Area();
+		area.setName(prefix + " Area");
+		area.setCity(city);
+		return areaRepository.save(stamp(area));
+	}
+
+	// An active tenant that the API key authenticates as
+	public Tenant tenant(String name, String apiKey) {
+		Tenant tenant = new Tenant();
+		tenant.setName(name);
+		tenant.setEmail(name.toLowerCase().replace(' ', '.') + "@example.com");
+		tenant.setApiKey(validationService.hashApiKey(apiKey));
+		tenant.setEncryptedApiKey(encryptionService.encrypt(apiKey));
+		tenant.setActive(true);
+		return tenantRepository.save(stamp(tenant));
+	}
+
+	public static <T extends CommonFields> T stamp(T entity) {
+		entity.setCreatedBy("SYSTEM");
+		entity.setModifiedBy("SYSTEM");
+		return entity;
+	}
+}
@@ -0,0 +1,59 @@
+package com.tecvinson.location.auth;
+
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.exceptions.UnauthorizedException;
+import com.tecvinson.location.services.ValidationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ApiKeyFilterTest {
+
+	private final ValidationService validationService = mock(ValidationService.class);
+	private final TenantContext tenantContext = new TenantContext();
+	private final ApiKeyFilter filter = new ApiKeyFilter(validationService, tenantContext);
+
+	@Test
+	void resolvesAnActiveTenant() throws Exception {
+		Tenant tenant = tenant(true);
+		when(validationService.findTenant("key")).thenReturn(Optional.of(tenant));
+
+		filter("key");
+
+		assertSame(tenant, tenantContext.requireTenant());
+	}
+
+	@Test
+	void treatsADeactivatedTenantLikeAnUnknownKey() throws Exception {
+		when(validationService.findTenant("key")).thenReturn(Optional.of(tenant(false)));
+
+		filter("key");
+
+		UnauthorizedException exception = assertThrows(UnauthorizedException.class, tenantContext::requireTenant);
+		assertEquals("Invalid API Key", exception.getMessage());
+	}
+
+	private void filter(String apiKey) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/locations");
+		request.addHeader(ApiKeyFilter.API_KEY_HEADER, apiKey);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+	}
+
+	private static Tenant tenant(boolean active) {
+		Tenant tenant = new Tenant();
+		tenant.setId(UUID.randomUUID());
+		tenant.setEmail("tenant@example.com");
+		tenant.setActive(active);
+		return tenant;
+	}
+}
@@ -0,0 +1,144 @@
+package com.tecvinson.location.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.TestData;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.Client;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.repositories.ClientRepository;
+import com.tecvinson.location.repositories.LocationRepository;
+import com.tecvinson.location.repositories.TenantRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.tecvinson.location.TestData.stamp;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset pages of the entities paged in the database. Every row shares one creation time, so only the id
+ * tie-break of the (dateCreated, id) cursor keeps pages from skipping or repeating rows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestData.class)
+// A database of its own, so the rows added here do not show up in other tests' pages
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:pagination-test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CursorPaginationTest {
+
+	private static final int ROWS = 11;
+	private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TestData testData;
+	@Autowired
+	private LocationRepository locationRepository;
+	@Autowired
+	private ClientRepository clientRepository;
+	@Autowired
+	private TenantRepository tenantRepository;
+
+	private final Set<UUID> tenantIds = new HashSet<>();
+	private final Set<UUID> clientIds = new HashSet<>();
+	private final Set<UUID> locationIds = new HashSet<>();
+
+	@BeforeAll
+	void seed() {
+		Area area = testData.area("Paging", "PG");
+
+		List<Location> locations = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			Tenant tenant = testData.tenant("Paging Tenant " + i, UUID.randomUUID().toString());
+
+			Client client = new Client();
+			client.setName("Paging Client " + i);
+			client.setTenant(tenant);
+			clientRepository.save(stamp(client));
+
+			Location location = new Location();
+			location.setHouseAddress(Integer.toString(i + 1));
+			location.setStreetName("Paging Street");
+			location.setLatitude(6.5);
+			location.setLongitude(3.4);
+			location.setArea(area);
+			locations.add(stamp(location));
+		}
+		locationRepository.saveAll(locations);
+
+		// Including the rows the application creates at startup
+		for (String table : List.of("Tenants", "Clients", "locations")) {
+			jdbcTemplate.update("UPDATE " + table + " SET date_created = ?", CREATED);
+		}
+		tenantRepository.findAll().forEach(tenant -> tenantIds.add(tenant.getId()));
+		clientRepository.findAll().forEach(client -> clientIds.add(client.getId()));
+		locationRepository.findAll().forEach(location -> locationIds.add(location.getId()));
+	}
+
+	@Test
+	void pagesOfRowsCreatedAtTheSameTimeCoverEveryRowOnce() throws Exception {
+		for (int size : new int[]{1, 3, 100}) {
+			assertEquals(tenantIds, readAllPages("/tenants", size));
+			assertEquals(clientIds, readAllPages("/clients", size));
+			assertEquals(locationIds, readAllPages("/locations", size));
+		}
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		for (String path : List.of("/tenants", "/clients", "/locations", "/areas")) {
+			mockMvc.perform(get(path).param("cursor", "not-a-cursor"))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.message").value("Invalid cursor"));
+		}
+	}
+
+	// Follows nextCursor to the end, failing on a repeated row
+	private Set<UUID> readAllPages(String path, int size) throws Exception {
+		Set<UUID> seen = new HashSet<>();
+		String cursor = null;
+		do {
+			var request = get(path).param("size", Integer.toString(size));
+			if (cursor != null) {
+				request.param("cursor", cursor);
+			}
+			String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+			JsonNode page = objectMapper.readTree(body);
+			for (JsonNode item : page.get("items")) {
+				UUID id = UUID.fromString(item.get("id").asText());
+				if (!seen.add(id)) {
+					throw new AssertionError(path + " returned " + id + " twice with page size " + size);
+				}
+			}
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+		} while (cursor != null);
+		return seen;
+	}
+}
@@ -0,0 +1,125 @@
+package com.tecvinson.location.etag;
+
+import com.tecvinson.location.TestData;
+import com.tecvinson.location.auth.ApiKeyFilter;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.repositories.LocationRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static com.tecvinson.location.TestData.stamp;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs: a request carrying the current entity tag gets an empty 304, and a committed write gives the
+ * affected single resources and lists a new tag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestData.class)
+// A database of its own, so the rows added here do not show up in other tests' pages
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:entity-tags-test;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EntityTagsTest {
+
+	private static final String API_KEY = "entity-tags-api-key";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TestData testData;
+	@Autowired
+	private LocationRepository locationRepository;
+	@Autowired
+	private GazetteerIndex gazetteerIndex;
+
+	private Area area;
+	private Location location;
+
+	@BeforeAll
+	void seed() {
+		testData.tenant("Entity Tags Tenant", API_KEY);
+		area = testData.area("Entity Tags", "ET");
+
+		location = new Location();
+		location.setHouseAddress("1");
+		location.setStreetName("Tag Street");
+		location.setLatitude(6.5);
+		location.setLongitude(3.4);
+		location.setArea(area);
+		locationRepository.save(stamp(location));
+		// The rows were written straight to the repositories, after the startup load
+		gazetteerIndex.load();
+	}
+
+	@Test
+	void matchingIfNoneMatchIsNotModified() throws Exception {
+		for (String path : new String[]{"/locations/" + location.getId(), "/locations", "/areas/" + area.getId(), "/areas"}) {
+			String etag = etag(path);
+			mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified())
+					.andExpect(content().string(""));
+		}
+	}
+
+	@Test
+	void creatingALocationChangesTheLocationListTag() throws Exception {
+		String before = etag("/locations");
+
+		mockMvc.perform(post("/locations")
+						.header(ApiKeyFilter.API_KEY_HEADER, API_KEY)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"houseAddress\":\"2\",\"streetName\":\"Tag Street\",\"latitude\":6.5,"
+								+ "\"longitude\":3.4,\"areaId\":\"" + area.getId() + "\"}"))
+				.andExpect(status().isCreated());
+
+		assertNotEquals(before, etag("/locations"));
+		mockMvc.perform(get("/locations").header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void renamingAnAreaChangesTheTagsOfItsListAndOfLocationsInIt() throws Exception {
+		String areaList = etag("/areas");
+		String areaTag = etag("/areas/" + area.getId());
+		String locationTag = etag("/locations/" + location.getId());
+
+		mockMvc.perform(put("/areas/{id}", area.getId())
+						.header(ApiKeyFilter.API_KEY_HEADER, API_KEY)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Renamed " + UUID.randomUUID() + "\",\"cityId\":\"" + area.getCity().getId() + "\"}"))
+				.andExpect(status().isOk());
+
+		assertNotEquals(areaList, etag("/areas"));
+		assertNotEquals(areaTag, etag("/areas/" + area.getId()));
+		// The location's response carries the area name
+		assertNotEquals(locationTag, etag("/locations/" + location.getId()));
+	}
+
+	private String etag(String path) throws Exception {
+		String etag = mockMvc.perform(get(path)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag, path + " has no ETag");
+		return etag;
+	}
+}
@@ -0,0 +1,72 @@
+package com.tecvinson.location.gazetteer;
+
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.ContinentRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GazetteerIndexTest {
+
+	@Test
+	void loadKeepsChangesCommittedWhileItWasReading() {
+		ContinentRepository continentRepository = mock(ContinentRepository.class);
+		GazetteerIndex index = new GazetteerIndex(continentRepository, mock(CountryRepository.class),
+				mock(StateRepository.class), mock(CityRepository.class), mock(AreaRepository.class),
+				mock(PlatformTransactionManager.class));
+		Continent stale = continent("Afrika");
+		Continent renamed = continent("Africa");
+		renamed.setId(stale.getId());
+		when(continentRepository.findById(stale.getId())).thenReturn(Optional.of(renamed));
+		// The rename commits and is patched in after the load has read the old row
+		when(continentRepository.findAll()).thenAnswer(invocation -> {
+			index.onPlaceChanged(new PlaceChangedEvent(PlaceType.CONTINENT, stale.getId()));
+			return List.of(stale);
+		});
+
+		index.load();
+
+		Gazetteer gazetteer = index.current();
+		assertEquals(1, gazetteer.size());
+		assertEquals("Africa", gazetteer.name(gazetteer.indexOf(stale.getId())));
+	}
+
+	@Test
+	void mergeAddsOnlyPlacesTheSnapshotDoesNotHaveYet() {
+		GazetteerIndex index = new GazetteerIndex(null, null, null, null, null, mock(PlatformTransactionManager.class));
+		Continent edited = continent("Africa");
+		index.replace(List.of(GazetteerPlace.of(edited)));
+		Continent seededBeforeTheEdit = continent("Afrika");
+		seededBeforeTheEdit.setId(edited.getId());
+		Continent added = continent("Europe");
+
+		index.merge(List.of(GazetteerPlace.of(seededBeforeTheEdit), GazetteerPlace.of(added)));
+
+		Gazetteer gazetteer = index.current();
+		assertEquals(2, gazetteer.size());
+		assertEquals("Africa", gazetteer.name(gazetteer.indexOf(edited.getId())));
+		assertEquals("Europe", gazetteer.name(gazetteer.indexOf(added.getId())));
+		assertEquals(2, index.replacements());
+	}
+
+	private static Continent continent(String name) {
+		Continent continent = new Continent();
+		continent.setId(UUID.randomUUID());
+		continent.setName(name);
+		continent.setDateCreated(GazetteerPlaces.START);
+		return continent;
+	}
+}
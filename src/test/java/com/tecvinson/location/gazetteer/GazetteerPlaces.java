@@ -0,0 +1,28 @@
+package com.tecvinson.location.gazetteer;
+
+import com.tecvinson.location.entities.PlaceType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Gazetteer places for tests, each created the given number of minutes after a fixed start, so tests control
+ * the (dateCreated, id) order by the minutes alone.
+ */
+public final class GazetteerPlaces {
+
+	public static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	private GazetteerPlaces() {
+	}
+
+	public static GazetteerPlace place(PlaceType type, String name, UUID parentId, int minutes) {
+		return new GazetteerPlace(UUID.randomUUID(), type, name, parentId, START.plusMinutes(minutes),
+				START.plusMinutes(minutes), null, null, null, null);
+	}
+
+	public static GazetteerPlace country(String name, UUID continentId, int minutes, String countryCode) {
+		return new GazetteerPlace(UUID.randomUUID(), PlaceType.COUNTRY, name, continentId, START.plusMinutes(minutes),
+				START.plusMinutes(minutes), countryCode, null, null, null);
+	}
+}
@@ -0,0 +1,120 @@
+package com.tecvinson.location.gazetteer;
+
+import com.tecvinson.location.entities.PlaceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tecvinson.location.gazetteer.GazetteerPlaces.START;
+import static com.tecvinson.location.gazetteer.GazetteerPlaces.place;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GazetteerTest {
+
+	@Test
+	void pagesFollowTheCreationOrderOfEachType() {
+		List<GazetteerPlace> places = new ArrayList<>();
+		GazetteerPlace continent = place(PlaceType.CONTINENT, "Africa", null, 0);
+		places.add(continent);
+		for (int i = 9; i >= 0; i--) {
+			places.add(place(PlaceType.COUNTRY, "Country " + i, continent.id(), i));
+		}
+		Gazetteer gazetteer = Gazetteer.build(places);
+
+		int[] first = gazetteer.page(PlaceType.COUNTRY, null, null, 4);
+		assertEquals(List.of("Country 0", "Country 1", "Country 2", "Country 3"), names(gazetteer, first));
+
+		int last = first[first.length - 1];
+		int[] second = gazetteer.page(PlaceType.COUNTRY, gazetteer.dateCreated(last), gazetteer.id(last), 4);
+		assertEquals(List.of("Country 4", "Country 5", "Country 6", "Country 7"), names(gazetteer, second));
+		assertEquals(1, gazetteer.page(PlaceType.CONTINENT, null, null, 4).length);
+		assertEquals(0, gazetteer.page(PlaceType.AREA, null, null, 4).length);
+	}
+
+	@Test
+	void resolvesAncestorsAndDescendants() {
+		GazetteerPlace continent = place(PlaceType.CONTINENT, "Europe", null, 0);
+		GazetteerPlace country = place(PlaceType.COUNTRY, "France", continent.id(), 1);
+		GazetteerPlace state = place(PlaceType.STATE, "Ile-de-France", country.id(), 2);
+		GazetteerPlace paris = place(PlaceType.CITY, "Paris", state.id(), 3);
+		GazetteerPlace versailles = place(PlaceType.CITY, "Versailles", state.id(), 4);
+		GazetteerPlace marais = place(PlaceType.AREA, "Le Marais", paris.id(), 5);
+		Gazetteer gazetteer = Gazetteer.build(List.of(marais, versailles, paris, state, country, continent));
+
+		int area = gazetteer.indexOf(marais.id(), PlaceType.AREA);
+		assertEquals("Paris", gazetteer.ancestorName(area, PlaceType.CITY));
+		assertEquals("France", gazetteer.ancestorName(area, PlaceType.COUNTRY));
+		assertEquals(Gazetteer.NONE, gazetteer.indexOf(marais.id(), PlaceType.CITY));
+
+		int countrySlot = gazetteer.indexOf(country.id());
+		assertEquals(List.of("Paris", "Versailles"), names(gazetteer, gazetteer.descendants(countrySlot, PlaceType.CITY)));
+		assertEquals(List.of("Le Marais"), names(gazetteer, gazetteer.descendants(countrySlot, PlaceType.AREA)));
+		assertEquals(List.of("Paris", "Versailles"), names(gazetteer, gazetteer.findByName(PlaceType.CITY, "I")));
+	}
+
+	@Test
+	void withReplacesAPlaceAndKeepsTheOriginalSnapshot() {
+		GazetteerPlace state = place(PlaceType.STATE, "Lagos", null, 0);
+		GazetteerPlace other = place(PlaceType.STATE, "Ogun", null, 1);
+		GazetteerPlace city = place(PlaceType.CITY, "Ikeja", state.id(), 2);
+		Gazetteer before = Gazetteer.build(List.of(state, other, city));
+
+		GazetteerPlace moved = new GazetteerPlace(city.id(), PlaceType.CITY, "Abeokuta", other.id(),
+				city.dateCreated(), city.dateCreated(), null, null, null, null);
+		Gazetteer after = before.with(moved);
+
+		assertEquals(3, after.size());
+		assertEquals("Ogun", after.ancestorName(after.indexOf(city.id()), PlaceType.STATE));
+		assertEquals("Lagos", before.ancestorName(before.indexOf(city.id()), PlaceType.STATE));
+		assertArrayEquals(new int[0], after.descendants(after.indexOf(state.id()), PlaceType.CITY));
+	}
+
+	@Test
+	void withInsertsNewAndReorderedPlacesAtTheirPositionInTheOrder() {
+		GazetteerPlace state = place(PlaceType.STATE, "Lagos", null, 0);
+		GazetteerPlace first = place(PlaceType.CITY, "Ikeja", state.id(), 1);
+		GazetteerPlace last = place(PlaceType.CITY, "Epe", state.id(), 5);
+		Gazetteer before = Gazetteer.build(List.of(state, first, last));
+
+		Gazetteer inserted = before.with(place(PlaceType.CITY, "Badagry", state.id(), 3));
+		assertEquals(List.of("Ikeja", "Badagry", "Epe"), names(inserted, inserted.page(PlaceType.CITY, null, null, 10)));
+		assertEquals(List.of("Ikeja", "Badagry", "Epe"),
+				names(inserted, inserted.descendants(inserted.indexOf(state.id()), PlaceType.CITY)));
+
+		GazetteerPlace backdated = new GazetteerPlace(last.id(), PlaceType.CITY, "Epe", state.id(),
+				START, START, null, null, null, null);
+		Gazetteer reordered = inserted.with(backdated);
+		assertEquals(List.of("Epe", "Ikeja", "Badagry"), names(reordered, reordered.page(PlaceType.CITY, null, null, 10)));
+		assertEquals(1, reordered.page(PlaceType.STATE, null, null, 10).length);
+		assertEquals("Lagos", reordered.ancestorName(reordered.indexOf(last.id()), PlaceType.STATE));
+		assertEquals(3, before.size());
+	}
+
+	@Test
+	void renamedAndAddedPlacesShareTheStringOfAnEqualName() {
+		GazetteerPlace state = place(PlaceType.STATE, "Lagos", null, 0);
+		GazetteerPlace city = place(PlaceType.CITY, "Ikeja", state.id(), 1);
+		Gazetteer before = Gazetteer.build(List.of(state, city));
+
+		// Same position, so the rename takes the in-place path
+		Gazetteer renamed = before.with(new GazetteerPlace(city.id(), PlaceType.CITY, new String("Lagos"), state.id(),
+				city.dateCreated(), city.dateCreated(), null, null, null, null));
+		assertSame(renamed.name(renamed.indexOf(state.id())), renamed.name(renamed.indexOf(city.id())));
+
+		GazetteerPlace area = place(PlaceType.AREA, new String("Lagos"), city.id(), 2);
+		Gazetteer added = renamed.with(area);
+		assertSame(added.name(added.indexOf(state.id())), added.name(added.indexOf(area.id())));
+		assertEquals(List.of("Lagos"), names(added, added.findByName(PlaceType.AREA, "lag")));
+	}
+
+	private static List<String> names(Gazetteer gazetteer, int[] slots) {
+		List<String> names = new ArrayList<>();
+		for (int slot : slots) {
+			names.add(gazetteer.name(slot));
+		}
+		return names;
+	}
+}
@@ -0,0 +1,73 @@
+package com.tecvinson.location.gazetteer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeoNamesDumpTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void parsesSegmentsInFileOrder() throws IOException {
+		StringBuilder dump = new StringBuilder();
+		for (int i = 1; i <= 200; i++) {
+			dump.append(line(i, "Zürich " + i, i % 3 == 0 ? "A" : "P", i % 3 == 0 ? "ADM1" : "PPL", i * 10L));
+		}
+		Path file = directory.resolve("CH.txt");
+		Files.writeString(file, dump, StandardCharsets.UTF_8);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			// Segments shorter than a line still end on line breaks only
+			List<GeoNamesDump.Entry> entries = GeoNamesDump.readPlaces(file, "P", entry -> entry.population() >= 100, pool, 97);
+
+			List<Long> ids = new ArrayList<>();
+			entries.forEach(entry -> ids.add(entry.geonameId()));
+			List<Long> expected = new ArrayList<>();
+			for (long i = 10; i <= 200; i++) {
+				if (i % 3 != 0) {
+					expected.add(i);
+				}
+			}
+			assertEquals(expected, ids);
+
+			GeoNamesDump.Entry first = entries.get(0);
+			assertEquals("Zürich 10", first.name());
+			assertEquals('P', first.featureClass());
+			assertEquals("CH", first.countryCode());
+			assertEquals("ZH", first.admin1());
+			assertEquals(47.5, first.latitude());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void skipsCommentsAndMalformedLinesInCountryInfo() throws IOException {
+		Path file = directory.resolve("countryInfo.txt");
+		Files.writeString(file, "#ISO\tISO3\n"
+				+ "CH\tCHE\t756\tSZ\tSwitzerland\tBern\t41290\t8516543\tEU\t.ch\tCHF\tFranc\t41\t####\t\tde-CH\t2658434\tDE\t\n"
+				+ "broken line\n", StandardCharsets.UTF_8);
+
+		List<GeoNamesDump.CountryInfo> countries = GeoNamesDump.readCountryInfo(file);
+
+		assertEquals(List.of(new GeoNamesDump.CountryInfo("CH", "Switzerland", "EU", "41")), countries);
+	}
+
+	private static String line(long id, String name, String featureClass, String featureCode, long population) {
+		return String.join("\t", String.valueOf(id), name, name, "alt one,alt two", "47.5", "8.5", featureClass,
+				featureCode, "CH", "", "ZH", "112", "", "", String.valueOf(population), "", "420", "Europe/Zurich",
+				"2024-01-01") + "\n";
+	}
+}
@@ -0,0 +1,268 @@
+package com.tecvinson.location.querybudget;
+
+import com.tecvinson.location.auth.ApiKeyFilter;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.City;
+import com.tecvinson.location.entities.Client;
+import com.tecvinson.location.entities.CommonFields;
+import com.tecvinson.location.entities.Continent;
+import com.tecvinson.location.entities.Country;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.State;
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import com.tecvinson.location.repositories.ClientRepository;
+import com.tecvinson.location.repositories.ContinentRepository;
+import com.tecvinson.location.repositories.CountryRepository;
+import com.tecvinson.location.repositories.LocationRepository;
+import com.tecvinson.location.repositories.StateRepository;
+import com.tecvinson.location.repositories.TenantRepository;
+import com.tecvinson.location.services.EncryptionService;
+import com.tecvinson.location.services.PlaceClosureService;
+import com.tecvinson.location.services.ValidationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the endpoints whose responses carry the names of parent places or tenants. A budget that
+ * does not depend on how many rows come back is the point: an association that starts loading row by row pushes
+ * a list endpoint far past it. Every test starts from the same state whatever the order they run in: the
+ * second-level cache is empty, so cached hierarchy entities are counted as selects, and the API key is already
+ * cached, as it is for all but the first request of a tenant.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTest {
+
+	private static final String API_KEY = "query-budget-api-key";
+
+	// Enough areas and tenants that one select per row would be well over every budget below
+	private static final int AREAS = 20;
+	private static final int LOCATIONS_PER_AREA = 2;
+	private static final int TENANTS = 10;
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ContinentRepository continentRepository;
+	@Autowired
+	private CountryRepository countryRepository;
+	@Autowired
+	private StateRepository stateRepository;
+	@Autowired
+	private CityRepository cityRepository;
+	@Autowired
+	private AreaRepository areaRepository;
+	@Autowired
+	private LocationRepository locationRepository;
+	@Autowired
+	private TenantRepository tenantRepository;
+	@Autowired
+	private ClientRepository clientRepository;
+	@Autowired
+	private ValidationService validationService;
+	@Autowired
+	private EncryptionService encryptionService;
+	@Autowired
+	private PlaceClosureService placeClosureService;
+	@Autowired
+	private GazetteerIndex gazetteerIndex;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Country country;
+	private Area area;
+	// Where createLocation adds its row, so the other tests see the same rows in the first area whatever the order
+	private Area lastArea;
+	private Location location;
+	private Client client;
+
+	@BeforeAll
+	void seed() {
+		Continent continent = new Continent();
+		continent.setName("Budget Continent");
+		continent.setClientId(UUID.randomUUID());
+		continentRepository.save(stamp(continent));
+
+		country = new Country();
+		country.setName("Budget Country");
+		country.setCountryCode("BC");
+		country.setPhoneCode("+999");
+		country.setContinent(continent);
+		countryRepository.save(stamp(country));
+
+		State state = new State();
+		state.setName("Budget State");
+		state.setCountry(country);
+		stateRepository.save(stamp(state));
+
+		List<City> cities = new ArrayList<>();
+		List<Area> areas = new ArrayList<>();
+		List<Location> locations = new ArrayList<>();
+		for (int i = 0; i < AREAS; i++) {
+			if (i % 5 == 0) {
+				City city = new City();
+				city.setName("Budget City " + cities.size());
+				city.setState(state);
+				cities.add(stamp(city));
+			}
+			Area next = new Area();
+			next.setName("Budget Area " + i);
+			next.setCity(cities.get(cities.size() - 1));
+			areas.add(stamp(next));
+			for (int j = 0; j < LOCATIONS_PER_AREA; j++) {
+				Location row = new Location();
+				row.setHouseAddress(Integer.toString(j + 1));
+				row.setStreetName("Budget Street");
+				row.setLatitude(6.5 + i * 0.01);
+				row.setLongitude(3.4 + j * 0.01);
+				row.setArea(next);
+				locations.add(stamp(row));
+			}
+		}
+		cityRepository.saveAll(cities);
+		areaRepository.saveAll(areas);
+		locationRepository.saveAll(locations);
+		area = areas.get(0);
+		lastArea = areas.get(AREAS - 1);
+		location = locations.get(0);
+
+		for (int i = 0; i < TENANTS; i++) {
+			String apiKey = i == 0 ? API_KEY : UUID.randomUUID().toString();
+			Tenant tenant = new Tenant();
+			tenant.setName("Budget Tenant " + i);
+			tenant.setEmail("budget" + i + "@example.com");
+			tenant.setApiKey(validationService.hashApiKey(apiKey));
+			tenant.setEncryptedApiKey(encryptionService.encrypt(apiKey));
+			tenant.setActive(true);
+			tenantRepository.save(stamp(tenant));
+
+			Client tenantClient = new Client();
+			tenantClient.setName("Budget Client " + i);
+			tenantClient.setTenant(tenant);
+			clientRepository.save(stamp(tenantClient));
+			if (i == 0) {
+				client = tenantClient;
+			}
+		}
+
+		// The startup loads ran before any of this existed
+		placeClosureService.backfill();
+		gazetteerIndex.load();
+		validationService.findTenant(API_KEY);
+	}
+
+	@BeforeEach
+	void evictSecondLevelCache() {
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	@QueryBudget(1)
+	void pageOfLocationsIsOneSelect() throws Exception {
+		mockMvc.perform(get("/locations").param("size", "50"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()", greaterThanOrEqualTo(AREAS * LOCATIONS_PER_AREA)));
+	}
+
+	@Test
+	@QueryBudget(5)
+	void pageOfLocationsOutsideTheGazetteerLoadsParentsInBatches() throws Exception {
+		List<GazetteerPlace> places = gazetteerIndex.current().places();
+		gazetteerIndex.replace(List.of());
+		try {
+			// Area, city, state and country proxies each initialise in one batch for the whole page
+			mockMvc.perform(get("/locations").param("size", "50"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.items[0].countryName").value("Budget Country"));
+		} finally {
+			gazetteerIndex.replace(places);
+		}
+	}
+
+	@Test
+	@QueryBudget(2)
+	void locationById() throws Exception {
+		// One select for the entity tag, one for the location
+		mockMvc.perform(get("/locations/{id}", location.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.cityName").value("Budget City 0"));
+	}
+
+	@Test
+	@QueryBudget(2)
+	void locationsOfAnArea() throws Exception {
+		// The area, then its locations with the parent chain fetched in the same statement
+		mockMvc.perform(get("/locations/getbyarea/{areaId}", area.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(LOCATIONS_PER_AREA));
+	}
+
+	@Test
+	@QueryBudget(2)
+	void locationsUnderACountry() throws Exception {
+		// The country, then the locations found through the closure table
+		mockMvc.perform(get("/locations/getbycountry/{countryId}", country.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()", greaterThanOrEqualTo(AREAS * LOCATIONS_PER_AREA)));
+	}
+
+	@Test
+	@QueryBudget(3)
+	void createLocation() throws Exception {
+		// The area, the insert, and the area's path for the spatial index, which has not seen this area yet
+		mockMvc.perform(post("/locations")
+						.header(ApiKeyFilter.API_KEY_HEADER, API_KEY)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"houseAddress\":\"7\",\"streetName\":\"New Street\",\"latitude\":6.5,"
+								+ "\"longitude\":3.4,\"areaId\":\"" + lastArea.getId() + "\"}"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.areaName").value(lastArea.getName()));
+	}
+
+	@Test
+	@QueryBudget(1)
+	void pageOfClientsIsOneSelect() throws Exception {
+		mockMvc.perform(get("/clients").param("size", "50"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(TENANTS));
+	}
+
+	@Test
+	@QueryBudget(1)
+	void clientById() throws Exception {
+		mockMvc.perform(get("/clients/{id}", client.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.tenantName").value("Budget Tenant 0"));
+	}
+
+	private static <T extends CommonFields> T stamp(T entity) {
+		entity.setCreatedBy("SYSTEM");
+		entity.setModifiedBy("SYSTEM");
+		return entity;
+	}
+}
@@ -0,0 +1,21 @@
+package com.tecvinson.location.querybudget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a test may cause, counted by Hibernate statistics from the first to the last line of the
+ * test method. Setup in @BeforeAll and @BeforeEach methods is not counted, so keep the test body to the request
+ * being measured.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+	int value();
+}
@@ -0,0 +1,54 @@
+package com.tecvinson.location.querybudget;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Enforces {@link QueryBudget}: resets the session factory's statistics just before the test method runs and fails
+ * the test if more statements were prepared by the time it returns. Statistics are global to the session factory,
+ * so budgeted tests must not run while background work is querying the same database.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		if (budget(context) == null) {
+			return;
+		}
+		Statistics statistics = statistics(context);
+		if (!statistics.isStatisticsEnabled()) {
+			throw new IllegalStateException("Query budgets need hibernate.generate_statistics=true");
+		}
+		statistics.clear();
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		QueryBudget budget = budget(context);
+		// A test that already failed reports its own error rather than a budget overrun
+		if (budget == null || context.getExecutionException().isPresent()) {
+			return;
+		}
+		long statements = statistics(context).getPrepareStatementCount();
+		if (statements > budget.value()) {
+			throw new AssertionFailedError(String.format("%s ran %d SQL statements, over its budget of %d",
+					context.getDisplayName(), statements, budget.value()), budget.value(), statements);
+		}
+	}
+
+	private static QueryBudget budget(ExtensionContext context) {
+		return AnnotationSupport.findAnnotation(context.getElement(), QueryBudget.class).orElse(null);
+	}
+
+	private static Statistics statistics(ExtensionContext context) {
+		return SpringExtension.getApplicationContext(context).getBean(EntityManagerFactory.class)
+				.unwrap(SessionFactory.class).getStatistics();
+	}
+}
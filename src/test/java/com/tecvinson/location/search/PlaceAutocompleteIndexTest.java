@@ -0,0 +1,72 @@
+package com.tecvinson.location.search;
+
+import com.tecvinson.location.dtos.place.PlaceRef;
+import com.tecvinson.location.dtos.place.PlaceSuggestion;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.LocationSavedEvent;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+import com.tecvinson.location.spatial.LocationSpatialIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.tecvinson.location.gazetteer.GazetteerPlaces.place;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlaceAutocompleteIndexTest {
+
+	private final GazetteerPlace state = place(PlaceType.STATE, "Lagos", null, 0);
+	private final GazetteerPlace ikeja = place(PlaceType.CITY, "Ikeja", state.id(), 1);
+	private final GazetteerPlace island = place(PlaceType.AREA, "Lagos Island", ikeja.id(), 2);
+	private final GazetteerPlace lagosCity = place(PlaceType.CITY, "Lagos City", state.id(), 3);
+
+	private final GazetteerIndex gazetteerIndex = mock(GazetteerIndex.class);
+	private final LocationSpatialIndex locationSpatialIndex = mock(LocationSpatialIndex.class);
+	private final PlaceAutocompleteIndex index = new PlaceAutocompleteIndex(gazetteerIndex, locationSpatialIndex, 20);
+
+	@AfterEach
+	void tearDown() {
+		index.shutdown();
+	}
+
+	@Test
+	void buildsSuggestionsFromTheGazetteerRankedByLocationsUnderThem() {
+		when(gazetteerIndex.current()).thenReturn(Gazetteer.build(List.of(state, ikeja, island, lagosCity)));
+		when(locationSpatialIndex.countByArea()).thenReturn(Map.of(island.id(), 7L));
+
+		index.load();
+
+		List<PlaceSuggestion> suggestions = index.complete("lagos", null, 10);
+		assertEquals(List.of("Lagos", "Lagos Island", "Lagos City"), suggestions.stream().map(PlaceSuggestion::getName).toList());
+		assertEquals(List.of(7L, 7L, 0L), suggestions.stream().map(PlaceSuggestion::getUsage).toList());
+		assertEquals(List.of("Ikeja", "Lagos"), suggestions.get(1).getParents().stream().map(PlaceRef::getName).toList());
+		assertEquals("Ikeja", index.complete("ike", PlaceType.CITY, 10).get(0).getName());
+	}
+
+	@Test
+	void savingALocationRebuildsWithTheNewUsage() throws InterruptedException {
+		GazetteerPlace cityArea = place(PlaceType.AREA, "Lagos City Centre", lagosCity.id(), 4);
+		when(gazetteerIndex.current()).thenReturn(Gazetteer.build(List.of(state, ikeja, island, lagosCity, cityArea)));
+		when(locationSpatialIndex.countByArea()).thenReturn(Map.of(island.id(), 2L));
+		index.load();
+		assertEquals("Lagos Island", index.complete("lagos", PlaceType.AREA, 1).get(0).getName());
+
+		when(locationSpatialIndex.countByArea()).thenReturn(Map.of(island.id(), 2L, cityArea.id(), 3L));
+		index.onLocationSaved(new LocationSavedEvent(UUID.randomUUID(), 6.45, 3.39, cityArea.id(), "1", "Marina", null));
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!index.complete("lagos", PlaceType.AREA, 1).get(0).getName().equals("Lagos City Centre")) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("The saved location was not counted");
+			}
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.tecvinson.location.search;
+
+import com.tecvinson.location.dtos.place.PlaceSuggestion;
+import com.tecvinson.location.entities.PlaceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaceFuzzyIndexTest {
+
+	private final PlaceFuzzyIndex index = new PlaceFuzzyIndex(List.of(
+			suggestion(PlaceType.CITY, "Lagos", 10),
+			suggestion(PlaceType.STATE, "Lagos", 5),
+			suggestion(PlaceType.CITY, "Lugano", 1),
+			suggestion(PlaceType.AREA, "Victoria Island", 3),
+			suggestion(PlaceType.CITY, "Abuja", 8)));
+
+	@Test
+	void findsMisspelledNamesClosestFirstThenByUsage() {
+		List<PlaceFuzzyIndex.Match> matches = index.search("Lagis", null, 10, 2);
+
+		assertEquals(2, matches.size());
+		assertEquals(PlaceType.CITY, matches.get(0).place().getType());
+		assertEquals(PlaceType.STATE, matches.get(1).place().getType());
+		assertTrue(matches.stream().allMatch(match -> match.place().getName().equals("Lagos")));
+	}
+
+	@Test
+	void matchesSingleWordsOfLongerNamesAndFiltersByType() {
+		assertEquals("Victoria Island", index.search("Victorai", null, 10, 2).get(0).place().getName());
+		assertEquals(1, index.search("Lagos", PlaceType.STATE, 10, 1).size());
+		assertTrue(index.search("Kano", null, 10, 1).isEmpty());
+	}
+
+	private static PlaceSuggestion suggestion(PlaceType type, String name, long usage) {
+		return new PlaceSuggestion(type, UUID.randomUUID(), name, List.of(), usage);
+	}
+}
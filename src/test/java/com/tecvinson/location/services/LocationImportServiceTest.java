@@ -0,0 +1,220 @@
+package com.tecvinson.location.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.auth.TenantContext;
+import com.tecvinson.location.dtos.location.ImportFormat;
+import com.tecvinson.location.dtos.location.ImportJobResponse;
+import com.tecvinson.location.dtos.location.ImportRowError;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.Location;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.entities.Tenant;
+import com.tecvinson.location.gazetteer.Gazetteer;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+import com.tecvinson.location.mappers.LocationMapper;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.LocationRepository;
+import com.tecvinson.location.spatial.BoundaryIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocationImportServiceTest {
+
+	private static final UUID AREA_ID = UUID.randomUUID();
+
+	private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+	private final LocationRepository locationRepository = mock(LocationRepository.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	// Every batch passed to saveAll, as it was when it was passed
+	private final List<List<Location>> saved = new ArrayList<>();
+	private LocationImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		when(locationRepository.saveAll(anyList())).thenAnswer(this::save);
+		importService = importService(1000, 10_000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		importService.shutdown();
+		validatorFactory.close();
+	}
+
+	@Test
+	void importsCsvWithQuotedFieldsAndReportsBadRowsByLine() throws Exception {
+		String csv = """
+				id,houseAddress,streetName,freeText,latitude,longitude,areaId
+				x,12,"Allen Avenue, Ikeja","Blue gate, ""the"" one",6.6,3.35,%1$s
+				x,13,"Multi
+				line",,6.6,3.35,%1$s
+				x,,No House,,6.6,3.35,%1$s
+				x,14,Bad Coordinates,,north,3.35,%1$s
+				x,15,Bad Area,,6.6,3.35,not-a-uuid
+				x,16,Unknown Area,,6.6,3.35,%2$s
+				""".formatted(AREA_ID, UUID.randomUUID());
+
+		ImportJobResponse job = finish(importService.startImport(file(csv), ImportFormat.CSV));
+
+		assertEquals(ImportJobResponse.Status.COMPLETED, job.getStatus());
+		assertEquals(6, job.getRowsRead());
+		assertEquals(2, job.getImported());
+		assertEquals(4, job.getRejected());
+		List<Location> locations = saved.get(0);
+		assertEquals("Allen Avenue, Ikeja", locations.get(0).getStreetName());
+		assertEquals("Blue gate, \"the\" one", locations.get(0).getFreeText());
+		assertEquals(AREA_ID, locations.get(0).getArea().getId());
+		assertEquals("Multi\nline", locations.get(1).getStreetName());
+		// The quoted line break makes the row after it start on line 5
+		assertErrors(List.of(
+				new ImportRowError(5, "House Address Cannot be blank"),
+				new ImportRowError(6, "Invalid coordinates"),
+				new ImportRowError(7, "Invalid Area ID"),
+				new ImportRowError(8, "Area not Found")), importService.getErrors(job.getId()));
+	}
+
+	@Test
+	void importsNdjsonAndReportsBadRowsByLine() throws Exception {
+		String ndjson = """
+				{"houseAddress":"1","streetName":"Broad Street","latitude":6.45,"longitude":3.39,"areaId":"%1$s"}
+
+				{"houseAddress":"2","streetName":
+				{"houseAddress":"3","streetName":"Broad Street","latitude":95,"longitude":3.39,"areaId":"%1$s"}
+				{"houseAddress":"4","streetName":"Broad Street","latitude":6.45,"longitude":3.39,"areaId":"%2$s"}
+				""".formatted(AREA_ID, UUID.randomUUID());
+
+		ImportJobResponse job = finish(importService.startImport(file(ndjson), ImportFormat.NDJSON));
+
+		assertEquals(ImportJobResponse.Status.COMPLETED, job.getStatus());
+		assertEquals(4, job.getRowsRead());
+		assertEquals(1, job.getImported());
+		assertEquals("Broad Street", saved.get(0).get(0).getStreetName());
+		List<ImportRowError> errors = importService.getErrors(job.getId());
+		assertEquals(List.of(3L, 4L, 5L), errors.stream().map(ImportRowError::getLine).toList());
+		assertTrue(errors.get(0).getError().startsWith("Invalid JSON"), errors.get(0).getError());
+		assertEquals("Latitude must be at most 90.0", errors.get(1).getError());
+		assertEquals("Area not Found", errors.get(2).getError());
+	}
+
+	@Test
+	void countsEveryRejectedRowButReportsOnlyUpToTheCap() throws Exception {
+		importService.shutdown();
+		importService = importService(1000, 2);
+		StringBuilder csv = new StringBuilder("houseAddress,streetName,latitude,longitude,areaId\n");
+		for (int i = 0; i < 5; i++) {
+			csv.append(i).append(",Street,6.6,3.35,").append(UUID.randomUUID()).append('\n');
+		}
+
+		ImportJobResponse job = finish(importService.startImport(file(csv.toString()), ImportFormat.CSV));
+
+		assertEquals(5, job.getRejected());
+		assertErrors(List.of(new ImportRowError(2, "Area not Found"), new ImportRowError(3, "Area not Found")),
+				importService.getErrors(job.getId()));
+	}
+
+	@Test
+	void aChunkThatCannotBeStoredIsRolledBackAndReportedRowByRow() throws Exception {
+		importService.shutdown();
+		importService = importService(2, 10_000);
+		// The second chunk of two rows fails
+		doAnswer(this::save).doThrow(new IllegalStateException("Duplicate entry")).doAnswer(this::save)
+				.when(locationRepository).saveAll(anyList());
+		StringBuilder csv = new StringBuilder("houseAddress,streetName,latitude,longitude,areaId\n");
+		for (int i = 0; i < 5; i++) {
+			csv.append(i).append(",Street,6.6,3.35,").append(AREA_ID).append('\n');
+		}
+
+		ImportJobResponse job = finish(importService.startImport(file(csv.toString()), ImportFormat.CSV));
+
+		assertEquals(ImportJobResponse.Status.COMPLETED, job.getStatus());
+		assertEquals(3, job.getImported());
+		assertEquals(2, job.getRejected());
+		verify(transactionManager, times(1)).rollback(any());
+		assertErrors(List.of(new ImportRowError(4, "Could not be stored: Duplicate entry"),
+				new ImportRowError(5, "Could not be stored: Duplicate entry")), importService.getErrors(job.getId()));
+		assertEquals(List.of("0", "1", "4"), saved.stream().flatMap(List::stream).map(Location::getHouseAddress).toList());
+	}
+
+	@Test
+	void aCsvWithoutARequiredColumnFailsTheImport() throws Exception {
+		ImportJobResponse job = finish(importService.startImport(file("houseAddress,streetName,latitude\n1,Street,6.6\n"), ImportFormat.CSV));
+
+		assertEquals(ImportJobResponse.Status.FAILED, job.getStatus());
+		assertEquals("The CSV header has no longitude column", job.getMessage());
+		assertEquals(0, job.getImported());
+	}
+
+	private LocationImportService importService(int chunkSize, int maxReportedErrors) {
+		GazetteerIndex gazetteerIndex = mock(GazetteerIndex.class);
+		LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0);
+		when(gazetteerIndex.current()).thenReturn(Gazetteer.build(List.of(
+				new GazetteerPlace(AREA_ID, PlaceType.AREA, "Ikeja", null, created, created, null, null, null, null))));
+		AreaRepository areaRepository = mock(AreaRepository.class);
+		when(areaRepository.getReferenceById(any())).thenAnswer(invocation -> {
+			Area area = new Area();
+			area.setId(invocation.getArgument(0));
+			return area;
+		});
+		Tenant tenant = new Tenant();
+		tenant.setId(UUID.randomUUID());
+		TenantContext tenantContext = mock(TenantContext.class);
+		when(tenantContext.requireTenant()).thenReturn(tenant);
+
+		return new LocationImportService(locationRepository, areaRepository, new LocationMapper(gazetteerIndex),
+				gazetteerIndex, mock(BoundaryIndex.class), tenantContext, validatorFactory.getValidator(), new ObjectMapper(),
+				mock(ApplicationEventPublisher.class), transactionManager, chunkSize, maxReportedErrors, 60, 1);
+	}
+
+	private List<Location> save(InvocationOnMock invocation) {
+		List<Location> batch = new ArrayList<>(invocation.getArgument(0));
+		saved.add(batch);
+		return batch;
+	}
+
+	private static MockMultipartFile file(String content) {
+		return new MockMultipartFile("file", "locations", "text/plain", content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// Polls the job until the background import is done
+	private ImportJobResponse finish(ImportJobResponse started) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			ImportJobResponse job = importService.getJob(started.getId());
+			if (job.getStatus() != ImportJobResponse.Status.RUNNING) {
+				return job;
+			}
+			Thread.sleep(10);
+		}
+		return fail("Import " + started.getId() + " did not finish");
+	}
+
+	private static void assertErrors(List<ImportRowError> expected, List<ImportRowError> actual) {
+		assertEquals(expected.stream().map(error -> error.getLine() + ": " + error.getError()).toList(),
+				actual.stream().map(error -> error.getLine() + ": " + error.getError()).toList());
+	}
+}
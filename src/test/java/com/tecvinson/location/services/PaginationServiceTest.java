@@ -0,0 +1,52 @@
+package com.tecvinson.location.services;
+
+import com.tecvinson.location.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaginationServiceTest {
+
+	private final PaginationService paginationService = new PaginationService(20, 100);
+
+	@Test
+	void cursorsRoundTrip() {
+		LocalDateTime dateCreated = LocalDateTime.of(2024, 1, 1, 12, 30, 15, 123456000);
+		UUID id = UUID.randomUUID();
+
+		PaginationService.Cursor cursor = paginationService.decodeCursor(paginationService.encodeCursor(dateCreated, id));
+
+		assertEquals(new PaginationService.Cursor(dateCreated, id), cursor);
+		assertNull(paginationService.decodeCursor(null));
+		assertNull(paginationService.decodeCursor(" "));
+		assertEquals(40, paginationService.decodeOffsetCursor(paginationService.encodeOffsetCursor(40)));
+	}
+
+	@Test
+	void malformedCursorsAreBadRequests() {
+		assertThrows(BadRequestException.class, () -> paginationService.decodeCursor("not base64!"));
+		assertThrows(BadRequestException.class, () -> paginationService.decodeCursor(encode("no separator")));
+		assertThrows(BadRequestException.class, () -> paginationService.decodeCursor(encode("yesterday|" + UUID.randomUUID())));
+		assertThrows(BadRequestException.class, () -> paginationService.decodeCursor(encode("2024-01-01T00:00|not-a-uuid")));
+		assertThrows(BadRequestException.class, () -> paginationService.decodeOffsetCursor(encode("-1")));
+		assertThrows(BadRequestException.class, () -> paginationService.decodeOffsetCursor(encode("ten")));
+	}
+
+	@Test
+	void pageSizeDefaultsAndIsCapped() {
+		assertEquals(20, paginationService.resolvePageSize(null));
+		assertEquals(100, paginationService.resolvePageSize(500));
+		assertThrows(BadRequestException.class, () -> paginationService.resolvePageSize(0));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
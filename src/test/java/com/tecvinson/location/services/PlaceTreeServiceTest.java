@@ -0,0 +1,69 @@
+package com.tecvinson.location.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.gazetteer.GazetteerIndex;
+import com.tecvinson.location.gazetteer.GazetteerPlace;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.UUID;
+
+import static com.tecvinson.location.gazetteer.GazetteerPlaces.country;
+import static com.tecvinson.location.gazetteer.GazetteerPlaces.place;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PlaceTreeServiceTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final GazetteerPlace europe = place(PlaceType.CONTINENT, "Europe", null, 0);
+	private final GazetteerPlace france = country("France", europe.id(), 1, "FR");
+	private final GazetteerPlace ile = place(PlaceType.STATE, "Ile-de-France", france.id(), 2);
+	private final GazetteerPlace paris = place(PlaceType.CITY, "Paris", ile.id(), 3);
+	private final GazetteerPlace marais = place(PlaceType.AREA, "Le Marais", paris.id(), 4);
+	private final GazetteerPlace asia = place(PlaceType.CONTINENT, "Asia", null, 5);
+
+	private final PlaceTreeService placeTreeService = new PlaceTreeService(index(), objectMapper);
+
+	@Test
+	void writesEveryContinentWithAllLevelsBelowIt() throws Exception {
+		JsonNode tree = write(null, null);
+
+		assertEquals(2, tree.size());
+		JsonNode area = tree.get(0).get("children").get(0).get("children").get(0).get("children").get(0).get("children").get(0);
+		assertEquals("Le Marais", area.get("name").asText());
+		assertEquals("AREA", area.get("type").asText());
+		assertEquals(0, area.get("children").size());
+		assertEquals("Asia", tree.get(1).get("name").asText());
+		assertEquals(0, tree.get(1).get("children").size());
+	}
+
+	@Test
+	void startsAtTheRootAndStopsAtTheDepth() throws Exception {
+		JsonNode tree = write(france.id(), 1);
+
+		assertEquals(1, tree.size());
+		assertEquals(france.id().toString(), tree.get(0).get("id").asText());
+		assertEquals("FR", tree.get(0).get("countryCode").asText());
+		JsonNode state = tree.get(0).get("children").get(0);
+		assertEquals("Ile-de-France", state.get("name").asText());
+		// Not expanded, as opposed to expanded with nothing below it
+		assertFalse(state.has("children"));
+	}
+
+	private JsonNode write(UUID rootId, Integer depth) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		placeTreeService.write(placeTreeService.resolve(rootId, depth), out);
+		return objectMapper.readTree(out.toByteArray());
+	}
+
+	private GazetteerIndex index() {
+		GazetteerIndex index = new GazetteerIndex(null, null, null, null, null, null);
+		index.replace(List.of(europe, france, ile, paris, marais, asia));
+		return index;
+	}
+}
@@ -0,0 +1,32 @@
+package com.tecvinson.location.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ValidationServiceTest {
+
+	private final ValidationService validationService = new ValidationService(null);
+
+	@Test
+	void hashesReferenceValue() {
+		assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", validationService.hashApiKey("abc"));
+	}
+
+	// Stored hashes were written with String.format("%02x"), so the encoder must produce the same text
+	@Test
+	void matchesFormattedHexOfStoredKeys() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			String apiKey = UUID.randomUUID().toString();
+			StringBuilder expected = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8))) {
+				expected.append(String.format("%02x", b));
+			}
+			assertEquals(expected.toString(), validationService.hashApiKey(apiKey));
+		}
+	}
+}
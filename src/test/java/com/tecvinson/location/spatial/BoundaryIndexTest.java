@@ -0,0 +1,68 @@
+package com.tecvinson.location.spatial;
+
+import com.tecvinson.location.dtos.geocoding.PlaceMatch;
+import com.tecvinson.location.entities.Area;
+import com.tecvinson.location.entities.PlaceType;
+import com.tecvinson.location.events.PlaceChangedEvent;
+import com.tecvinson.location.repositories.AreaRepository;
+import com.tecvinson.location.repositories.CityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.tecvinson.location.spatial.PreparedPolygonTest.square;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundaryIndexTest {
+
+	private final AreaRepository areaRepository = mock(AreaRepository.class);
+	private final BoundaryIndex boundaryIndex = new BoundaryIndex(areaRepository, mock(CityRepository.class),
+			mock(PlatformTransactionManager.class), 0.25);
+
+	@Test
+	void nestedBoundariesComeBackSmallestFirst() {
+		// The region spans more cells than a polygon may be registered in, so it is checked on every lookup
+		Area region = area("Region", square(-10, -10, 30));
+		Area district = area("District", square(0, 0, 2));
+		Area block = area("Block", square(0.5, 0.5, 0.1));
+		Area elsewhere = area("Elsewhere", square(5, 5, 1));
+		when(areaRepository.findAllWithBoundary()).thenReturn(List.of(region, block, elsewhere, district));
+
+		boundaryIndex.load();
+
+		assertEquals(List.of("Block", "District", "Region"), names(boundaryIndex.containingAreas(0.55, 0.55)));
+		assertEquals(List.of("District", "Region"), names(boundaryIndex.containingAreas(1.5, 1.5)));
+		assertTrue(boundaryIndex.containingAreas(40, 40).isEmpty());
+	}
+
+	@Test
+	void aChangedAreaWithoutBoundaryLeavesTheIndex() {
+		Area district = area("District", square(0, 0, 2));
+		when(areaRepository.findAllWithBoundary()).thenReturn(List.of(district));
+		boundaryIndex.load();
+
+		district.setBoundary(null);
+		when(areaRepository.findById(district.getId())).thenReturn(Optional.of(district));
+		boundaryIndex.onPlaceChanged(new PlaceChangedEvent(PlaceType.AREA, district.getId()));
+
+		assertTrue(boundaryIndex.containingAreas(1, 1).isEmpty());
+	}
+
+	private static Area area(String name, double[][] ring) {
+		Area area = new Area();
+		area.setId(UUID.randomUUID());
+		area.setName(name);
+		area.setBoundary(new double[][][]{ring});
+		return area;
+	}
+
+	private static List<String> names(List<PlaceMatch> matches) {
+		return matches.stream().map(PlaceMatch::getName).toList();
+	}
+}
@@ -0,0 +1,123 @@
+package com.tecvinson.location.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoGridIndexTest {
+
+	@Test
+	void returnsTheSameNeighboursAsABruteForceScanClosestFirst() {
+		Random random = new Random(42);
+		GeoGridIndex index = new GeoGridIndex(0.05);
+		List<GridPoint> points = new ArrayList<>();
+		// A dense cluster spread over many cells, plus a few points far away
+		for (int i = 0; i < 2000; i++) {
+			points.add(point(6 + random.nextDouble(), 3 + random.nextDouble()));
+		}
+		for (int i = 0; i < 20; i++) {
+			points.add(point(random.nextDouble() * 160 - 80, random.nextDouble() * 340 - 170));
+		}
+		points.forEach(index::put);
+
+		for (int query = 0; query < 200; query++) {
+			double latitude = query % 10 == 0 ? random.nextDouble() * 160 - 80 : 6 + random.nextDouble();
+			double longitude = query % 10 == 0 ? random.nextDouble() * 340 - 170 : 3 + random.nextDouble();
+			int limit = 1 + random.nextInt(20);
+			double maxDistanceKm = query % 2 == 0 ? 5 : 20000;
+
+			List<GeoGridIndex.Neighbour> found = index.nearest(latitude, longitude, limit, maxDistanceKm, point -> true);
+			List<Double> expected = points.stream()
+					.map(point -> GeoMath.distanceKm(latitude, longitude, point.latitude(), point.longitude()))
+					.filter(distance -> distance <= maxDistanceKm)
+					.sorted()
+					.limit(limit)
+					.toList();
+			assertEquals(expected, found.stream().map(GeoGridIndex.Neighbour::distanceKm).toList(),
+					"query " + latitude + ", " + longitude + " limit " + limit);
+		}
+	}
+
+	@Test
+	void stopsAtTheMaximumDistance() {
+		GeoGridIndex index = new GeoGridIndex(0.05);
+		GridPoint near = point(6.5, 3.4);
+		index.put(near);
+		index.put(point(6.5, 3.6));
+
+		List<GeoGridIndex.Neighbour> found = index.nearest(6.5, 3.41, 10, 5, point -> true);
+
+		assertEquals(1, found.size());
+		assertEquals(near, found.get(0).point());
+		assertTrue(found.get(0).distanceKm() <= 5);
+	}
+
+	@Test
+	void findsNeighboursAcrossCellEdgesAndTheAntimeridian() {
+		GeoGridIndex index = new GeoGridIndex(0.05);
+		GridPoint east = point(0, 179.999);
+		GridPoint acrossTheEdge = point(10.0501, 20.0);
+		index.put(east);
+		index.put(acrossTheEdge);
+		index.put(point(10.2, 20.0));
+
+		List<GeoGridIndex.Neighbour> west = index.nearest(0, -179.999, 1, 10, point -> true);
+		assertEquals(east, west.get(0).point());
+		assertTrue(west.get(0).distanceKm() < 1);
+
+		// The query sits just below a cell edge, its nearest point just above it
+		assertEquals(acrossTheEdge, index.nearest(10.0499, 20.0, 1, 10, point -> true).get(0).point());
+	}
+
+	@Test
+	void emptyIndexAndFilteredOutPointsGiveNoNeighbours() {
+		GeoGridIndex index = new GeoGridIndex(0.05);
+		assertTrue(index.nearest(6.5, 3.4, 5, 20000, point -> true).isEmpty());
+
+		GridPoint point = point(6.5, 3.4);
+		index.put(point);
+		assertTrue(index.nearest(6.5, 3.4, 0, 20000, candidate -> true).isEmpty());
+		assertTrue(index.nearest(6.5, 3.4, 5, 20000, candidate -> false).isEmpty());
+
+		index.remove(point.id());
+		assertEquals(0, index.size());
+		assertTrue(index.nearest(6.5, 3.4, 5, 20000, candidate -> true).isEmpty());
+	}
+
+	@Test
+	void putMovesAPointThatIsAlreadyIndexed() {
+		GeoGridIndex index = new GeoGridIndex(0.05);
+		GridPoint point = point(6.5, 3.4);
+		index.put(point);
+		index.put(new GridPoint(point.id(), 40.0, -3.7, null));
+
+		assertEquals(1, index.size());
+		assertTrue(index.nearest(6.5, 3.4, 1, 100, candidate -> true).isEmpty());
+		assertEquals(point.id(), index.nearest(40.0, -3.7, 1, 1, candidate -> true).get(0).point().id());
+	}
+
+	@Test
+	void countsPointsPerAreaAfterMoves() {
+		GeoGridIndex index = new GeoGridIndex(0.05);
+		UUID ikeja = UUID.randomUUID();
+		UUID yaba = UUID.randomUUID();
+		GridPoint moved = new GridPoint(UUID.randomUUID(), 6.6, 3.35, ikeja);
+		index.put(moved);
+		index.put(new GridPoint(UUID.randomUUID(), 6.6, 3.35, ikeja));
+		index.put(point(6.5, 3.4));
+		index.put(new GridPoint(moved.id(), 6.5, 3.38, yaba));
+
+		assertEquals(Map.of(ikeja, 1L, yaba, 1L), index.countByArea());
+	}
+
+	private static GridPoint point(double latitude, double longitude) {
+		return new GridPoint(UUID.randomUUID(), latitude, longitude, null);
+	}
+}
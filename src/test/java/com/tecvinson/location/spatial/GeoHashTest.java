@@ -0,0 +1,37 @@
+package com.tecvinson.location.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoHashTest {
+
+	@Test
+	void encodesReferencePoints() {
+		assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+		assertEquals("ezs42", GeoHash.encode(42.6, -5.6, 5));
+	}
+
+	@Test
+	void coverContainsEveryPointOfTheBox() {
+		Random random = new Random(42);
+		for (int box = 0; box < 500; box++) {
+			double minLat = random.nextDouble() * 170 - 85;
+			double minLng = random.nextDouble() * 350 - 175;
+			double maxLat = Math.min(90, minLat + random.nextDouble() * 2);
+			double maxLng = Math.min(180, minLng + random.nextDouble() * 3);
+			List<GeoHash.Range> ranges = GeoHash.cover(minLat, minLng, maxLat, maxLng);
+
+			for (int point = 0; point < 50; point++) {
+				String hash = GeoHash.encode(minLat + (maxLat - minLat) * random.nextDouble(),
+						minLng + (maxLng - minLng) * random.nextDouble());
+				assertTrue(ranges.stream().anyMatch(range ->
+						hash.compareTo(range.from()) >= 0 && hash.compareTo(range.to()) <= 0), hash);
+			}
+		}
+	}
+}
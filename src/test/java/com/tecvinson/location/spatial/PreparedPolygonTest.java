@@ -0,0 +1,65 @@
+package com.tecvinson.location.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreparedPolygonTest {
+
+	@Test
+	void holesAreOutsideByTheEvenOddRule() {
+		PreparedPolygon polygon = new PreparedPolygon(new double[][][]{
+				square(0, 0, 10),
+				square(4, 4, 2)});
+
+		assertTrue(polygon.contains(2, 2));
+		assertTrue(polygon.contains(8, 5));
+		assertFalse(polygon.contains(5, 5));
+		assertFalse(polygon.contains(11, 5));
+		assertEquals(96, polygon.getArea(), 1e-9);
+	}
+
+	@Test
+	void pointsOnBandEdgesSeeTheEdgesThatCrossThem() {
+		// Sixteen edges give four bands of one degree each, with vertices on every band edge
+		double[][] ring = new double[16][];
+		int point = 0;
+		for (int i = 0; i < 4; i++) {
+			ring[point++] = new double[]{i, 0};
+		}
+		for (int i = 0; i < 4; i++) {
+			ring[point++] = new double[]{4, i};
+		}
+		for (int i = 4; i > 0; i--) {
+			ring[point++] = new double[]{i, 4};
+		}
+		for (int i = 4; i > 0; i--) {
+			ring[point++] = new double[]{0, i};
+		}
+		PreparedPolygon polygon = new PreparedPolygon(new double[][][]{ring});
+
+		for (double latitude = 1; latitude <= 3; latitude++) {
+			assertTrue(polygon.contains(latitude, 2), "inside at " + latitude);
+			assertTrue(polygon.contains(latitude, 3.999), "inside near the east side at " + latitude);
+			assertFalse(polygon.contains(latitude, -1), "west of the polygon at " + latitude);
+			assertFalse(polygon.contains(latitude, 4.001), "east of the polygon at " + latitude);
+		}
+	}
+
+	@Test
+	void rejectsRingsWithTooFewOrInvalidPoints() {
+		assertThrows(IllegalArgumentException.class, () -> PreparedPolygon.validate(new double[0][][]));
+		assertThrows(IllegalArgumentException.class,
+				() -> PreparedPolygon.validate(new double[][][]{{{0, 0}, {1, 1}}}));
+		assertThrows(IllegalArgumentException.class,
+				() -> PreparedPolygon.validate(new double[][][]{{{0, 0}, {1, 0}, {1, 91}}}));
+	}
+
+	// Counter-clockwise [lng, lat] ring of a square with its south-west corner at (lng, lat)
+	static double[][] square(double lng, double lat, double size) {
+		return new double[][]{{lng, lat}, {lng + size, lat}, {lng + size, lat + size}, {lng, lat + size}, {lng, lat}};
+	}
+}